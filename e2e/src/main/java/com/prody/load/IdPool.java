@@ -0,0 +1,38 @@
+package com.prody.load;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Growing set of created ids the reads and updates of the load pick from at random.
+ */
+public class IdPool {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+
+    private int size;
+
+    /**
+     * Adds an id.
+     *
+     * @param id The id.
+     */
+    public synchronized void add(long id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+    }
+
+    /**
+     * Picks an id at random.
+     *
+     * @return The id, empty when no id was added yet.
+     */
+    public synchronized OptionalLong random() {
+        return size == 0 ? OptionalLong.empty() : OptionalLong.of(ids[ThreadLocalRandom.current().nextInt(size)]);
+    }
+}
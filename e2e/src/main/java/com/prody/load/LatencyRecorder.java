@@ -0,0 +1,87 @@
+package com.prody.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the latency and outcome of every measured request in HdrHistograms, one per operation.
+ */
+public class LatencyRecorder {
+
+    /**
+     * Latencies above this are recorded as this value.
+     */
+    private static final long HIGHEST_TRACKABLE_NANOS = Duration.ofMinutes(1).toNanos();
+
+    /**
+     * Significant decimal digits kept by the histograms.
+     */
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+
+    private final Map<Operation, AtomicLong> failures = new EnumMap<>(Operation.class);
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Creates an empty recorder.
+     */
+    public LatencyRecorder() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS));
+            failures.put(operation, new AtomicLong());
+        }
+    }
+
+    /**
+     * Records a sent request.
+     *
+     * @param operation    The operation.
+     * @param latencyNanos The time from when the request was due to its response or failure.
+     * @param failed       Whether the request failed.
+     */
+    public void record(Operation operation, long latencyNanos, boolean failed) {
+        latencies.get(operation).recordValue(Math.min(Math.max(latencyNanos, 0), HIGHEST_TRACKABLE_NANOS));
+        if (failed) {
+            failures.get(operation).incrementAndGet();
+        }
+    }
+
+    /**
+     * Records a request that was not sent because the concurrency limit was reached.
+     */
+    public void recordDropped() {
+        dropped.incrementAndGet();
+    }
+
+    /**
+     * Summarizes the recorded requests.
+     *
+     * @param window The measured window.
+     * @return The statistics of every operation that was sent, followed by those of the whole run.
+     */
+    public List<OperationStats> stats(Duration window) {
+        List<OperationStats> stats = new ArrayList<>();
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        long allFailures = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation).copy();
+            if (histogram.getTotalCount() > 0) {
+                long failed = failures.get(operation).get();
+                stats.add(OperationStats.of(operation.name(), histogram, failed, 0, window));
+                all.add(histogram);
+                allFailures += failed;
+            }
+        }
+        stats.add(OperationStats.of(LoadReport.ALL, all, allFailures, dropped.get(), window));
+        return stats;
+    }
+}
@@ -0,0 +1,42 @@
+package com.prody.load;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Outcome of a load test run.
+ *
+ * @param startedAt         When the measured window started.
+ * @param window            The measured window.
+ * @param requestsPerSecond The configured arrival rate.
+ * @param operations        The statistics of every operation, followed by those of the whole run.
+ * @param violations        The missed objectives, empty when the run passed.
+ */
+public record LoadReport(Instant startedAt, Duration window, int requestsPerSecond, List<OperationStats> operations,
+                         List<String> violations) {
+
+    /**
+     * The name of the statistics of the whole run.
+     */
+    public static final String ALL = "ALL";
+
+    /**
+     * Renders the statistics as a table.
+     *
+     * @return The table.
+     */
+    public String toTable() {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%-21s %9s %7s %9s %9s %9s %9s %9s %9s %9s%n", "operation", "requests", "errors", "req/s",
+                "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "err %"));
+        for (OperationStats stats : operations) {
+            table.append(String.format(Locale.ROOT, "%-21s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.3f%n",
+                    stats.operation(), stats.requests(), stats.errors(), stats.throughput(), stats.p50Millis(),
+                    stats.p95Millis(), stats.p99Millis(), stats.p999Millis(), stats.maxMillis(),
+                    stats.errorRate() * 100));
+        }
+        return table.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.prody.load;
+
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Beans of the load test, only created when it runs.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "load", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(LoadTestProperties.class)
+public class LoadTestConfig {
+
+    /**
+     * Creates the client of the user-profile service, with one pooled connection per request in flight.
+     *
+     * @param builder    The auto-configured WebClient builder.
+     * @param properties The load test settings.
+     * @return The client.
+     */
+    @Bean
+    public UserProfileClient userProfileClient(WebClient.Builder builder, LoadTestProperties properties) {
+        ConnectionProvider connections = ConnectionProvider.builder("load-test")
+                .maxConnections(properties.maxConcurrency())
+                .pendingAcquireMaxCount(-1)
+                .build();
+        HttpClient httpClient = HttpClient.create(connections);
+        if (properties.insecureTls()) {
+            httpClient = httpClient.secure(ssl -> ssl.sslContext(Http11SslContextSpec.forClient()
+                    .configure(context -> context.trustManager(InsecureTrustManagerFactory.INSTANCE))));
+        }
+        return new UserProfileClient(builder
+                .baseUrl(properties.baseUrl().toString())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build());
+    }
+}
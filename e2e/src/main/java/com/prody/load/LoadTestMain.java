@@ -0,0 +1,28 @@
+package com.prody.load;
+
+import com.prody.E2EApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Entry point of the load test, run by the loadTest Gradle task.
+ * The JVM exits with a non-zero status when a service level objective is missed, which fails the build.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args Overrides of the load.* settings, e.g. --load.requests-per-second=500.
+     */
+    public static void main(String[] args) {
+        System.exit(SpringApplication.exit(new SpringApplicationBuilder(E2EApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("load.enabled=true")
+                .run(args)));
+    }
+}
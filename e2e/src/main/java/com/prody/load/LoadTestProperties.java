@@ -0,0 +1,53 @@
+package com.prody.load;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Load test settings.
+ * Requests are sent at a fixed arrival rate whatever the response times are, and their latency is measured from
+ * the time they were due, so a slow service shows up in the percentiles instead of slowing the test down.
+ *
+ * @param baseUrl           The base URL of the user-profile service.
+ * @param insecureTls       Whether the self-signed certificate of the service is trusted without verification.
+ * @param startupTimeout    How long to wait for the service to report healthy.
+ * @param seedUsers         The number of users, with contacts, created before the run for the reads and updates.
+ * @param requestsPerSecond The arrival rate of requests.
+ * @param maxConcurrency    The maximum number of requests in flight, requests arriving above it are dropped.
+ * @param requestTimeout    The timeout of a request, after which it counts as failed.
+ * @param warmup            The time the load runs before it is measured.
+ * @param duration          The measured time.
+ * @param mix               The relative weights of the operations.
+ * @param slo               The objectives of the whole run.
+ * @param operationSlo      The objectives of single operations.
+ * @param reportFile        The JSON report file.
+ */
+@ConfigurationProperties("load")
+public record LoadTestProperties(@DefaultValue("https://localhost:8080") URI baseUrl,
+                                 @DefaultValue("true") boolean insecureTls,
+                                 @DefaultValue("3m") Duration startupTimeout,
+                                 @DefaultValue("200") int seedUsers,
+                                 @DefaultValue("200") int requestsPerSecond,
+                                 @DefaultValue("64") int maxConcurrency,
+                                 @DefaultValue("5s") Duration requestTimeout,
+                                 @DefaultValue("15s") Duration warmup,
+                                 @DefaultValue("60s") Duration duration,
+                                 Map<Operation, Integer> mix,
+                                 Slo slo,
+                                 Map<Operation, Slo> operationSlo,
+                                 @DefaultValue("build/reports/load/load-report.json") Path reportFile) {
+
+    /**
+     * Defaults the optional maps and objectives to empty ones.
+     */
+    public LoadTestProperties {
+        mix = mix == null ? Map.of() : mix;
+        slo = slo == null ? new Slo(null, null, null, null, null, null) : slo;
+        operationSlo = operationSlo == null ? Map.of() : operationSlo;
+    }
+}
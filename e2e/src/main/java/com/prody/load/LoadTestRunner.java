@@ -0,0 +1,135 @@
+package com.prody.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the load test: waits for the service, seeds users and contacts, drives the operation mix at the configured
+ * arrival rate, then reports the statistics and fails the run when an objective is missed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "load", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class LoadTestRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final LoadTestProperties properties;
+
+    private final UserProfileClient client;
+
+    private final ObjectMapper objectMapper;
+
+    private int exitCode;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        log.info("Waiting for {} to report healthy", properties.baseUrl());
+        client.awaitHealthy(properties.startupTimeout()).block();
+
+        LoadWorkload workload = new LoadWorkload(client);
+        log.info("Seeding {} users with contacts", properties.seedUsers());
+        Flux.range(0, properties.seedUsers())
+                .flatMap(i -> workload.seed(), properties.maxConcurrency())
+                .blockLast();
+
+        log.info("Sending {} requests/s for {} of warmup and {} measured", properties.requestsPerSecond(),
+                properties.warmup(), properties.duration());
+        LoadReport report = drive(workload);
+        log.info("Load test results\n{}", report.toTable());
+        writeReport(report);
+
+        if (report.violations().isEmpty()) {
+            log.info("All service level objectives are met");
+        } else {
+            report.violations().forEach(violation -> log.error("Service level objective missed: {}", violation));
+            exitCode = 1;
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private LoadReport drive(LoadWorkload workload) {
+        OperationMix mix = new OperationMix(properties.mix());
+        LatencyRecorder recorder = new LatencyRecorder();
+        long periodNanos = NANOS_PER_SECOND / properties.requestsPerSecond();
+        long warmupTicks = properties.warmup().toNanos() / periodNanos;
+        long totalTicks = warmupTicks + properties.duration().toNanos() / periodNanos;
+        Instant startedAt = Instant.now().plus(properties.warmup());
+        long start = System.nanoTime();
+        long measureStart = start + warmupTicks * periodNanos;
+
+        Flux.interval(Duration.ofNanos(periodNanos))
+                .take(totalTicks)
+                .onBackpressureDrop(tick -> {
+                    if (tick >= warmupTicks) {
+                        recorder.recordDropped();
+                    }
+                })
+                .flatMap(tick -> send(workload.prepare(mix.next()), recorder, tick >= warmupTicks,
+                        start + (tick + 1) * periodNanos), properties.maxConcurrency())
+                .blockLast();
+
+        Duration window = Duration.ofNanos(System.nanoTime() - measureStart);
+        List<OperationStats> stats = recorder.stats(window);
+        return new LoadReport(startedAt, window, properties.requestsPerSecond(), stats, violations(stats));
+    }
+
+    private Mono<Void> send(LoadWorkload.Call call, LatencyRecorder recorder, boolean measured, long dueNanos) {
+        return call.request()
+                .timeout(properties.requestTimeout())
+                .then(Mono.just(false))
+                .onErrorResume(e -> {
+                    log.debug("{} failed", call.operation(), e);
+                    return Mono.just(true);
+                })
+                .doOnNext(failed -> {
+                    if (measured) {
+                        recorder.record(call.operation(), System.nanoTime() - dueNanos, failed);
+                    }
+                })
+                .then();
+    }
+
+    private List<String> violations(List<OperationStats> stats) {
+        List<String> violations = new ArrayList<>();
+        for (OperationStats operationStats : stats) {
+            if (LoadReport.ALL.equals(operationStats.operation())) {
+                violations.addAll(properties.slo().check(operationStats));
+            } else {
+                Slo slo = properties.operationSlo().get(Operation.valueOf(operationStats.operation()));
+                if (slo != null) {
+                    violations.addAll(slo.check(operationStats));
+                }
+            }
+        }
+        return violations;
+    }
+
+    private void writeReport(LoadReport report) throws IOException {
+        Path file = properties.reportFile().toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+        log.info("Load test report written to {}", file);
+    }
+}
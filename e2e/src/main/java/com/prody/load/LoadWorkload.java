@@ -0,0 +1,123 @@
+package com.prody.load;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+import java.util.OptionalLong;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Turns operations into requests and keeps track of the users and contacts the run created.
+ * Every created value is unique to the run, so runs can be repeated against the same database.
+ * Profiles are only read for users with a contact, so both ways of reading a profile return the same data.
+ */
+@RequiredArgsConstructor
+public class LoadWorkload {
+
+    /**
+     * Phone numbers are +1 followed by this many digits.
+     */
+    private static final long PHONE_NUMBERS = 10_000_000_000L;
+
+    private final UserProfileClient client;
+
+    private final String runId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final IdPool userIds = new IdPool();
+
+    private final IdPool contactIds = new IdPool();
+
+    private final IdPool usersWithContact = new IdPool();
+
+    private final Queue<Long> usersWithoutContact = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a user with a contact to read and update during the run.
+     *
+     * @return Completes once both are created.
+     */
+    public Mono<Void> seed() {
+        return client.createUser(newUser())
+                .doOnNext(userIds::add)
+                .flatMap(userId -> client.createContact(newContact(userId))
+                        .doOnNext(contactId -> {
+                            contactIds.add(contactId);
+                            usersWithContact.add(userId);
+                        }))
+                .then();
+    }
+
+    /**
+     * Prepares the request of an operation.
+     * When the operation needs an id that does not exist yet, a user is created instead.
+     *
+     * @param operation The operation.
+     * @return The operation actually sent and its request, which is sent when subscribed.
+     */
+    public Call prepare(Operation operation) {
+        return switch (operation) {
+            case CREATE_USER -> createUser();
+            case GET_USER -> withId(userIds.random(), id -> new Call(operation, client.getUser(id)));
+            case UPDATE_USER -> withId(userIds.random(),
+                    id -> new Call(operation, client.updateUser(id, newUser())));
+            case CREATE_CONTACT -> createContact();
+            case GET_CONTACT -> withId(contactIds.random(), id -> new Call(operation, client.getContact(id)));
+            case UPDATE_CONTACT -> withId(contactIds.random(),
+                    id -> new Call(operation, client.updateContact(id, newContact(null))));
+            case GET_PROFILE -> withId(usersWithContact.random(), id -> new Call(operation, client.getProfile(id)));
+            case GET_PROFILE_TWO_CALLS -> withId(usersWithContact.random(),
+                    id -> new Call(operation, Mono.when(client.getUser(id), client.getContactByUserId(id))));
+        };
+    }
+
+    private Call createUser() {
+        return new Call(Operation.CREATE_USER, client.createUser(newUser())
+                .doOnNext(id -> {
+                    userIds.add(id);
+                    usersWithoutContact.add(id);
+                })
+                .then());
+    }
+
+    private Call createContact() {
+        Long userId = usersWithoutContact.poll();
+        if (userId == null) {
+            return createUser();
+        }
+        return new Call(Operation.CREATE_CONTACT, client.createContact(newContact(userId))
+                .doOnNext(contactId -> {
+                    contactIds.add(contactId);
+                    usersWithContact.add(userId);
+                })
+                .then());
+    }
+
+    private Call withId(OptionalLong id, LongFunction<Call> call) {
+        return id.isPresent() ? call.apply(id.getAsLong()) : createUser();
+    }
+
+    private UserProfileClient.User newUser() {
+        long n = sequence.incrementAndGet();
+        return new UserProfileClient.User(null, "Load" + n, "Run" + runId, "load-" + runId + "-" + n + "@example.com");
+    }
+
+    private UserProfileClient.Contact newContact(Long userId) {
+        long n = sequence.incrementAndGet();
+        return new UserProfileClient.Contact(null, "@load_" + runId + "_" + n,
+                String.format("+1%010d", n % PHONE_NUMBERS), userId);
+    }
+
+    /**
+     * A request ready to be sent.
+     *
+     * @param operation The operation the request is recorded as.
+     * @param request   The request, sent when subscribed.
+     */
+    public record Call(Operation operation, Mono<Void> request) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.prody.load;
+
+/**
+ * Request types of the load mix, one per user-profile endpoint that is driven.
+ */
+public enum Operation {
+
+    /**
+     * POST /api/user/add.
+     */
+    CREATE_USER,
+
+    /**
+     * GET /api/user.
+     */
+    GET_USER,
+
+    /**
+     * POST /api/user/update.
+     */
+    UPDATE_USER,
+
+    /**
+     * POST /api/user-contact/add.
+     */
+    CREATE_CONTACT,
+
+    /**
+     * GET /api/user-contact.
+     */
+    GET_CONTACT,
+
+    /**
+     * POST /api/user-contact/update.
+     */
+    UPDATE_CONTACT,
+
+    /**
+     * GET /api/profile/{userId}, the user and its contact from the read model.
+     */
+    GET_PROFILE,
+
+    /**
+     * GET /api/user and GET /api/user-contact/user sent together, the same profile without the read model.
+     */
+    GET_PROFILE_TWO_CALLS
+}
@@ -0,0 +1,54 @@
+package com.prody.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks operations at random following their relative weights.
+ */
+public class OperationMix {
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    /**
+     * Creates the mix.
+     *
+     * @param weights The relative weights, operations with no or a zero weight are never picked.
+     */
+    public OperationMix(Map<Operation, Integer> weights) {
+        Map<Operation, Integer> positive = new EnumMap<>(Operation.class);
+        weights.forEach((operation, weight) -> {
+            if (weight != null && weight > 0) {
+                positive.put(operation, weight);
+            }
+        });
+        if (positive.isEmpty()) {
+            throw new IllegalArgumentException("The load mix has no operation with a positive weight");
+        }
+        operations = positive.keySet().toArray(Operation[]::new);
+        cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += positive.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Picks the next operation.
+     *
+     * @return The operation.
+     */
+    public Operation next() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+}
@@ -0,0 +1,52 @@
+package com.prody.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+/**
+ * Latency, throughput and error statistics of one operation, or of the whole run, over the measured window.
+ *
+ * @param operation  The operation name, or "ALL".
+ * @param requests   The number of requests, including the failed ones.
+ * @param errors     The number of failed or dropped requests.
+ * @param errorRate  The share of failed requests, between 0 and 1.
+ * @param throughput The successful requests per second.
+ * @param p50Millis  The median latency.
+ * @param p95Millis  The 95th percentile latency.
+ * @param p99Millis  The 99th percentile latency.
+ * @param p999Millis The 99.9th percentile latency.
+ * @param maxMillis  The maximum latency.
+ */
+public record OperationStats(String operation, long requests, long errors, double errorRate, double throughput,
+                             double p50Millis, double p95Millis, double p99Millis, double p999Millis,
+                             double maxMillis) {
+
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * Computes the statistics from a latency histogram in nanoseconds.
+     *
+     * @param operation The operation name.
+     * @param latencies The latencies of all sent requests, successful or not.
+     * @param failed    The number of sent requests that failed.
+     * @param dropped   The number of requests that could not be sent because the concurrency limit was reached.
+     * @param window    The measured window.
+     * @return The statistics.
+     */
+    public static OperationStats of(String operation, Histogram latencies, long failed, long dropped,
+                                    Duration window) {
+        long requests = latencies.getTotalCount() + dropped;
+        long errors = failed + dropped;
+        double seconds = window.toNanos() / 1e9;
+        return new OperationStats(operation, requests, errors,
+                requests == 0 ? 0 : (double) errors / requests,
+                seconds == 0 ? 0 : (requests - errors) / seconds,
+                millis(latencies, 50), millis(latencies, 95), millis(latencies, 99), millis(latencies, 99.9),
+                latencies.getMaxValue() / NANOS_PER_MILLI);
+    }
+
+    private static double millis(Histogram latencies, double percentile) {
+        return latencies.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+}
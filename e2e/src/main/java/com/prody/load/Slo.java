@@ -0,0 +1,50 @@
+package com.prody.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service level objectives a load test run is checked against. Unset objectives are not checked.
+ *
+ * @param p50           The maximum median latency.
+ * @param p95           The maximum 95th percentile latency.
+ * @param p99           The maximum 99th percentile latency.
+ * @param p999          The maximum 99.9th percentile latency.
+ * @param maxErrorRate  The maximum share of failed requests, between 0 and 1.
+ * @param minThroughput The minimum number of successful requests per second.
+ */
+public record Slo(Duration p50, Duration p95, Duration p99, Duration p999, Double maxErrorRate,
+                  Double minThroughput) {
+
+    /**
+     * Checks the statistics of an operation against the objectives.
+     *
+     * @param stats The statistics of an operation, or of the whole run.
+     * @return The descriptions of the missed objectives, empty when all are met.
+     */
+    public List<String> check(OperationStats stats) {
+        List<String> violations = new ArrayList<>();
+        checkLatency(violations, stats, "p50", stats.p50Millis(), p50);
+        checkLatency(violations, stats, "p95", stats.p95Millis(), p95);
+        checkLatency(violations, stats, "p99", stats.p99Millis(), p99);
+        checkLatency(violations, stats, "p99.9", stats.p999Millis(), p999);
+        if (maxErrorRate != null && stats.errorRate() > maxErrorRate) {
+            violations.add("%s error rate %.4f above %.4f".formatted(stats.operation(), stats.errorRate(),
+                    maxErrorRate));
+        }
+        if (minThroughput != null && stats.throughput() < minThroughput) {
+            violations.add("%s throughput %.1f/s below %.1f/s".formatted(stats.operation(), stats.throughput(),
+                    minThroughput));
+        }
+        return violations;
+    }
+
+    private static void checkLatency(List<String> violations, OperationStats stats, String percentile,
+                                     double actualMillis, Duration objective) {
+        if (objective != null && actualMillis > objective.toNanos() / 1e6) {
+            violations.add("%s %s latency %.2f ms above %d ms".formatted(stats.operation(), percentile,
+                    actualMillis, objective.toMillis()));
+        }
+    }
+}
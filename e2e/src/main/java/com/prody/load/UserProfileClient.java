@@ -0,0 +1,176 @@
+package com.prody.load;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Client of the user-profile endpoints driven by the load test.
+ */
+@RequiredArgsConstructor
+public class UserProfileClient {
+
+    private static final String USER_PATH = "/api/user";
+
+    private static final String USER_CONTACT_PATH = "/api/user-contact";
+
+    private static final String PROFILE_PATH = "/api/profile/{userId}";
+
+    private static final String ID = "id";
+
+    private static final String USER_ID = "userId";
+
+    private static final Duration HEALTH_POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private final WebClient webClient;
+
+    /**
+     * Waits until the service reports healthy.
+     *
+     * @param timeout How long to wait.
+     * @return Completes once the service is healthy, fails after the timeout.
+     */
+    public Mono<Void> awaitHealthy(Duration timeout) {
+        return webClient.get().uri("/actuator/health")
+                .retrieve()
+                .toBodilessEntity()
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, HEALTH_POLL_INTERVAL))
+                .timeout(timeout)
+                .then();
+    }
+
+    /**
+     * Creates a user.
+     *
+     * @param user The user.
+     * @return The id of the created user.
+     */
+    public Mono<Long> createUser(User user) {
+        return webClient.post().uri(USER_PATH + "/add")
+                .bodyValue(user)
+                .retrieve()
+                .bodyToMono(User.class)
+                .map(User::id);
+    }
+
+    /**
+     * Gets a user.
+     *
+     * @param id The id of the user.
+     * @return Completes once the user is read.
+     */
+    public Mono<Void> getUser(long id) {
+        return webClient.get().uri(uri -> uri.path(USER_PATH).queryParam(ID, id).build())
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+    }
+
+    /**
+     * Updates a user.
+     *
+     * @param id   The id of the user.
+     * @param user The new values of the user.
+     * @return Completes once the user is updated.
+     */
+    public Mono<Void> updateUser(long id, User user) {
+        return webClient.post().uri(uri -> uri.path(USER_PATH + "/update").queryParam(ID, id).build())
+                .bodyValue(user)
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+    }
+
+    /**
+     * Creates a user contact.
+     *
+     * @param contact The user contact.
+     * @return The id of the created user contact.
+     */
+    public Mono<Long> createContact(Contact contact) {
+        return webClient.post().uri(USER_CONTACT_PATH + "/add")
+                .bodyValue(contact)
+                .retrieve()
+                .bodyToMono(Contact.class)
+                .map(Contact::id);
+    }
+
+    /**
+     * Gets a user contact.
+     *
+     * @param id The id of the user contact.
+     * @return Completes once the user contact is read.
+     */
+    public Mono<Void> getContact(long id) {
+        return webClient.get().uri(uri -> uri.path(USER_CONTACT_PATH).queryParam(ID, id).build())
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+    }
+
+    /**
+     * Updates a user contact.
+     *
+     * @param id      The id of the user contact.
+     * @param contact The new values of the user contact.
+     * @return Completes once the user contact is updated.
+     */
+    public Mono<Void> updateContact(long id, Contact contact) {
+        return webClient.post().uri(uri -> uri.path(USER_CONTACT_PATH + "/update").queryParam(ID, id).build())
+                .bodyValue(contact)
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+    }
+
+    /**
+     * Gets the user contact of a user.
+     *
+     * @param userId The id of the user.
+     * @return Completes once the user contact is read.
+     */
+    public Mono<Void> getContactByUserId(long userId) {
+        return webClient.get().uri(uri -> uri.path(USER_CONTACT_PATH + "/user").queryParam(USER_ID, userId).build())
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+    }
+
+    /**
+     * Gets the full profile of a user, the user and its contact in one response.
+     *
+     * @param userId The id of the user.
+     * @return Completes once the profile is read.
+     */
+    public Mono<Void> getProfile(long userId) {
+        return webClient.get().uri(PROFILE_PATH, userId)
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+    }
+
+    /**
+     * Body of the user endpoints.
+     *
+     * @param id        The id of the user.
+     * @param firstName The first name.
+     * @param lastName  The last name.
+     * @param email     The email.
+     */
+    public record User(Long id, String firstName, String lastName, String email) {
+    }
+
+    /**
+     * Body of the user contact endpoints.
+     *
+     * @param id          The id of the user contact.
+     * @param telegramId  The telegram id.
+     * @param mobilePhone The mobile phone.
+     * @param userId      The id of the user owning the contact.
+     */
+    public record Contact(Long id, String telegramId, String mobilePhone, Long userId) {
+    }
+}
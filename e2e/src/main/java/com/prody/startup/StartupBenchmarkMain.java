@@ -0,0 +1,28 @@
+package com.prody.startup;
+
+import com.prody.E2EApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Entry point of the startup benchmark, run by the startupBenchmark Gradle task.
+ * The JVM exits with a non-zero status when a start of an available variant failed, which fails the build.
+ */
+public final class StartupBenchmarkMain {
+
+    private StartupBenchmarkMain() {
+    }
+
+    /**
+     * Runs the startup benchmark.
+     *
+     * @param args Overrides of the startup.* settings, e.g. --startup.runs=10.
+     */
+    public static void main(String[] args) {
+        System.exit(SpringApplication.exit(new SpringApplicationBuilder(E2EApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("startup.enabled=true")
+                .run(args)));
+    }
+}
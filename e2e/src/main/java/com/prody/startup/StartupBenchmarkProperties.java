@@ -0,0 +1,43 @@
+package com.prody.startup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Startup benchmark settings.
+ * Every variant is started several times; the time to the first successful response of the probe URL is measured
+ * from the launch of the process, and the resident set size is read once that response arrived.
+ *
+ * @param workingDirectory The directory the variants are started in, the user-profile build directory.
+ * @param variants         The command of every variant, a leading "java" is the JVM running the benchmark.
+ * @param appArgs          The arguments appended to the command of every variant.
+ * @param probeUrl         The URL requested until the service answers with a 2xx status.
+ * @param runs             The number of starts of every variant.
+ * @param timeout          How long to wait for the first response before the start counts as failed.
+ * @param pollInterval     The pause between two probe requests.
+ * @param reportDirectory  The directory of the JSON report and of the output of every start.
+ */
+@ConfigurationProperties("startup")
+public record StartupBenchmarkProperties(@DefaultValue("../user-profile/build") Path workingDirectory,
+                                         Map<String, List<String>> variants,
+                                         List<String> appArgs,
+                                         @DefaultValue("http://localhost:18080/api/users?limit=1") URI probeUrl,
+                                         @DefaultValue("5") int runs,
+                                         @DefaultValue("2m") Duration timeout,
+                                         @DefaultValue("20ms") Duration pollInterval,
+                                         @DefaultValue("build/reports/startup") Path reportDirectory) {
+
+    /**
+     * Defaults the optional variants and arguments to empty ones.
+     */
+    public StartupBenchmarkProperties {
+        variants = variants == null ? Map.of() : variants;
+        appArgs = appArgs == null ? List.of() : appArgs;
+    }
+}
@@ -0,0 +1,168 @@
+package com.prody.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the startup benchmark: starts every variant of the user-profile service the configured number of times,
+ * measures the time to its first successful response and its resident set size, then stops it.
+ * The variants run one after the other against the same database, so they see the same migrated schema.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "startup", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(StartupBenchmarkProperties.class)
+@RequiredArgsConstructor
+public class StartupBenchmarkRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private static final long STOP_TIMEOUT_SECONDS = 30;
+
+    private static final Path PROC = Path.of("/proc");
+
+    private final StartupBenchmarkProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private int exitCode;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException, InterruptedException {
+        Files.createDirectories(properties.reportDirectory());
+        Instant startedAt = Instant.now();
+        List<StartupReport.VariantStats> variants = new ArrayList<>();
+        for (Map.Entry<String, List<String>> variant : properties.variants().entrySet()) {
+            variants.add(benchmark(variant.getKey(), command(variant.getValue())));
+        }
+
+        StartupReport report = new StartupReport(startedAt, properties.runs(), variants);
+        log.info("Startup benchmark results\n{}", report.toTable());
+        Path file = properties.reportDirectory().resolve("startup-report.json").toAbsolutePath();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+        log.info("Startup benchmark report written to {}", file);
+
+        if (variants.stream().anyMatch(stats -> stats.status() == StartupReport.Status.FAILED)) {
+            exitCode = 1;
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private StartupReport.VariantStats benchmark(String variant, List<String> command)
+            throws IOException, InterruptedException {
+        log.info("Starting {} {} times: {}", variant, properties.runs(), String.join(" ", command));
+        List<StartupReport.Sample> samples = new ArrayList<>();
+        for (int run = 1; run <= properties.runs(); run++) {
+            Path output = properties.reportDirectory().resolve(variant + "-" + run + ".log");
+            Process process;
+            long launchedAt = System.nanoTime();
+            try {
+                process = new ProcessBuilder(command)
+                        .directory(properties.workingDirectory().toFile())
+                        .redirectErrorStream(true)
+                        .redirectOutput(output.toFile())
+                        .start();
+            } catch (IOException e) {
+                log.warn("{} is not available: {}", variant, e.getMessage());
+                return StartupReport.VariantStats.unavailable(variant);
+            }
+            try {
+                samples.add(measure(run, process, launchedAt));
+            } finally {
+                stop(process);
+            }
+            StartupReport.Sample sample = samples.get(samples.size() - 1);
+            if (!sample.succeeded()) {
+                log.error("{} start {} did not answer {}, see {}", variant, run, properties.probeUrl(), output);
+            }
+        }
+        return StartupReport.VariantStats.of(variant, samples);
+    }
+
+    private StartupReport.Sample measure(int run, Process process, long launchedAt) throws InterruptedException {
+        HttpRequest probe = HttpRequest.newBuilder(properties.probeUrl())
+                .timeout(properties.timeout())
+                .GET()
+                .build();
+        long deadline = launchedAt + properties.timeout().toNanos();
+        while (process.isAlive() && System.nanoTime() < deadline) {
+            if (answered(probe)) {
+                long timeToFirstRequest = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launchedAt);
+                return new StartupReport.Sample(run, timeToFirstRequest, rssKib(process.pid()));
+            }
+            Thread.sleep(properties.pollInterval().toMillis());
+        }
+        return new StartupReport.Sample(run, -1, -1);
+    }
+
+    private boolean answered(HttpRequest probe) throws InterruptedException {
+        try {
+            int status = httpClient.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status >= 200 && status < 300;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the resident set size of a process from /proc, only available on Linux.
+     */
+    private static long rssKib(long pid) {
+        Path status = PROC.resolve(Long.toString(pid)).resolve("status");
+        try (var lines = Files.lines(status)) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> line.replaceAll("\\D", ""))
+                    .mapToLong(Long::parseLong)
+                    .findFirst()
+                    .orElse(-1);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    /**
+     * Appends the common arguments to the command of a variant, and starts "java" with the JVM of the benchmark so
+     * that a class data sharing archive recorded by the same build is accepted.
+     */
+    private List<String> command(List<String> variant) {
+        List<String> command = new ArrayList<>(variant);
+        if ("java".equals(command.get(0))) {
+            command.set(0, Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        }
+        command.addAll(properties.appArgs());
+        return command;
+    }
+}
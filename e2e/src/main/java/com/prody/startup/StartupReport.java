@@ -0,0 +1,121 @@
+package com.prody.startup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Outcome of a startup benchmark run.
+ *
+ * @param startedAt When the benchmark started.
+ * @param runs      The configured number of starts of every variant.
+ * @param variants  The statistics of every variant.
+ */
+public record StartupReport(Instant startedAt, int runs, List<VariantStats> variants) {
+
+    private static final double KIB_PER_MIB = 1024;
+
+    /**
+     * Renders the statistics as a table.
+     *
+     * @return The table.
+     */
+    public String toTable() {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%-12s %-11s %6s %6s %11s %11s %11s%n",
+                "variant", "status", "starts", "failed", "ttfr p50 ms", "ttfr max ms", "rss p50 MiB"));
+        for (VariantStats stats : variants) {
+            table.append(String.format(Locale.ROOT, "%-12s %-11s %6d %6d %11s %11s %11s%n",
+                    stats.variant(), stats.status(), stats.samples().size(), stats.failed(),
+                    orNone(stats.medianTimeToFirstRequestMillis(), 1), orNone(stats.maxTimeToFirstRequestMillis(), 1),
+                    orNone(stats.medianRssKib(), KIB_PER_MIB)));
+        }
+        return table.toString();
+    }
+
+    private static String orNone(long value, double divisor) {
+        return value < 0 ? "-" : String.format(Locale.ROOT, divisor == 1 ? "%.0f" : "%.1f", value / divisor);
+    }
+
+    /**
+     * The state of a variant after the benchmark.
+     */
+    public enum Status {
+        /**
+         * Every start answered the probe.
+         */
+        OK,
+        /**
+         * At least one start exited or timed out before answering the probe.
+         */
+        FAILED,
+        /**
+         * The command could not be launched, e.g. the native image was not built.
+         */
+        UNAVAILABLE
+    }
+
+    /**
+     * One start of a variant.
+     *
+     * @param run                       The number of the start, from 1.
+     * @param timeToFirstRequestMillis  The time from the launch to the first successful response, -1 when failed.
+     * @param rssKib                    The resident set size after the first response, -1 when unknown.
+     */
+    public record Sample(int run, long timeToFirstRequestMillis, long rssKib) {
+
+        /**
+         * Returns whether the start answered the probe.
+         *
+         * @return true when it answered in time.
+         */
+        public boolean succeeded() {
+            return timeToFirstRequestMillis >= 0;
+        }
+    }
+
+    /**
+     * Statistics of the successful starts of a variant.
+     *
+     * @param variant                        The variant name.
+     * @param status                         The state of the variant.
+     * @param samples                        Every start.
+     * @param failed                         The number of failed starts.
+     * @param medianTimeToFirstRequestMillis The median time to the first response.
+     * @param maxTimeToFirstRequestMillis    The maximum time to the first response.
+     * @param medianRssKib                   The median resident set size after the first response.
+     */
+    public record VariantStats(String variant, Status status, List<Sample> samples, long failed,
+                               long medianTimeToFirstRequestMillis, long maxTimeToFirstRequestMillis,
+                               long medianRssKib) {
+
+        /**
+         * Computes the statistics of the starts of a variant.
+         *
+         * @param variant The variant name.
+         * @param samples Every start.
+         * @return The statistics.
+         */
+        public static VariantStats of(String variant, List<Sample> samples) {
+            List<Sample> succeeded = samples.stream().filter(Sample::succeeded).toList();
+            long failed = samples.size() - succeeded.size();
+            return new VariantStats(variant, failed == 0 ? Status.OK : Status.FAILED, samples, failed,
+                    median(succeeded.stream().mapToLong(Sample::timeToFirstRequestMillis).sorted().toArray()),
+                    succeeded.stream().mapToLong(Sample::timeToFirstRequestMillis).max().orElse(-1),
+                    median(succeeded.stream().mapToLong(Sample::rssKib).sorted().toArray()));
+        }
+
+        /**
+         * Creates the statistics of a variant that could not be launched.
+         *
+         * @param variant The variant name.
+         * @return The statistics.
+         */
+        public static VariantStats unavailable(String variant) {
+            return new VariantStats(variant, Status.UNAVAILABLE, List.of(), 0, -1, -1, -1);
+        }
+
+        private static long median(long[] sorted) {
+            return sorted.length == 0 ? -1 : sorted[sorted.length / 2];
+        }
+    }
+}
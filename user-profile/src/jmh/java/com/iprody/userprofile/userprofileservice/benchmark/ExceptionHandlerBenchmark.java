@@ -0,0 +1,121 @@
+package com.iprody.userprofile.userprofileservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iprody.userprofile.userprofileservice.aop.ControllerExceptionHandler;
+import com.iprody.userprofile.userprofileservice.controller.UserContactController;
+import com.iprody.userprofile.userprofileservice.dto.UserContactDto;
+import com.iprody.userprofile.userprofileservice.exception.ResourceNotFoundException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the error path of {@link ControllerExceptionHandler}: creating the exception, building the
+ * error response and serializing it, for a missing resource and for a failed request body validation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+
+    /**
+     * The exception handler.
+     */
+    private ControllerExceptionHandler handler;
+
+    /**
+     * The object mapper writing the error responses.
+     */
+    private ObjectMapper objectMapper;
+
+    /**
+     * The validator factory, closed after the run.
+     */
+    private ValidatorFactory validatorFactory;
+
+    /**
+     * The Spring adapter of the bean validator, as used for request bodies.
+     */
+    private SpringValidatorAdapter validator;
+
+    /**
+     * The validated parameter of the user contact creation endpoint.
+     */
+    private MethodParameter parameter;
+
+    /**
+     * A DTO violating both patterns.
+     */
+    private UserContactDto invalidDto;
+
+    /**
+     * Creates the handler, the validator and the invalid request.
+     *
+     * @throws NoSuchMethodException Never, the endpoint exists.
+     */
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new ControllerExceptionHandler();
+        objectMapper = new ObjectMapper();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = new SpringValidatorAdapter(validatorFactory.getValidator());
+        parameter = new MethodParameter(
+                UserContactController.class.getMethod("saveUserContact", UserContactDto.class), 0);
+        invalidDto = UserContactDto.builder().telegramId("@te.st").mobilePhone("+A7953").userId(1L).build();
+    }
+
+    /**
+     * Closes the validator factory.
+     */
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    /**
+     * Handles a missing resource.
+     *
+     * @return The serialized error response.
+     * @throws JsonProcessingException Never, the response is serializable.
+     */
+    @Benchmark
+    public byte[] notFound() throws JsonProcessingException {
+        var response = handler.handleResourceNotFoundException(new ResourceNotFoundException("Could not find user"));
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    /**
+     * Validates an invalid request body and handles the resulting exception.
+     *
+     * @return The serialized error response.
+     * @throws JsonProcessingException Never, the response is serializable.
+     */
+    @Benchmark
+    public byte[] validationFailed() throws JsonProcessingException {
+        var bindingResult = new BeanPropertyBindingResult(invalidDto, "userContactDto");
+        validator.validate(invalidDto, bindingResult);
+        var response = handler.handleResourceNotFoundException(
+                new MethodArgumentNotValidException(parameter, bindingResult));
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,79 @@
+package com.iprody.userprofile.userprofileservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iprody.userprofile.userprofileservice.dto.UserDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson serialization and deserialization of {@link UserDto}, the payload of most responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    /**
+     * The object mapper, shared like the application's.
+     */
+    private ObjectMapper objectMapper;
+
+    /**
+     * The DTO to serialize.
+     */
+    private UserDto userDto;
+
+    /**
+     * The serialized DTO to deserialize.
+     */
+    private byte[] userJson;
+
+    /**
+     * Creates the object mapper and the payloads.
+     *
+     * @throws JsonProcessingException Never, the DTO is serializable.
+     */
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new ObjectMapper();
+        userDto = UserDto.builder().id(1L).firstName("first").lastName("last").email("user@mail.ru").build();
+        userJson = objectMapper.writeValueAsBytes(userDto);
+    }
+
+    /**
+     * Serializes a DTO.
+     *
+     * @return The JSON bytes.
+     * @throws JsonProcessingException Never, the DTO is serializable.
+     */
+    @Benchmark
+    public byte[] serializeUserDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userDto);
+    }
+
+    /**
+     * Deserializes a DTO.
+     *
+     * @return The DTO.
+     * @throws IOException Never, the JSON is valid.
+     */
+    @Benchmark
+    public UserDto deserializeUserDto() throws IOException {
+        return objectMapper.readValue(userJson, UserDto.class);
+    }
+}
@@ -0,0 +1,143 @@
+package com.iprody.userprofile.userprofileservice.benchmark;
+
+import com.iprody.userprofile.userprofileservice.dto.UserContactDto;
+import com.iprody.userprofile.userprofileservice.dto.UserDto;
+import com.iprody.userprofile.userprofileservice.entity.User;
+import com.iprody.userprofile.userprofileservice.entity.UserContact;
+import com.iprody.userprofile.userprofileservice.mapper.UserContactMapper;
+import com.iprody.userprofile.userprofileservice.mapper.UserContactMapperImpl;
+import com.iprody.userprofile.userprofileservice.mapper.UserMapper;
+import com.iprody.userprofile.userprofileservice.mapper.UserMapperImpl;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective ModelMapper with the generated MapStruct mappers on the controller mappings.
+ * Run with the gc profiler (configured in build.gradle) to see the allocation per mapping next to the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    /**
+     * The reflective mapper previously used by the controllers.
+     */
+    private ModelMapper modelMapper;
+
+    /**
+     * The generated user mapper.
+     */
+    private UserMapper userMapper;
+
+    /**
+     * The generated user contact mapper.
+     */
+    private UserContactMapper userContactMapper;
+
+    /**
+     * The user mapped to its DTO.
+     */
+    private User user;
+
+    /**
+     * The user contact mapped to its DTO.
+     */
+    private UserContact userContact;
+
+    /**
+     * The DTO mapped to a user.
+     */
+    private UserDto userDto;
+
+    /**
+     * Creates the mappers and a warmed-up ModelMapper type map for each mapping.
+     */
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        userMapper = new UserMapperImpl();
+        userContactMapper = new UserContactMapperImpl();
+        user = User.builder().id(1L).firstName("first").lastName("last").email("user@mail.ru").build();
+        userContact = UserContact.builder().id(1L).telegramId("@telegram").mobilePhone("+79531234567")
+                .user(user).build();
+        userDto = userMapper.toDto(user);
+        modelMapper.map(user, UserDto.class);
+        modelMapper.map(userContact, UserContactDto.class);
+        modelMapper.map(userDto, User.class);
+    }
+
+    /**
+     * Maps a user to its DTO with ModelMapper.
+     *
+     * @return The DTO.
+     */
+    @Benchmark
+    public UserDto modelMapperUserToDto() {
+        return modelMapper.map(user, UserDto.class);
+    }
+
+    /**
+     * Maps a user to its DTO with MapStruct.
+     *
+     * @return The DTO.
+     */
+    @Benchmark
+    public UserDto mapStructUserToDto() {
+        return userMapper.toDto(user);
+    }
+
+    /**
+     * Maps a user contact to its DTO with ModelMapper.
+     *
+     * @return The DTO.
+     */
+    @Benchmark
+    public UserContactDto modelMapperUserContactToDto() {
+        return modelMapper.map(userContact, UserContactDto.class);
+    }
+
+    /**
+     * Maps a user contact to its DTO with MapStruct.
+     *
+     * @return The DTO.
+     */
+    @Benchmark
+    public UserContactDto mapStructUserContactToDto() {
+        return userContactMapper.toDto(userContact);
+    }
+
+    /**
+     * Maps a DTO to a user with ModelMapper.
+     *
+     * @return The user.
+     */
+    @Benchmark
+    public User modelMapperDtoToUser() {
+        return modelMapper.map(userDto, User.class);
+    }
+
+    /**
+     * Maps a DTO to a user with MapStruct.
+     *
+     * @return The user.
+     */
+    @Benchmark
+    public User mapStructDtoToUser() {
+        return userMapper.toEntity(userDto);
+    }
+}
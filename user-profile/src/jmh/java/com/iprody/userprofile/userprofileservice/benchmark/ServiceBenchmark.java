@@ -0,0 +1,178 @@
+package com.iprody.userprofile.userprofileservice.benchmark;
+
+import com.iprody.userprofile.userprofileservice.UserProfileServiceApplication;
+import com.iprody.userprofile.userprofileservice.entity.User;
+import com.iprody.userprofile.userprofileservice.persistence.UserPersistence;
+import com.iprody.userprofile.userprofileservice.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Measures the service-layer calls against an in-memory H2 database in PostgreSQL mode.
+ * The application runs without a web server and with the schema created by Hibernate; the cached read, the
+ * database read through the JDBC scheduler, the batch read and the insert are measured separately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    /**
+     * The number of users created before the run.
+     */
+    private static final int USERS = 1000;
+
+    /**
+     * The number of ids of a batch read, the batch-get limit.
+     */
+    private static final int BATCH_SIZE = 100;
+
+    /**
+     * The application context.
+     */
+    private ConfigurableApplicationContext context;
+
+    /**
+     * The user service, reading through the cache.
+     */
+    private UserService userService;
+
+    /**
+     * The user persistence, reading from the database.
+     */
+    private UserPersistence userPersistence;
+
+    /**
+     * The ids of the created users.
+     */
+    private List<Long> ids;
+
+    /**
+     * The sequence making the emails of inserted users unique.
+     */
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    /**
+     * Starts the application on H2 and creates the users.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserProfileServiceApplication.class).run(
+                "--spring.profiles.active=benchmark",
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--management.tracing.enabled=false",
+                "--logging.level.root=WARN");
+        userService = context.getBean(UserService.class);
+        userPersistence = context.getBean(UserPersistence.class);
+        ids = userPersistence.saveAll(LongStream.range(0, USERS).mapToObj(this::newUser).toList())
+                .map(User::getId)
+                .collectList()
+                .block();
+    }
+
+    /**
+     * Stops the application.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Reads a user by id through the cache.
+     *
+     * @return The user.
+     */
+    @Benchmark
+    public User findUserByIdCached() {
+        return userService.findUserById(randomId()).block();
+    }
+
+    /**
+     * Reads a user by id from the database.
+     *
+     * @return The user.
+     */
+    @Benchmark
+    public User findUserByIdFromDatabase() {
+        return userPersistence.findById(randomId()).block();
+    }
+
+    /**
+     * Reads a batch of users by id from the database with one query.
+     *
+     * @return The users.
+     */
+    @Benchmark
+    public List<User> findUsersByIdsFromDatabase() {
+        var offset = ThreadLocalRandom.current().nextInt(USERS - BATCH_SIZE);
+        return userPersistence.findAllById(ids.subList(offset, offset + BATCH_SIZE)).collectList().block();
+    }
+
+    /**
+     * Reads a batch of users by id through the cache.
+     *
+     * @return The users by id.
+     */
+    @Benchmark
+    public Map<Long, User> findUsersByIdsCached() {
+        var offset = ThreadLocalRandom.current().nextInt(USERS - BATCH_SIZE);
+        return userService.findUsersByIds(ids.subList(offset, offset + BATCH_SIZE)).block();
+    }
+
+    /**
+     * Creates a user.
+     *
+     * @return The created user.
+     */
+    @Benchmark
+    public User createUser() {
+        return userService.createUser(newUser(USERS + emailSequence.incrementAndGet())).block();
+    }
+
+    /**
+     * Picks one of the created users.
+     *
+     * @return The id of the user.
+     */
+    private Long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(USERS));
+    }
+
+    /**
+     * Creates a new user with a unique email.
+     *
+     * @param number The number making the email unique.
+     * @return The user.
+     */
+    private User newUser(long number) {
+        return User.builder().firstName("first").lastName("last").email("user" + number + "@mail.ru").build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.iprody.userprofile.userprofileservice.benchmark;
+
+import com.iprody.userprofile.userprofileservice.dto.UserContactDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures bean validation of the {@link UserContactDto} patterns, for a valid DTO and for one violating both.
+ * The invalid case includes building the constraint violations and interpolating their messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    /**
+     * The validator factory, closed after the run.
+     */
+    private ValidatorFactory validatorFactory;
+
+    /**
+     * The Hibernate validator.
+     */
+    private Validator validator;
+
+    /**
+     * A DTO matching both patterns.
+     */
+    private UserContactDto validDto;
+
+    /**
+     * A DTO violating both patterns.
+     */
+    private UserContactDto invalidDto;
+
+    /**
+     * Creates the validator and the DTOs.
+     */
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validDto = UserContactDto.builder().telegramId("@telegram").mobilePhone("+79531234567").userId(1L).build();
+        invalidDto = UserContactDto.builder().telegramId("@te.st").mobilePhone("+A7953").userId(1L).build();
+    }
+
+    /**
+     * Closes the validator factory.
+     */
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    /**
+     * Validates a DTO without violations.
+     *
+     * @return The violations, empty.
+     */
+    @Benchmark
+    public Set<ConstraintViolation<UserContactDto>> validateValidDto() {
+        return validator.validate(validDto);
+    }
+
+    /**
+     * Validates a DTO with two violations.
+     *
+     * @return The violations.
+     */
+    @Benchmark
+    public Set<ConstraintViolation<UserContactDto>> validateInvalidDto() {
+        return validator.validate(invalidDto);
+    }
+}
@@ -1,9 +1,14 @@
 package com.iprody.userprofile.userprofileservice;
 
+import com.iprody.userprofile.userprofileservice.config.UserProfileRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@ImportRuntimeHints(UserProfileRuntimeHints.class)
 public class UserProfileServiceApplication {
 
     /**
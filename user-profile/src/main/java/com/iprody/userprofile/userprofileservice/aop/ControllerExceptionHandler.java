@@ -1,19 +1,27 @@
 package com.iprody.userprofile.userprofileservice.aop;
 
+import com.iprody.userprofile.userprofileservice.exception.PreconditionFailedException;
 import com.iprody.userprofile.userprofileservice.exception.ResourceNotFoundException;
 import com.iprody.userprofile.userprofileservice.exception.ResourceProcessingException;
-import jakarta.servlet.http.HttpServletRequest;
+import com.iprody.userprofile.userprofileservice.exception.SubscriptionLimitException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
 
 
 /**
  * Class for exceptions handling.
+ * Shared by the servlet (Spring MVC) and the reactive (WebFlux) runtime, so handlers do not depend on
+ * the request type of either stack.
  */
 @ControllerAdvice
 public class ControllerExceptionHandler {
@@ -28,23 +36,41 @@ public class ControllerExceptionHandler {
      */
     private static final int RESPONSE_CODE_NOT_FOUND = 404;
 
+    /**
+     * Constant response code CONFLICT.
+     */
+    private static final int RESPONSE_CODE_CONFLICT = 409;
+
+    /**
+     * Constant response code PRECONDITION_FAILED.
+     */
+    private static final int RESPONSE_CODE_PRECONDITION_FAILED = 412;
+
     /**
      * Constant response code INTERNAL_SERVER_ERROR.
      */
     private static final int RESPONSE_CODE_INTERNAL_SERVER_ERROR = 500;
 
+    /**
+     * Constant response code SERVICE_UNAVAILABLE.
+     */
+    private static final int RESPONSE_CODE_SERVICE_UNAVAILABLE = 503;
+
+    /**
+     * Constant message of failed argument validation.
+     */
+    private static final String VALIDATION_FAILED_MESSAGE = "Validation failed for argument";
+
     /**
      * Exception handler for HttpMessageNotReadableException.class.
      *
      * @param exception The exception object.
-     * @param request   The request from HttpServletRequest.
      * @return ExceptionResponse class with details.
      */
     @ExceptionHandler(HttpMessageNotReadableException.class)
     @ResponseStatus(value = HttpStatus.BAD_REQUEST)
     public @ResponseBody ExceptionResponse handleHttpMessageNotReadableException(
-            final HttpMessageNotReadableException exception,
-            final HttpServletRequest request) {
+            final HttpMessageNotReadableException exception) {
         ExceptionResponse error = new ExceptionResponse();
         error.setMessage("Required request body is missing");
         error.setStatus(RESPONSE_CODE_BAD_REQUEST);
@@ -56,16 +82,14 @@ public class ControllerExceptionHandler {
      * Exception handler for MethodArgumentNotValidException.class.
      *
      * @param exception The exception object.
-     * @param request   The request from HttpServletRequest.
      * @return ExceptionResponse class with details.
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(value = HttpStatus.BAD_REQUEST)
     public @ResponseBody ExceptionResponse handleResourceNotFoundException(
-            final MethodArgumentNotValidException exception,
-            final HttpServletRequest request) {
+            final MethodArgumentNotValidException exception) {
         ExceptionResponse error = new ExceptionResponse();
-        error.setMessage("Validation failed for argument");
+        error.setMessage(VALIDATION_FAILED_MESSAGE);
         error.setStatus(RESPONSE_CODE_BAD_REQUEST);
         error.setDetails(exception.getBindingResult().getAllErrors()
                 .stream()
@@ -78,13 +102,11 @@ public class ControllerExceptionHandler {
      * Exception handler for ResourceNotFoundException.class.
      *
      * @param exception The exception object.
-     * @param request   The request from HttpServletRequest.
      * @return ExceptionResponse class with details.
      */
     @ExceptionHandler(ResourceNotFoundException.class)
     @ResponseStatus(value = HttpStatus.NOT_FOUND)
-    public @ResponseBody ExceptionResponse handleResourceNotFoundException(final ResourceNotFoundException exception,
-                                                                           final HttpServletRequest request) {
+    public @ResponseBody ExceptionResponse handleResourceNotFoundException(final ResourceNotFoundException exception) {
         ExceptionResponse error = new ExceptionResponse();
         error.setMessage(exception.getMessage());
         error.setStatus(RESPONSE_CODE_NOT_FOUND);
@@ -92,17 +114,117 @@ public class ControllerExceptionHandler {
         return error;
     }
 
+    /**
+     * Exception handler for PreconditionFailedException.class, raised when If-Match names another version.
+     *
+     * @param exception The exception object.
+     * @return ExceptionResponse class with details.
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(value = HttpStatus.PRECONDITION_FAILED)
+    public @ResponseBody ExceptionResponse handlePreconditionFailedException(
+            final PreconditionFailedException exception) {
+        ExceptionResponse error = new ExceptionResponse();
+        error.setMessage(exception.getMessage());
+        error.setStatus(RESPONSE_CODE_PRECONDITION_FAILED);
+        error.setDetails(null);
+        return error;
+    }
+
+    /**
+     * Exception handler for SubscriptionLimitException.class, raised when no further subscription is accepted.
+     *
+     * @param exception The exception object.
+     * @return ExceptionResponse class with details.
+     */
+    @ExceptionHandler(SubscriptionLimitException.class)
+    @ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+    public @ResponseBody ExceptionResponse handleSubscriptionLimitException(
+            final SubscriptionLimitException exception) {
+        ExceptionResponse error = new ExceptionResponse();
+        error.setMessage(exception.getMessage());
+        error.setStatus(RESPONSE_CODE_SERVICE_UNAVAILABLE);
+        error.setDetails(null);
+        return error;
+    }
+
+    /**
+     * Exception handler for OptimisticLockingFailureException.class, raised when an unconditional update lost
+     * against a concurrent one between its read and its write.
+     *
+     * @param exception The exception object.
+     * @return ExceptionResponse class with details.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(value = HttpStatus.CONFLICT)
+    public @ResponseBody ExceptionResponse handleOptimisticLockingFailureException(
+            final OptimisticLockingFailureException exception) {
+        ExceptionResponse error = new ExceptionResponse();
+        error.setMessage("The resource was changed concurrently, read it again and retry");
+        error.setStatus(RESPONSE_CODE_CONFLICT);
+        error.setDetails(null);
+        return error;
+    }
+
+    /**
+     * Exception handler for WebExchangeBindException.class raised by WebFlux validation.
+     *
+     * @param exception The exception object.
+     * @return ExceptionResponse class with details.
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public @ResponseBody ExceptionResponse handleWebExchangeBindException(final WebExchangeBindException exception) {
+        ExceptionResponse error = new ExceptionResponse();
+        error.setMessage(VALIDATION_FAILED_MESSAGE);
+        error.setStatus(RESPONSE_CODE_BAD_REQUEST);
+        error.setDetails(exception.getBindingResult().getAllErrors()
+                .stream()
+                .map(e -> e.toString())
+                .toList());
+        return error;
+    }
+
+    /**
+     * Exception handler for ServerWebInputException.class raised by WebFlux for a missing or unreadable input.
+     *
+     * @param exception The exception object.
+     * @return ExceptionResponse class with details.
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public @ResponseBody ExceptionResponse handleServerWebInputException(final ServerWebInputException exception) {
+        ExceptionResponse error = new ExceptionResponse();
+        error.setMessage(exception.getReason());
+        error.setStatus(RESPONSE_CODE_BAD_REQUEST);
+        error.setDetails(null);
+        return error;
+    }
+
+    /**
+     * Exception handler for ResponseStatusException.class, keeping the status carried by the exception.
+     *
+     * @param exception The exception object.
+     * @return ResponseEntity with ExceptionResponse class with details.
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ExceptionResponse> handleResponseStatusException(final ResponseStatusException exception) {
+        ExceptionResponse error = new ExceptionResponse();
+        error.setMessage(exception.getReason());
+        error.setStatus(exception.getStatusCode().value());
+        error.setDetails(null);
+        return ResponseEntity.status(exception.getStatusCode()).body(error);
+    }
+
     /**
      * Exception handler for ResourceProcessingException.class.
      *
      * @param exception The exception object.
-     * @param request   The request from HttpServletRequest.
      * @return ExceptionResponse class with details.
      */
     @ExceptionHandler(ResourceProcessingException.class)
     @ResponseStatus(value = HttpStatus.INTERNAL_SERVER_ERROR)
-    public @ResponseBody ExceptionResponse handleResourceProcessingException(final Exception exception,
-                                                                             final HttpServletRequest request) {
+    public @ResponseBody ExceptionResponse handleResourceProcessingException(final Exception exception) {
         ExceptionResponse error = new ExceptionResponse();
         error.setMessage(exception.getMessage());
         error.setStatus(RESPONSE_CODE_INTERNAL_SERVER_ERROR);
@@ -114,13 +236,11 @@ public class ControllerExceptionHandler {
      * Exception handler for Exception.class.
      *
      * @param exception The exception object.
-     * @param request   The request from HttpServletRequest.
      * @return ExceptionResponse class with details.
      */
     @ExceptionHandler(Exception.class)
     @ResponseStatus(value = HttpStatus.INTERNAL_SERVER_ERROR)
-    public @ResponseBody ExceptionResponse handleException(final Exception exception,
-                                                           final HttpServletRequest request) {
+    public @ResponseBody ExceptionResponse handleException(final Exception exception) {
         ExceptionResponse error = new ExceptionResponse();
         error.setMessage(exception.getMessage());
         error.setStatus(RESPONSE_CODE_INTERNAL_SERVER_ERROR);
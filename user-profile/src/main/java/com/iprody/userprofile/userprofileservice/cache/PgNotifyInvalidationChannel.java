@@ -0,0 +1,219 @@
+package com.iprody.userprofile.userprofileservice.cache;
+
+import com.iprody.userprofile.userprofileservice.config.ProfileCacheProperties;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangedEvent;
+import com.iprody.userprofile.userprofileservice.persistence.JdbcExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Cross-instance cache invalidation over PostgreSQL LISTEN/NOTIFY.
+ * Every committed local change is broadcast with pg_notify; a listener thread on a dedicated connection
+ * applies the changes of other instances to the local caches within the poll timeout. Whenever the
+ * listener (re)connects all local entries are dropped, because notifications are not replayed.
+ * It talks JDBC, so it is not available in the "r2dbc" profile.
+ */
+@Slf4j
+@Component
+@Profile("!r2dbc")
+@ConditionalOnProperty(name = "user-profile.cache.invalidation.enabled", havingValue = "true")
+public class PgNotifyInvalidationChannel implements SmartLifecycle {
+
+    /**
+     * Name of the notification channel.
+     */
+    private static final String CHANNEL = "profile_cache_invalidation";
+
+    /**
+     * Separator of the payload parts.
+     */
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Number of parts of a valid payload.
+     */
+    private static final int PAYLOAD_PARTS = 3;
+
+    /**
+     * Id of this instance, used to skip its own notifications.
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * Injection of ProfileCacheInvalidator.
+     */
+    private final ProfileCacheInvalidator profileCacheInvalidator;
+
+    /**
+     * Injection of JdbcExecutor.
+     */
+    private final JdbcExecutor jdbcExecutor;
+
+    /**
+     * Injection of JdbcTemplate.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Injection of DataSourceProperties, used to open the dedicated listener connection.
+     */
+    private final DataSourceProperties dataSourceProperties;
+
+    /**
+     * Injection of the invalidation settings.
+     */
+    private final ProfileCacheProperties.Invalidation settings;
+
+    /**
+     * Whether the listener should keep running.
+     */
+    private volatile boolean running;
+
+    /**
+     * The listener thread.
+     */
+    private Thread listenerThread;
+
+    /**
+     * Constructor for class.
+     *
+     * @param profileCacheInvalidator The local cache invalidator.
+     * @param jdbcExecutor            The executor of blocking JDBC work.
+     * @param jdbcTemplate            The JDBC template.
+     * @param dataSourceProperties    The datasource settings.
+     * @param properties              The cache settings.
+     */
+    public PgNotifyInvalidationChannel(final ProfileCacheInvalidator profileCacheInvalidator,
+                                       final JdbcExecutor jdbcExecutor,
+                                       final JdbcTemplate jdbcTemplate,
+                                       final DataSourceProperties dataSourceProperties,
+                                       final ProfileCacheProperties properties) {
+        this.profileCacheInvalidator = profileCacheInvalidator;
+        this.jdbcExecutor = jdbcExecutor;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.settings = properties.invalidation();
+    }
+
+    /**
+     * Broadcasts a committed local change to the other instances.
+     * Failures are only logged: the write is already committed and the cache TTL bounds the staleness.
+     *
+     * @param event The change event.
+     */
+    @EventListener
+    public void onProfileChanged(ProfileChangedEvent event) {
+        String payload = instanceId + SEPARATOR + event.type() + SEPARATOR + event.id();
+        jdbcExecutor.execute("cache.notify", () -> jdbcTemplate.query("SELECT pg_notify(?, ?)",
+                        resultSet -> null, CHANNEL, payload))
+                .subscribe(null, error -> log.warn("Could not broadcast cache invalidation {}", payload, error));
+    }
+
+    /**
+     * Starts the listener thread.
+     */
+    @Override
+    public void start() {
+        running = true;
+        listenerThread = Thread.ofPlatform().name("cache-invalidation-listener").daemon(true).start(this::listen);
+    }
+
+    /**
+     * Stops the listener thread.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    /**
+     * Returns whether the listener is running.
+     *
+     * @return True if the listener is running.
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Keeps a listening connection open, reconnecting after failures.
+     */
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                profileCacheInvalidator.evictAll();
+                log.info("Listening for cache invalidations on channel {}", CHANNEL);
+                poll(connection.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                log.warn("Cache invalidation listener failed, reconnecting in {}", settings.retryDelay(), e);
+                pause();
+            }
+        }
+    }
+
+    /**
+     * Applies received notifications until the listener is stopped.
+     *
+     * @param connection The listening connection.
+     * @throws SQLException If the connection fails.
+     */
+    private void poll(PGConnection connection) throws SQLException {
+        while (running) {
+            PGNotification[] notifications = connection.getNotifications((int) settings.pollTimeout().toMillis());
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    apply(notification.getParameter());
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a notification sent by another instance.
+     *
+     * @param payload The notification payload: instance id, entity type and entity id.
+     */
+    private void apply(String payload) {
+        String[] parts = payload.split(SEPARATOR);
+        if (parts.length != PAYLOAD_PARTS || instanceId.equals(parts[0])) {
+            return;
+        }
+        try {
+            profileCacheInvalidator.evict(ProfileChangedEvent.Type.valueOf(parts[1]), Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed cache invalidation {}", payload);
+        }
+    }
+
+    /**
+     * Waits before reconnecting.
+     */
+    private void pause() {
+        try {
+            Thread.sleep(settings.retryDelay());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.iprody.userprofile.userprofileservice.cache;
+
+import com.iprody.userprofile.userprofileservice.entity.User;
+import com.iprody.userprofile.userprofileservice.entity.UserContact;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangedEvent;
+import lombok.AllArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops local cache entries affected by profile changes.
+ * Local changes arrive as {@link ProfileChangedEvent}, changes made by other instances through
+ * {@link PgNotifyInvalidationChannel}.
+ */
+@Component
+@AllArgsConstructor
+public class ProfileCacheInvalidator {
+
+    /**
+     * Injection of the users cache.
+     */
+    private final ReadThroughCache<Long, User> userCache;
+
+    /**
+     * Injection of the user contacts cache, whose entries reference their user only by id.
+     */
+    private final ReadThroughCache<Long, UserContact> userContactCache;
+
+    /**
+     * Injection of the user ids by email cache.
+     */
+    private final ReadThroughCache<String, Long> userIdByEmailCache;
+
+    /**
+     * Invalidates the entries affected by a local change.
+     *
+     * @param event The change event.
+     */
+    @EventListener
+    public void onProfileChanged(ProfileChangedEvent event) {
+        evict(event.type(), event.id());
+    }
+
+    /**
+     * Drops the entries affected by a change.
+     * The email index and the cached contacts hold only user ids, which stay valid when a user changes, so a user
+     * change drops only the user's own entry.
+     *
+     * @param type The kind of the changed entity.
+     * @param id   The id of the changed entity.
+     */
+    public void evict(ProfileChangedEvent.Type type, Long id) {
+        if (type == ProfileChangedEvent.Type.USER) {
+            userCache.invalidate(id);
+        } else {
+            userContactCache.invalidate(id);
+        }
+    }
+
+    /**
+     * Drops all entries, used when changes may have been missed.
+     */
+    public void evictAll() {
+        userCache.invalidateAll();
+        userIdByEmailCache.invalidateAll();
+        userContactCache.invalidateAll();
+    }
+}
@@ -0,0 +1,156 @@
+package com.iprody.userprofile.userprofileservice.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.iprody.userprofile.userprofileservice.config.ProfileCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caffeine-backed read-through cache loading missing entries from a reactive loader.
+ * Absent values are not cached, loads for the same key are shared, bulk reads load all missing keys
+ * with one call, and hit/miss/eviction/load-time statistics are published as Micrometer cache metrics
+ * tagged with the region name.
+ * Values are held as snapshots and every reader gets its own copy, so no caller can change a cached value
+ * or share a loaded entity with another request.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class ReadThroughCache<K, V> {
+
+    /**
+     * The underlying Caffeine cache.
+     */
+    private final AsyncLoadingCache<K, V> cache;
+
+    /**
+     * The copier of values, applied to loaded values and to every value handed out.
+     */
+    private final UnaryOperator<V> snapshot;
+
+    /**
+     * Constructor for class, for regions read one key at a time.
+     *
+     * @param name          The region name used as metric tag.
+     * @param region        The region settings.
+     * @param loader        The loader of missing entries, an empty Mono means absent.
+     * @param snapshot      The copier of values, detached from the loaded ones.
+     * @param meterRegistry The Micrometer registry.
+     */
+    public ReadThroughCache(final String name,
+                            final ProfileCacheProperties.Region region,
+                            final Function<K, Mono<V>> loader,
+                            final UnaryOperator<V> snapshot,
+                            final MeterRegistry meterRegistry) {
+        this(name, region, loader, null, null, snapshot, meterRegistry);
+    }
+
+    /**
+     * Constructor for class.
+     *
+     * @param name          The region name used as metric tag.
+     * @param region        The region settings.
+     * @param loader        The loader of missing entries, an empty Mono means absent.
+     * @param bulkLoader    The loader of several missing entries at once, absent keys are skipped;
+     *                      null to load them one by one.
+     * @param keyOf         The key of a loaded value, used to index the bulk loader results.
+     * @param snapshot      The copier of values, detached from the loaded ones.
+     * @param meterRegistry The Micrometer registry.
+     */
+    public ReadThroughCache(final String name,
+                            final ProfileCacheProperties.Region region,
+                            final Function<K, Mono<V>> loader,
+                            final Function<Set<K>, Flux<V>> bulkLoader,
+                            final Function<V, K> keyOf,
+                            final UnaryOperator<V> snapshot,
+                            final MeterRegistry meterRegistry) {
+        this.snapshot = snapshot;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(region.maximumSize())
+                .expireAfterWrite(region.expireAfterWrite())
+                .refreshAfterWrite(region.refreshAfterWrite())
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<K, V>() {
+                    @Override
+                    public CompletableFuture<V> asyncLoad(K key, Executor executor) {
+                        return loader.apply(key).map(snapshot).toFuture();
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public CompletableFuture<Map<K, V>> asyncLoadAll(Set<? extends K> keys, Executor executor) {
+                        if (bulkLoader == null) {
+                            return Flux.fromIterable(keys)
+                                    .flatMap(key -> loader.apply(key).map(snapshot).map(value -> Map.entry(key, value)))
+                                    .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                                    .toFuture();
+                        }
+                        return bulkLoader.apply((Set<K>) keys).map(snapshot).collectMap(keyOf).toFuture();
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    /**
+     * Returns the cached value or loads it.
+     *
+     * @param key The key.
+     * @return A copy of the value or an empty Mono if the loader found nothing.
+     */
+    public Mono<V> get(K key) {
+        return Mono.fromFuture(cache.get(key), true).map(snapshot);
+    }
+
+    /**
+     * Returns the cached values of several keys, loading all missing keys with one bulk load.
+     *
+     * @param keys The keys.
+     * @return Copies of the values by key, keys the bulk loader found nothing for are absent.
+     */
+    public Mono<Map<K, V>> getAll(Iterable<K> keys) {
+        return Mono.fromFuture(cache.getAll(keys), true)
+                .map(values -> {
+                    Map<K, V> copies = new LinkedHashMap<>();
+                    values.forEach((key, value) -> copies.put(key, snapshot.apply(value)));
+                    return copies;
+                });
+    }
+
+    /**
+     * Drops the entry of a key, including a load in progress.
+     *
+     * @param key The key.
+     */
+    public void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    /**
+     * Drops all entries whose value matches the predicate.
+     *
+     * @param predicate The predicate on cached values.
+     */
+    public void invalidateIf(Predicate<V> predicate) {
+        cache.synchronous().asMap().values().removeIf(predicate);
+    }
+
+    /**
+     * Drops all entries.
+     */
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+}
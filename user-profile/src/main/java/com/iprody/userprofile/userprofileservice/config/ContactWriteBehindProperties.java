@@ -0,0 +1,25 @@
+package com.iprody.userprofile.userprofileservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the write-behind mode of user contact updates.
+ * Updates of the same contact arriving within one window are coalesced into a single write, and the writes of a
+ * window are flushed in batched transactions. A caller is only answered once its update is committed.
+ *
+ * @param enabled         Whether updates are written behind; off, every update is its own transaction.
+ * @param window          The time an update waits for further updates of the same contact before it is flushed.
+ * @param maxBatchSize    The maximum number of contacts written in one transaction; a full batch is flushed at once.
+ * @param maxLag          The longest an update is retried after failed flushes before its caller gets the error.
+ * @param flushOnShutdown Whether the pending updates are written on shutdown, otherwise their callers get an error.
+ */
+@ConfigurationProperties("user-profile.contact-write-behind")
+public record ContactWriteBehindProperties(@DefaultValue("false") boolean enabled,
+                                           @DefaultValue("50ms") Duration window,
+                                           @DefaultValue("500") int maxBatchSize,
+                                           @DefaultValue("5s") Duration maxLag,
+                                           @DefaultValue("true") boolean flushOnShutdown) {
+}
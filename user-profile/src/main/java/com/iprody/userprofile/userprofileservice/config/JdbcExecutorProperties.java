@@ -0,0 +1,31 @@
+package com.iprody.userprofile.userprofileservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the scheduler running blocking JDBC work.
+ *
+ * @param type          The kind of worker threads: a bounded platform pool or virtual threads.
+ * @param maxThreads    The maximum number of concurrently running JDBC tasks, normally the Hikari pool size.
+ * @param queueCapacity The maximum number of tasks waiting for a worker in bounded mode.
+ */
+@ConfigurationProperties("user-profile.jdbc")
+public record JdbcExecutorProperties(@DefaultValue("BOUNDED") SchedulerType type,
+                                     @DefaultValue("10") int maxThreads,
+                                     @DefaultValue("1000") int queueCapacity) {
+
+    /**
+     * Kinds of worker threads for blocking JDBC work.
+     */
+    public enum SchedulerType {
+        /**
+         * Fixed pool of platform threads with a bounded queue.
+         */
+        BOUNDED,
+        /**
+         * One virtual thread per task, concurrency limited by a semaphore.
+         */
+        VIRTUAL
+    }
+}
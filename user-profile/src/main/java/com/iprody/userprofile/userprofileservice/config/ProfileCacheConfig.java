@@ -0,0 +1,79 @@
+package com.iprody.userprofile.userprofileservice.config;
+
+import com.iprody.userprofile.userprofileservice.cache.ReadThroughCache;
+import com.iprody.userprofile.userprofileservice.entity.User;
+import com.iprody.userprofile.userprofileservice.entity.UserContact;
+import com.iprody.userprofile.userprofileservice.mapper.UserContactMapper;
+import com.iprody.userprofile.userprofileservice.mapper.UserMapper;
+import com.iprody.userprofile.userprofileservice.persistence.UserContactPersistence;
+import com.iprody.userprofile.userprofileservice.persistence.UserPersistence;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Configuration class for the read-through caches in front of the profile services.
+ * The caches hold detached copies made by the mappers, never the entities returned by the persistence, except
+ * the email index, which holds only user ids resolved through the users cache.
+ */
+@Configuration
+public class ProfileCacheConfig {
+
+    /**
+     * Bean definition for the cache of users by id.
+     *
+     * @param userPersistence The user persistence used to load missing entries.
+     * @param userMapper      The mapper copying the cached users.
+     * @param properties      The cache settings.
+     * @param meterRegistry   The Micrometer registry.
+     * @return The users cache.
+     */
+    @Bean
+    public ReadThroughCache<Long, User> userCache(UserPersistence userPersistence,
+                                                  UserMapper userMapper,
+                                                  ProfileCacheProperties properties,
+                                                  MeterRegistry meterRegistry) {
+        return new ReadThroughCache<>("users", properties.users(), userPersistence::findById,
+                userPersistence::findAllById, User::getId, userMapper::snapshot, meterRegistry);
+    }
+
+    /**
+     * Bean definition for the cache of user contacts by id.
+     *
+     * @param userContactPersistence The user contact persistence used to load missing entries.
+     * @param userContactMapper      The mapper copying the cached user contacts.
+     * @param properties             The cache settings.
+     * @param meterRegistry          The Micrometer registry.
+     * @return The user contacts cache.
+     */
+    @Bean
+    public ReadThroughCache<Long, UserContact> userContactCache(UserContactPersistence userContactPersistence,
+                                                                UserContactMapper userContactMapper,
+                                                                ProfileCacheProperties properties,
+                                                                MeterRegistry meterRegistry) {
+        return new ReadThroughCache<>("userContacts", properties.userContacts(),
+                userContactPersistence::findById, userContactPersistence::findAllById, UserContact::getId,
+                userContactMapper::snapshot, meterRegistry);
+    }
+
+    /**
+     * Bean definition for the cache of user ids by lower-cased email.
+     * It holds no user state, so a changed user only has to be dropped from the users cache; an email that moved
+     * to another user is detected when its id is resolved.
+     *
+     * @param userPersistence The user persistence used to load missing entries.
+     * @param properties      The cache settings.
+     * @param meterRegistry   The Micrometer registry.
+     * @return The user ids by email cache.
+     */
+    @Bean
+    public ReadThroughCache<String, Long> userIdByEmailCache(UserPersistence userPersistence,
+                                                             ProfileCacheProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        return new ReadThroughCache<>("usersByEmail", properties.usersByEmail(),
+                email -> userPersistence.findByEmail(email).map(User::getId), UnaryOperator.identity(),
+                meterRegistry);
+    }
+}
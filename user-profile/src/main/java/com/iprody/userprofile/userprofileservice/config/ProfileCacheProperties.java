@@ -0,0 +1,45 @@
+package com.iprody.userprofile.userprofileservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the read-through profile caches.
+ *
+ * @param users        The region caching users by id.
+ * @param userContacts The region caching user contacts by id.
+ * @param usersByEmail The region caching user ids by lower-cased email.
+ * @param invalidation The cross-instance invalidation settings.
+ */
+@ConfigurationProperties("user-profile.cache")
+public record ProfileCacheProperties(@DefaultValue Region users,
+                                     @DefaultValue Region userContacts,
+                                     @DefaultValue Region usersByEmail,
+                                     @DefaultValue Invalidation invalidation) {
+
+    /**
+     * Settings of a single cache region.
+     *
+     * @param maximumSize       The maximum number of entries.
+     * @param expireAfterWrite  The time after which an entry is dropped.
+     * @param refreshAfterWrite The time after which an entry is reloaded in the background on access.
+     */
+    public record Region(@DefaultValue("10000") long maximumSize,
+                         @DefaultValue("10m") Duration expireAfterWrite,
+                         @DefaultValue("1m") Duration refreshAfterWrite) {
+    }
+
+    /**
+     * Settings of the PostgreSQL LISTEN/NOTIFY invalidation channel between instances.
+     *
+     * @param enabled     Whether changes are broadcast to and received from other instances.
+     * @param pollTimeout The maximum time a received notification waits before it is applied.
+     * @param retryDelay  The delay before the listener reconnects after a failure.
+     */
+    public record Invalidation(@DefaultValue("false") boolean enabled,
+                               @DefaultValue("500ms") Duration pollTimeout,
+                               @DefaultValue("5s") Duration retryDelay) {
+    }
+}
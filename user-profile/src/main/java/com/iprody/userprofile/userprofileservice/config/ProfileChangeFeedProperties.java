@@ -0,0 +1,29 @@
+package com.iprody.userprofile.userprofileservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the change feed relaying the transactional outbox of profile changes.
+ *
+ * @param pollInterval         The time between two outbox reads of a subscriber; local changes are read at once.
+ * @param batchSize            The maximum number of changes read with one query.
+ * @param maxUserSubscriptions The maximum number of concurrent subscriptions to the changes of single users.
+ * @param maxFeedSubscriptions The maximum number of concurrent subscriptions to the change feed, each polling the
+ *                             outbox on its own.
+ * @param heartbeatInterval    The time between two heartbeats on an idle event stream.
+ * @param retention            The minimum age of the changes pruned from the outbox; a consumer resuming after a
+ *                             pruned change misses the pruned changes following it.
+ * @param pruneInterval        The time between two prunes of the outbox, zero to keep every change.
+ */
+@ConfigurationProperties("user-profile.change-feed")
+public record ProfileChangeFeedProperties(@DefaultValue("1s") Duration pollInterval,
+                                          @DefaultValue("100") int batchSize,
+                                          @DefaultValue("1000") int maxUserSubscriptions,
+                                          @DefaultValue("100") int maxFeedSubscriptions,
+                                          @DefaultValue("15s") Duration heartbeatInterval,
+                                          @DefaultValue("7d") Duration retention,
+                                          @DefaultValue("1h") Duration pruneInterval) {
+}
@@ -0,0 +1,66 @@
+package com.iprody.userprofile.userprofileservice.config;
+
+import com.iprody.userprofile.userprofileservice.entity.UserContactRow;
+import com.iprody.userprofile.userprofileservice.entity.UserRow;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Configuration class assigning ids to new R2DBC rows from the sequences used by Hibernate.
+ * user_contact.id has no default, and users.id is a bigserial whose default draws from users_id_seq, so both
+ * rows take one sequence value each here, before the insert. The rest of the block reserved by that call
+ * stays unused, which keeps the ids unique next to the JPA path.
+ */
+@Configuration
+@Profile("r2dbc")
+public class R2dbcIdConfig {
+
+    /**
+     * Bean definition for the id assignment of new user rows.
+     *
+     * @param databaseClient The R2DBC database client.
+     * @return The callback setting the id of user rows without one.
+     */
+    @Bean
+    public BeforeConvertCallback<UserRow> userRowIdCallback(DatabaseClient databaseClient) {
+        return (row, table) -> row.getId() != null
+                ? Mono.just(row)
+                : nextId(databaseClient, "users_id_seq").map(id -> {
+                    row.setId(id);
+                    return row;
+                });
+    }
+
+    /**
+     * Bean definition for the id assignment of new user contact rows.
+     *
+     * @param databaseClient The R2DBC database client.
+     * @return The callback setting the id of user contact rows without one.
+     */
+    @Bean
+    public BeforeConvertCallback<UserContactRow> userContactRowIdCallback(DatabaseClient databaseClient) {
+        return (row, table) -> row.getId() != null
+                ? Mono.just(row)
+                : nextId(databaseClient, "user_contact_id_seq").map(id -> {
+                    row.setId(id);
+                    return row;
+                });
+    }
+
+    /**
+     * Reads the next value of a sequence.
+     *
+     * @param databaseClient The R2DBC database client.
+     * @param sequence       The name of the sequence.
+     * @return The next sequence value.
+     */
+    private static Mono<Long> nextId(DatabaseClient databaseClient, String sequence) {
+        return databaseClient.sql("SELECT nextval('" + sequence + "')")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+}
@@ -0,0 +1,71 @@
+package com.iprody.userprofile.userprofileservice.config;
+
+import com.iprody.userprofile.userprofileservice.tracing.SpanExportQueue;
+import com.iprody.userprofile.userprofileservice.tracing.TailSamplingSpanProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanExporters;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanProcessors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class replacing the head sampling and batch export of the OpenTelemetry auto-configuration with
+ * tail sampling: every span is recorded, and whether a trace is exported is decided once it ended.
+ */
+@Configuration
+@ConditionalOnProperty(name = "management.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig {
+
+    /**
+     * Bean definition for the sampler, recording every span so that the decision can be taken on end.
+     *
+     * @return The always-on sampler.
+     */
+    @Bean
+    public Sampler otelSampler() {
+        return Sampler.alwaysOn();
+    }
+
+    /**
+     * Bean definition for the bounded span export queue in front of the configured exporters.
+     *
+     * @param spanExporters The exporters, e.g. Zipkin.
+     * @param properties    The sampling settings.
+     * @param meterRegistry The Micrometer registry.
+     * @return The export queue.
+     */
+    @Bean
+    public SpanExportQueue spanExportQueue(SpanExporters spanExporters, TracingExportProperties properties,
+                                           MeterRegistry meterRegistry) {
+        return new SpanExportQueue(SpanExporter.composite(spanExporters.list()), properties, meterRegistry);
+    }
+
+    /**
+     * Bean definition for the tail sampling processor.
+     *
+     * @param spanExportQueue The export queue.
+     * @param properties      The sampling settings.
+     * @param meterRegistry   The Micrometer registry.
+     * @return The span processor.
+     */
+    @Bean
+    public TailSamplingSpanProcessor tailSamplingSpanProcessor(SpanExportQueue spanExportQueue,
+                                                               TracingExportProperties properties,
+                                                               MeterRegistry meterRegistry) {
+        return new TailSamplingSpanProcessor(spanExportQueue, properties, meterRegistry);
+    }
+
+    /**
+     * Bean definition for the span processors of the tracer provider, only the tail sampling processor.
+     *
+     * @param tailSamplingSpanProcessor The tail sampling processor.
+     * @return The span processors.
+     */
+    @Bean
+    public SpanProcessors spanProcessors(TailSamplingSpanProcessor tailSamplingSpanProcessor) {
+        return SpanProcessors.of(tailSamplingSpanProcessor);
+    }
+}
@@ -0,0 +1,31 @@
+package com.iprody.userprofile.userprofileservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the tail-based trace sampling and of the span export queue.
+ *
+ * @param baseRate           The share of ordinary traces that are exported, between 0 and 1.
+ * @param slowThreshold      The local root span duration from which a trace is always exported.
+ * @param maxPendingTraces   The maximum number of traces whose spans are held until their local root ends.
+ * @param maxSpansPerTrace   The maximum number of spans held for one trace, further spans are dropped.
+ * @param pendingTimeout     The time after which the held spans of a trace whose root never ended are dropped.
+ * @param queueCapacity      The maximum number of spans waiting for export, further spans are dropped.
+ * @param batchSize          The maximum number of spans exported at once.
+ * @param exportInterval     The maximum time a span waits for its batch to fill up.
+ * @param exportTimeout      The time after which an export is given up.
+ */
+@ConfigurationProperties("user-profile.tracing")
+public record TracingExportProperties(@DefaultValue("0.05") double baseRate,
+                                      @DefaultValue("500ms") Duration slowThreshold,
+                                      @DefaultValue("10000") int maxPendingTraces,
+                                      @DefaultValue("1000") int maxSpansPerTrace,
+                                      @DefaultValue("1m") Duration pendingTimeout,
+                                      @DefaultValue("2048") int queueCapacity,
+                                      @DefaultValue("512") int batchSize,
+                                      @DefaultValue("5s") Duration exportInterval,
+                                      @DefaultValue("30s") Duration exportTimeout) {
+}
@@ -0,0 +1,17 @@
+package com.iprody.userprofile.userprofileservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the bulk user import.
+ *
+ * @param chunkSize The number of rows committed per transaction, a multiple of the JDBC batch size.
+ * @param timeout   The maximum duration of one import, after which its stream fails with a timeout.
+ */
+@ConfigurationProperties("user-profile.bulk")
+public record UserImportProperties(@DefaultValue("1000") int chunkSize,
+                                   @DefaultValue("30m") Duration timeout) {
+}
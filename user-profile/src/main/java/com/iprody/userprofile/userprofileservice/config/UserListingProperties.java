@@ -0,0 +1,15 @@
+package com.iprody.userprofile.userprofileservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the keyset-paginated user listing.
+ *
+ * @param defaultLimit The page size when the request does not give one.
+ * @param maxLimit     The largest page size a request may ask for, also the page size of the stream.
+ */
+@ConfigurationProperties("user-profile.listing")
+public record UserListingProperties(@DefaultValue("50") int defaultLimit,
+                                    @DefaultValue("500") int maxLimit) {
+}
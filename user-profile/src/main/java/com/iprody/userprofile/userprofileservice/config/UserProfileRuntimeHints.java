@@ -0,0 +1,65 @@
+package com.iprody.userprofile.userprofileservice.config;
+
+import com.iprody.userprofile.userprofileservice.aop.ExceptionResponse;
+import com.iprody.userprofile.userprofileservice.dto.BatchGetRequest;
+import com.iprody.userprofile.userprofileservice.dto.BatchGetResponse;
+import com.iprody.userprofile.userprofileservice.dto.ProfileChangeDto;
+import com.iprody.userprofile.userprofileservice.dto.UserContactDto;
+import com.iprody.userprofile.userprofileservice.dto.UserDto;
+import com.iprody.userprofile.userprofileservice.dto.UserImportResult;
+import com.iprody.userprofile.userprofileservice.dto.UserPage;
+import com.iprody.userprofile.userprofileservice.dto.UserProfileDto;
+import com.iprody.userprofile.userprofileservice.logging.DebugRateLimitFilter;
+import com.iprody.userprofile.userprofileservice.persistence.SqlStatementCounter;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints of the GraalVM native image, for what is only reached by name or by reflection:
+ * the Lombok DTOs bound by Jackson and checked by Hibernate Validator, the classes named in configuration files
+ * and the Flyway migrations.
+ * The entities and repositories are covered by the Spring Data and Hibernate AOT processing.
+ */
+public class UserProfileRuntimeHints implements RuntimeHintsRegistrar {
+
+    /**
+     * The types read and written as JSON.
+     */
+    private static final List<Class<?>> BOUND_TYPES = List.of(UserDto.class, UserContactDto.class,
+            UserPage.class, UserImportResult.class, BatchGetRequest.class, BatchGetResponse.class,
+            ExceptionResponse.class, ProfileChangeDto.class, UserProfileDto.class);
+
+    /**
+     * The classes created by name: the Hibernate statement inspector of application.properties and the logback
+     * appenders, encoder and turbo filter of logback-spring.xml.
+     */
+    private static final List<String> CONFIGURED_TYPES = List.of(SqlStatementCounter.class.getName(),
+            DebugRateLimitFilter.class.getName(),
+            "ch.qos.logback.classic.AsyncAppender",
+            "ch.qos.logback.core.ConsoleAppender",
+            "net.logstash.logback.encoder.LogstashEncoder");
+
+    /**
+     * Registers the hints.
+     *
+     * @param hints       The runtime hints of the application.
+     * @param classLoader The class loader.
+     */
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+        BOUND_TYPES.forEach(type -> {
+            bindingRegistrar.registerReflectionHints(hints.reflection(), type);
+            hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS);
+        });
+        CONFIGURED_TYPES.forEach(type -> hints.reflection().registerType(TypeReference.of(type),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+        hints.resources().registerPattern("db/migration/*.sql");
+        hints.resources().registerPattern("logback-spring.xml");
+    }
+}
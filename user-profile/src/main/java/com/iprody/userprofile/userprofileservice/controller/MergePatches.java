@@ -0,0 +1,69 @@
+package com.iprody.userprofile.userprofileservice.controller;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JSON Merge Patch (RFC 7396) bodies of the flat, text-valued resources.
+ * A member sets its field, a null member clears it and an absent field is left unchanged; every supplied value
+ * is checked against the constraints of the field in the DTO, as a full DTO would be.
+ */
+final class MergePatches {
+
+    /**
+     * The media type of a JSON Merge Patch.
+     */
+    static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    /**
+     * Utility class, not instantiated.
+     */
+    private MergePatches() {
+    }
+
+    /**
+     * Validates a merge patch and returns its changes.
+     *
+     * @param <T>       The type of the DTO declaring the constraints.
+     * @param patch     The merge patch.
+     * @param dtoType   The DTO declaring the constraints.
+     * @param fields    The fields that can be patched.
+     * @param validator The bean validator.
+     * @return The new values by field in patch order, null to clear the field.
+     * @throws ResponseStatusException 400 when a field can not be patched or its value is invalid.
+     */
+    static <T> Map<String, String> changes(Map<String, Object> patch, Class<T> dtoType, Set<String> fields,
+                                           Validator validator) {
+        Map<String, String> changes = new LinkedHashMap<>();
+        patch.forEach((field, value) -> {
+            if (!fields.contains(field)) {
+                throw badRequest(field + " can not be patched");
+            }
+            if (value != null && !(value instanceof String)) {
+                throw badRequest(field + " must be a string or null");
+            }
+            Set<ConstraintViolation<T>> violations = validator.validateValue(dtoType, field, value);
+            if (!violations.isEmpty()) {
+                throw badRequest(field + " " + violations.iterator().next().getMessage());
+            }
+            changes.put(field, (String) value);
+        });
+        return changes;
+    }
+
+    /**
+     * Creates the error of an invalid patch.
+     *
+     * @param reason The reason.
+     * @return The 400 error.
+     */
+    private static ResponseStatusException badRequest(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason);
+    }
+}
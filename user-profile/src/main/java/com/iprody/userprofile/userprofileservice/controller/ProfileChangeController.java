@@ -0,0 +1,80 @@
+package com.iprody.userprofile.userprofileservice.controller;
+
+import com.iprody.userprofile.userprofileservice.config.ProfileChangeFeedProperties;
+import com.iprody.userprofile.userprofileservice.dto.ProfileChangeDto;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangeOffset;
+import com.iprody.userprofile.userprofileservice.mapper.ProfileChangeMapper;
+import com.iprody.userprofile.userprofileservice.service.ProfileChangeRelay;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+/**
+ * Controller class for the change feed of users and user contacts, streamed as server-sent events.
+ */
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/profile-changes")
+public class ProfileChangeController {
+
+    /**
+     * Injection of ProfileChangeRelay.
+     */
+    private final ProfileChangeRelay profileChangeRelay;
+
+    /**
+     * Injection of ProfileChangeMapper.
+     */
+    private final ProfileChangeMapper profileChangeMapper;
+
+    /**
+     * Injection of the change feed settings.
+     */
+    private final ProfileChangeFeedProperties properties;
+
+    /**
+     * Endpoint for streaming the committed changes, resuming after an offset.
+     * The id of every event is its offset; a reconnecting EventSource resumes with it as Last-Event-ID, other
+     * consumers pass the last offset they processed as after. Heartbeat comments are sent while nothing changes.
+     * Beyond the subscription limit the request is answered with 503 Service Unavailable.
+     *
+     * @param lastEventId The offset to resume after, sent on reconnection; takes precedence over after.
+     * @param after       The offset to start after, omitted to receive all changes.
+     * @return The changes, one event named after the changed entity type per change.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ProfileChangeDto>> changes(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String after) {
+        var offset = lastEventId != null ? lastEventId : after;
+        return ServerSentEvents.withHeartbeats(profileChangeRelay
+                .changes(offset == null ? ProfileChangeOffset.START : parse(offset))
+                .map(change -> ServerSentEvent.builder(profileChangeMapper.toDto(change))
+                        .id(change.offset().toString())
+                        .event(change.type().name())
+                        .build()), properties.heartbeatInterval());
+    }
+
+    /**
+     * Parses an offset sent by a consumer.
+     *
+     * @param offset The offset as txId-id.
+     * @return The offset.
+     * @throws ResponseStatusException 400 when it is not an offset.
+     */
+    private static ProfileChangeOffset parse(String offset) {
+        try {
+            return ProfileChangeOffset.parse(offset);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
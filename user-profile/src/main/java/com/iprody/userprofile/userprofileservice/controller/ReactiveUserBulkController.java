@@ -0,0 +1,51 @@
+package com.iprody.userprofile.userprofileservice.controller;
+
+import com.iprody.userprofile.userprofileservice.dto.UserImportResult;
+import com.iprody.userprofile.userprofileservice.service.UserImportService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Controller class for the bulk user import on the WebFlux runtime.
+ * The request body is decoded into lines as chunks are committed and the per-row results are streamed back.
+ */
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/user")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserBulkController {
+
+    /**
+     * Injection of UserImportService.
+     */
+    private final UserImportService userImportService;
+
+    /**
+     * Endpoint for importing users from NDJSON, one user object per line.
+     *
+     * @param lines The lines of the request body.
+     * @return The per-row results as NDJSON.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserImportResult> importNdjson(@RequestBody Flux<String> lines) {
+        return userImportService.importUsers(lines, UserImportService.Format.NDJSON);
+    }
+
+    /**
+     * Endpoint for importing users from CSV with the columns firstName, lastName and email.
+     *
+     * @param lines The lines of the request body.
+     * @return The per-row results as NDJSON.
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserImportResult> importCsv(@RequestBody Flux<String> lines) {
+        return userImportService.importUsers(lines, UserImportService.Format.CSV);
+    }
+}
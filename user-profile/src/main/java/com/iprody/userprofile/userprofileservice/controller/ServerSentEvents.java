@@ -0,0 +1,34 @@
+package com.iprody.userprofile.userprofileservice.controller;
+
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+/**
+ * Streams of server-sent events.
+ */
+final class ServerSentEvents {
+
+    /**
+     * Utility class, not instantiated.
+     */
+    private ServerSentEvents() {
+    }
+
+    /**
+     * Interleaves heartbeat comments with the events until they end.
+     * Writing to an idle connection is the only way to notice that its client is gone, so heartbeats end the
+     * subscriptions of departed clients within an interval and keep proxies from closing idle connections.
+     *
+     * @param <T>      The type of the event data.
+     * @param events   The events.
+     * @param interval The time between two heartbeats.
+     * @return The events with heartbeats.
+     */
+    static <T> Flux<ServerSentEvent<T>> withHeartbeats(Flux<ServerSentEvent<T>> events, Duration interval) {
+        return events.publish(shared -> Flux.merge(shared, Flux.interval(interval)
+                .map(tick -> ServerSentEvent.<T>builder().comment("heartbeat").build())
+                .takeUntilOther(shared.then())), 1);
+    }
+}
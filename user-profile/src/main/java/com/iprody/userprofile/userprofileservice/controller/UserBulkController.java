@@ -0,0 +1,67 @@
+package com.iprody.userprofile.userprofileservice.controller;
+
+import com.iprody.userprofile.userprofileservice.dto.UserImportResult;
+import com.iprody.userprofile.userprofileservice.service.UserImportService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Controller class for the bulk user import on the servlet runtime.
+ * The request body is read line by line as chunks are committed and the per-row results are streamed back.
+ */
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/user")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class UserBulkController {
+
+    /**
+     * Injection of UserImportService.
+     */
+    private final UserImportService userImportService;
+
+    /**
+     * Endpoint for importing users from NDJSON, one user object per line.
+     *
+     * @param body The request body.
+     * @return The per-row results as NDJSON.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserImportResult> importNdjson(InputStream body) {
+        return userImportService.importUsers(lines(body), UserImportService.Format.NDJSON);
+    }
+
+    /**
+     * Endpoint for importing users from CSV with the columns firstName, lastName and email.
+     *
+     * @param body The request body.
+     * @return The per-row results as NDJSON.
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserImportResult> importCsv(InputStream body) {
+        return userImportService.importUsers(lines(body), UserImportService.Format.CSV);
+    }
+
+    /**
+     * Reads the request body lazily, line by line, off the request thread.
+     *
+     * @param body The request body.
+     * @return The lines of the body.
+     */
+    private static Flux<String> lines(InputStream body) {
+        return Flux.fromStream(() -> new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)).lines())
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
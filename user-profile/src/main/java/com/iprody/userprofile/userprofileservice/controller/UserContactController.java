@@ -1,21 +1,29 @@
 package com.iprody.userprofile.userprofileservice.controller;
 
+import com.iprody.userprofile.userprofileservice.dto.BatchGetRequest;
+import com.iprody.userprofile.userprofileservice.dto.BatchGetResponse;
 import com.iprody.userprofile.userprofileservice.dto.UserContactDto;
-import com.iprody.userprofile.userprofileservice.entity.UserContact;
+import com.iprody.userprofile.userprofileservice.mapper.UserContactMapper;
 import com.iprody.userprofile.userprofileservice.service.UserContactService;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.AllArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Controller class for managing user contact-related API endpoints.
@@ -25,6 +33,11 @@ import java.net.URI;
 @RequestMapping("/api/user-contact")
 public class UserContactController {
 
+    /**
+     * The fields a merge patch can set.
+     */
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("telegramId", "mobilePhone");
+
     /**
      * Injection of UserContactService.
      */
@@ -32,38 +45,64 @@ public class UserContactController {
     private final UserContactService userContactService;
 
     /**
-     * Injection of ModelMapper.
+     * Injection of UserContactMapper.
      */
 
-    private final ModelMapper modelMapper;
+    private final UserContactMapper userContactMapper;
+
+    /**
+     * Injection of the bean validator, checking the fields of merge patches.
+     */
+    private final Validator validator;
 
     /**
      * Endpoint for finding a user contact by id.
+     * The response carries the version as ETag, and is 304 without body when If-None-Match names it.
+     * A conditional request reads the user contact from the database, so a 304 always names the current version;
+     * other requests are served from the cache and may lag a change made on another instance by the invalidation
+     * delay.
      *
-     * @param id The representing the user contact to be found.
+     * @param id          The representing the user contact to be found.
+     * @param ifNoneMatch The ETags the client already has, optional.
      * @return ResponseEntity with the found User contact object and HTTP status code.
      */
     @GetMapping()
-    private Mono<ResponseEntity<UserContactDto>> findById(@RequestParam Long id) {
-        var userMono = userContactService.findById(id);
-        return userMono.flatMap(foundedUser -> Mono
-                .just(ResponseEntity.ok(modelMapper.map(foundedUser, UserContactDto.class)))
-                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build())));
+    private Mono<ResponseEntity<UserContactDto>> findById(@RequestParam Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return (ifNoneMatch == null ? userContactService.findById(id) : userContactService.findCurrentById(id))
+                .map(foundUserContact -> VersionETags.conditionalGet(foundUserContact.getVersion(), ifNoneMatch,
+                        () -> userContactMapper.toDto(foundUserContact)));
     }
 
     /**
      * Endpoint for finding a user contact by id.
+     * The response carries the version as ETag, and is 304 without body when If-None-Match names it.
      *
-     * @param userId The representing the user field of user contact to be found.
+     * @param userId      The representing the user field of user contact to be found.
+     * @param ifNoneMatch The ETags the client already has, optional.
      * @return ResponseEntity with the found User contact object and HTTP status code.
      */
 
     @GetMapping("/user")
-    private Mono<ResponseEntity<UserContactDto>> findByUserId(@RequestParam Long userId) {
-        var userMono = userContactService.findById(userId);
-        return userMono.flatMap(foundedUser -> Mono
-                .just(ResponseEntity.ok(modelMapper.map(foundedUser, UserContactDto.class)))
-                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build())));
+    private Mono<ResponseEntity<UserContactDto>> findByUserId(@RequestParam Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return userContactService.findByUserId(userId)
+                .map(foundUserContact -> VersionETags.conditionalGet(foundUserContact.getVersion(), ifNoneMatch,
+                        () -> userContactMapper.toDto(foundUserContact)));
+    }
+
+    /**
+     * Endpoint for finding several user contacts by id in one request.
+     *
+     * @param request The ids of the user contacts to be found.
+     * @return ResponseEntity with the found UserContactDto objects in request order and the missing ids.
+     */
+    @PostMapping("/batch-get")
+    public Mono<ResponseEntity<BatchGetResponse<UserContactDto>>> findAllByIds(
+            @Valid @RequestBody BatchGetRequest request) {
+        return userContactService.findAllByIds(request.getIds())
+                .map(userContacts -> ResponseEntity.ok(BatchGetResponse.of(request.getIds(), userContacts,
+                        userContactMapper::toDto)));
     }
 
     /**
@@ -75,26 +114,52 @@ public class UserContactController {
 
     @PostMapping("/add")
     public Mono<ResponseEntity<UserContactDto>> saveUserContact(@Valid @RequestBody UserContactDto userContactDto) {
-        var userMono = userContactService.createUserContact(modelMapper.map(userContactDto, UserContact.class));
+        var userMono = userContactService.createUserContact(userContactMapper.toEntity(userContactDto));
         return userMono.flatMap(userContact ->
                         Mono.just(ResponseEntity.created(URI.create("/user-contacts/" + userContact.getId()))
-                                .body(modelMapper.map(userContact, UserContactDto.class))))
+                                .eTag(VersionETags.of(userContact.getVersion()))
+                                .body(userContactMapper.toDto(userContact))))
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
     }
 
     /**
      * Endpoint for updating a new user contact.
+     * With If-Match the user contact is only updated if it still has that version, with a single statement, and
+     * 412 is returned otherwise.
      *
      * @param id The id of the user contact to be updated.
      * @param userContactDto The DTO object representing the user to be updated.
+     * @param ifMatch The ETag of the version the update is based on, optional.
      * @return ResponseEntity with the updated UserDto object and HTTP status code.
      */
     @PostMapping("update")
     private Mono<ResponseEntity<UserContactDto>> update(@RequestParam Long id,
-                                                  @Valid @RequestBody UserContactDto userContactDto) {
-        var userMono = userContactService.update(id, modelMapper.map(userContactDto, UserContact.class));
-        return userMono.flatMap(foundedUser ->
-                Mono.just(ResponseEntity.ok(modelMapper.map(foundedUser, UserContactDto.class)))
-                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build())));
+                                                  @Valid @RequestBody UserContactDto userContactDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var userMono = userContactService.update(id, userContactMapper.toEntity(userContactDto),
+                VersionETags.expectedVersion(ifMatch));
+        return userMono.map(updatedUserContact -> ResponseEntity.ok()
+                .eTag(VersionETags.of(updatedUserContact.getVersion()))
+                .body(userContactMapper.toDto(updatedUserContact)));
+    }
+
+    /**
+     * Endpoint for partially updating a user contact with a JSON Merge Patch.
+     * Only the fields present in the patch are written, with one statement and without reading the user contact first;
+     * with If-Match only if it still has that version, and 412 is returned otherwise.
+     *
+     * @param id      The id of the user contact to be updated.
+     * @param patch   The merge patch, a null field clears it.
+     * @param ifMatch The ETag of the version the patch is based on, optional.
+     * @return ResponseEntity with the updated UserContactDto object and HTTP status code.
+     */
+    @PatchMapping(consumes = {MergePatches.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<UserContactDto>> patch(@RequestParam Long id, @RequestBody Map<String, Object> patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var changes = MergePatches.changes(patch, UserContactDto.class, PATCHABLE_FIELDS, validator);
+        return userContactService.patch(id, changes, VersionETags.expectedVersion(ifMatch))
+                .map(patchedUserContact -> ResponseEntity.ok()
+                        .eTag(VersionETags.of(patchedUserContact.getVersion()))
+                        .body(userContactMapper.toDto(patchedUserContact)));
     }
 }
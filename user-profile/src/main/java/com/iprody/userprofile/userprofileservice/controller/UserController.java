@@ -1,20 +1,34 @@
 package com.iprody.userprofile.userprofileservice.controller;
 
+import com.iprody.userprofile.userprofileservice.config.ProfileChangeFeedProperties;
+import com.iprody.userprofile.userprofileservice.dto.BatchGetRequest;
+import com.iprody.userprofile.userprofileservice.dto.BatchGetResponse;
 import com.iprody.userprofile.userprofileservice.dto.UserDto;
-import com.iprody.userprofile.userprofileservice.entity.User;
+import com.iprody.userprofile.userprofileservice.mapper.UserMapper;
+import com.iprody.userprofile.userprofileservice.service.UserChangeSubscriptions;
 import com.iprody.userprofile.userprofileservice.service.UserService;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.AllArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Controller class for managing user-related API endpoints.
@@ -25,27 +39,96 @@ import java.net.URI;
 @RequestMapping("/api/user")
 public class UserController {
 
+    /**
+     * The fields a merge patch can set.
+     */
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("firstName", "lastName", "email");
+
     /**
      * Injection of UserService.
      */
     private final UserService userService;
 
     /**
-     * Injection of ModelMapper.
+     * Injection of UserMapper.
+     */
+    private final UserMapper userMapper;
+
+    /**
+     * Injection of the bean validator, checking the fields of merge patches.
+     */
+    private final Validator validator;
+
+    /**
+     * Injection of UserChangeSubscriptions.
      */
-    private final ModelMapper modelMapper;
+    private final UserChangeSubscriptions userChangeSubscriptions;
+
+    /**
+     * Injection of the change feed settings.
+     */
+    private final ProfileChangeFeedProperties changeFeedProperties;
 
     /**
      * Endpoint for finding a user by id.
+     * The response carries the version as ETag, and is 304 without body when If-None-Match names it.
+     * A conditional request reads the user from the database, so a 304 always names the current version; other
+     * requests are served from the cache and may lag a change made on another instance by the invalidation delay.
      *
-     * @param id The representing the user to be created.
+     * @param id          The representing the user to be created.
+     * @param ifNoneMatch The ETags the client already has, optional.
      * @return ResponseEntity with the found User object and HTTP status code.
      */
     @GetMapping()
-    public Mono<ResponseEntity<UserDto>> findUserById(@RequestParam Long id) {
-        var userMono = userService.findUserById(id);
-        return userMono.flatMap(foundedUser -> Mono.just(ResponseEntity.ok(modelMapper.map(foundedUser, UserDto.class)))
-                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build())));
+    public Mono<ResponseEntity<UserDto>> findUserById(@RequestParam Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return (ifNoneMatch == null ? userService.findUserById(id) : userService.findCurrentUserById(id))
+                .map(foundUser -> VersionETags.conditionalGet(foundUser.getVersion(), ifNoneMatch,
+                        () -> userMapper.toDto(foundUser)));
+    }
+
+    /**
+     * Endpoint for subscribing to the changes of a user and its contact as server-sent events.
+     * The first events carry the current user and contact, every later one a newer state of either; a slow client
+     * only receives the latest state. Beyond the subscription limit the request is answered with 503. Heartbeat
+     * comments are sent while no state changes.
+     *
+     * @param id The id of the user.
+     * @return The states, one event named USER or USER_CONTACT with a UserDto or a UserContactDto per state.
+     */
+    @GetMapping(value = "/{id}/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> subscribeToChanges(@PathVariable Long id) {
+        return ServerSentEvents.withHeartbeats(userChangeSubscriptions.subscribe(id)
+                .map(state -> ServerSentEvent.builder(state.payload())
+                        .event(state.type().name())
+                        .build()), changeFeedProperties.heartbeatInterval());
+    }
+
+    /**
+     * Endpoint for finding a user by email, ignoring case.
+     *
+     * @param email The email of the user to be found.
+     * @return ResponseEntity with the found User object and HTTP status code.
+     */
+    @GetMapping("/by-email")
+    public Mono<ResponseEntity<UserDto>> findUserByEmail(@RequestParam String email) {
+        return userService.findUserByEmail(email)
+                .map(foundUser -> ResponseEntity.ok()
+                        .eTag(VersionETags.of(foundUser.getVersion()))
+                        .body(userMapper.toDto(foundUser)));
+    }
+
+    /**
+     * Endpoint for finding several users by id in one request.
+     *
+     * @param request The ids of the users to be found.
+     * @return ResponseEntity with the found UserDto objects in request order and the missing ids.
+     */
+    @PostMapping("/batch-get")
+    public Mono<ResponseEntity<BatchGetResponse<UserDto>>> findUsersByIds(@Valid @RequestBody BatchGetRequest request) {
+        return userService.findUsersByIds(request.getIds())
+                .map(users -> ResponseEntity.ok(BatchGetResponse.of(request.getIds(), users,
+                        userMapper::toDto)));
     }
 
     /**
@@ -57,25 +140,50 @@ public class UserController {
 
     @PostMapping("/add")
     public Mono<ResponseEntity<UserDto>> saveUser(@RequestBody UserDto userDto) {
-        var createdUser = userService.createUser(modelMapper.map(userDto, User.class));
+        var createdUser = userService.createUser(userMapper.toEntity(userDto));
         return createdUser.flatMap(value ->
                         Mono.just(ResponseEntity.created(URI.create("/users/" + value.getId()))
-                        .body(modelMapper.map(value, UserDto.class))))
+                        .eTag(VersionETags.of(value.getVersion()))
+                        .body(userMapper.toDto(value))))
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
     }
 
     /**
      * Endpoint for creating a new user.
+     * With If-Match the user is only updated if it still has that version, with a single statement, and 412 is
+     * returned otherwise.
      *
      * @param id The id of the user to be updated.
      * @param userDto The DTO object representing the user to be updated.
+     * @param ifMatch The ETag of the version the update is based on, optional.
      * @return ResponseEntity with the updated UserDto object and HTTP status code.
      */
     @PostMapping("/update")
-    public Mono<ResponseEntity<UserDto>> updateUser(@RequestParam Long id, @RequestBody UserDto userDto) {
-        var userMono = userService.updateUser(id, modelMapper.map(userDto, User.class));
-        return userMono.flatMap(updatedUser -> Mono.just(ResponseEntity.ok(modelMapper.map(updatedUser, UserDto.class)))
-                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build())));
+    public Mono<ResponseEntity<UserDto>> updateUser(@RequestParam Long id, @RequestBody UserDto userDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var userMono = userService.updateUser(id, userMapper.toEntity(userDto), VersionETags.expectedVersion(ifMatch));
+        return userMono.map(updatedUser -> ResponseEntity.ok()
+                .eTag(VersionETags.of(updatedUser.getVersion()))
+                .body(userMapper.toDto(updatedUser)));
     }
 
+    /**
+     * Endpoint for partially updating a user with a JSON Merge Patch.
+     * Only the fields present in the patch are written, with one statement and without reading the user first;
+     * with If-Match only if it still has that version, and 412 is returned otherwise.
+     *
+     * @param id      The id of the user to be updated.
+     * @param patch   The merge patch, a null field clears it.
+     * @param ifMatch The ETag of the version the patch is based on, optional.
+     * @return ResponseEntity with the updated UserDto object and HTTP status code.
+     */
+    @PatchMapping(consumes = {MergePatches.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<UserDto>> patch(@RequestParam Long id, @RequestBody Map<String, Object> patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var changes = MergePatches.changes(patch, UserDto.class, PATCHABLE_FIELDS, validator);
+        return userService.patchUser(id, changes, VersionETags.expectedVersion(ifMatch))
+                .map(patchedUser -> ResponseEntity.ok()
+                        .eTag(VersionETags.of(patchedUser.getVersion()))
+                        .body(userMapper.toDto(patchedUser)));
+    }
 }
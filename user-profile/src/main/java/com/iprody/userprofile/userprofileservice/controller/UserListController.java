@@ -0,0 +1,61 @@
+package com.iprody.userprofile.userprofileservice.controller;
+
+import com.iprody.userprofile.userprofileservice.dto.UserDto;
+import com.iprody.userprofile.userprofileservice.dto.UserPage;
+import com.iprody.userprofile.userprofileservice.mapper.UserMapper;
+import com.iprody.userprofile.userprofileservice.service.UserService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controller class for listing users with keyset pagination on id.
+ */
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/users")
+public class UserListController {
+
+    /**
+     * Injection of UserService.
+     */
+    private final UserService userService;
+
+    /**
+     * Injection of UserMapper.
+     */
+    private final UserMapper userMapper;
+
+    /**
+     * Endpoint for listing one page of users in ascending id order.
+     *
+     * @param afterId The id to start after, omitted for the first page.
+     * @param limit   The page size, capped by the service.
+     * @return ResponseEntity with the users of the page and the afterId of the next page.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<UserPage>> listUsers(@RequestParam(required = false) Long afterId,
+                                                    @RequestParam(required = false) Integer limit) {
+        return userService.listUsers(afterId, limit)
+                .map(users -> ResponseEntity.ok(UserPage.builder()
+                        .users(users.stream().map(userMapper::toDto).toList())
+                        .nextAfterId(users.isEmpty() ? null : users.get(users.size() - 1).getId())
+                        .build()));
+    }
+
+    /**
+     * Endpoint for streaming all users in ascending id order as NDJSON.
+     *
+     * @return The users, one JSON object per line.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserDto> streamUsers() {
+        return userService.streamUsers().map(userMapper::toDto);
+    }
+}
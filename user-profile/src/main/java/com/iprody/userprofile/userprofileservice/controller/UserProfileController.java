@@ -0,0 +1,43 @@
+package com.iprody.userprofile.userprofileservice.controller;
+
+import com.iprody.userprofile.userprofileservice.dto.UserProfileDto;
+import com.iprody.userprofile.userprofileservice.mapper.UserProfileMapper;
+import com.iprody.userprofile.userprofileservice.service.UserProfileService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controller class for the full profile of a user, the user and its contact in one response.
+ */
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/profile")
+public class UserProfileController {
+
+    /**
+     * Injection of UserProfileService.
+     */
+    private final UserProfileService userProfileService;
+
+    /**
+     * Injection of UserProfileMapper.
+     */
+    private final UserProfileMapper userProfileMapper;
+
+    /**
+     * Endpoint for finding the profile of a user, read from the denormalized read model with one query.
+     *
+     * @param userId The id of the user.
+     * @return ResponseEntity with the found profile, the contact fields null if the user has no contact.
+     */
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<UserProfileDto>> findByUserId(@PathVariable Long userId) {
+        return userProfileService.findByUserId(userId)
+                .map(userProfile -> ResponseEntity.ok(userProfileMapper.toDto(userProfile)));
+    }
+}
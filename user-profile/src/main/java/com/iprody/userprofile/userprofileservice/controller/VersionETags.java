@@ -0,0 +1,112 @@
+package com.iprody.userprofile.userprofileservice.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Entity tags of the versioned resources.
+ * The ETag of a user or user contact is its quoted row version, so conditional requests compare versions instead of
+ * representations, and a matching If-None-Match is answered from the cache without serializing the body.
+ */
+final class VersionETags {
+
+    /**
+     * The entity tag matching any version.
+     */
+    private static final String ANY = "*";
+
+    /**
+     * The prefix of a weak entity tag.
+     */
+    private static final String WEAK_PREFIX = "W/";
+
+    /**
+     * The quote around an entity tag.
+     */
+    private static final char QUOTE = '"';
+
+    /**
+     * Utility class, not instantiated.
+     */
+    private VersionETags() {
+    }
+
+    /**
+     * Returns the strong entity tag of a version.
+     *
+     * @param version The version.
+     * @return The quoted version.
+     */
+    static String of(Long version) {
+        return QUOTE + String.valueOf(version) + QUOTE;
+    }
+
+    /**
+     * Answers a conditional GET: 304 without body when If-None-Match names the current version, 200 with the body
+     * otherwise, both carrying the ETag of the current version.
+     *
+     * @param <T>         The type of the body.
+     * @param version     The current version.
+     * @param ifNoneMatch The If-None-Match header, null when absent.
+     * @param body        The supplier of the body, only called when it is sent.
+     * @return The response.
+     */
+    static <T> ResponseEntity<T> conditionalGet(Long version, String ifNoneMatch, Supplier<T> body) {
+        String eTag = of(version);
+        if (ifNoneMatch != null && matchesAny(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(body.get());
+    }
+
+    /**
+     * Returns the version an If-Match header requires.
+     *
+     * @param ifMatch The If-Match header, null when absent.
+     * @return The version, null when the header is absent or "*".
+     * @throws ResponseStatusException 412 when the header is not the strong entity tag of a version.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() <= 2 || tag.charAt(0) != QUOTE || tag.charAt(tag.length() - 1) != QUOTE) {
+            throw notAVersion(ifMatch);
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw notAVersion(ifMatch);
+        }
+    }
+
+    /**
+     * Returns whether an If-None-Match header names an entity tag, comparing weakly as the header requires.
+     *
+     * @param ifNoneMatch The If-None-Match header.
+     * @param eTag        The entity tag.
+     * @return true when one of the listed tags, or "*", matches.
+     */
+    private static boolean matchesAny(String ifNoneMatch, String eTag) {
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag)
+                .anyMatch(tag -> ANY.equals(tag) || eTag.equals(tag));
+    }
+
+    /**
+     * Creates the error of an If-Match header that names no version.
+     *
+     * @param ifMatch The If-Match header.
+     * @return The 412 error.
+     */
+    private static ResponseStatusException notAVersion(String ifMatch) {
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                "If-Match must be the ETag of the resource, not " + ifMatch);
+    }
+}
@@ -0,0 +1,35 @@
+package com.iprody.userprofile.userprofileservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data transfer object (DTO) representing a batch lookup by ids.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchGetRequest {
+
+    /**
+     * The maximum number of ids in one batch lookup.
+     */
+    public static final int MAX_IDS = 100;
+
+    /**
+     * The ids to look up, in the order the results are returned.
+     */
+    @NotEmpty
+    @Size(max = MAX_IDS)
+    private List<@NotNull Long> ids;
+}
@@ -0,0 +1,60 @@
+package com.iprody.userprofile.userprofileservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Data transfer object (DTO) representing the result of a batch lookup by ids.
+ *
+ * @param <T> The type of the found objects.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchGetResponse<T> {
+
+    /**
+     * The found objects in request order, duplicate ids are returned once.
+     */
+    private List<T> found;
+
+    /**
+     * The requested ids that do not exist, in request order.
+     */
+    private List<Long> missingIds;
+
+    /**
+     * Arranges the found objects in request order and collects the ids without a result.
+     *
+     * @param ids    The requested ids.
+     * @param values The found objects by id.
+     * @param mapper The mapping of a found object to its DTO.
+     * @param <E>    The type of the found objects.
+     * @param <T>    The type of the DTOs.
+     * @return The batch lookup result.
+     */
+    public static <E, T> BatchGetResponse<T> of(List<Long> ids, Map<Long, E> values, Function<E, T> mapper) {
+        var found = new ArrayList<T>(values.size());
+        var missingIds = new ArrayList<Long>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            var value = values.get(id);
+            if (value == null) {
+                missingIds.add(id);
+            } else {
+                found.add(mapper.apply(value));
+            }
+        }
+        return new BatchGetResponse<>(found, missingIds);
+    }
+}
@@ -0,0 +1,57 @@
+package com.iprody.userprofile.userprofileservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Data transfer object (DTO) representing one committed change of the change feed; its offset is the SSE event id.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProfileChangeDto {
+
+    /**
+     * The kind of the changed entity, USER or USER_CONTACT.
+     */
+    private String type;
+
+    /**
+     * Whether the entity was CREATED or UPDATED.
+     */
+    private String operation;
+
+    /**
+     * The id of the changed entity.
+     */
+    private Long entityId;
+
+    /**
+     * The id of the user the changed entity belongs to.
+     */
+    private Long userId;
+
+    /**
+     * The version of the entity written by the change; a later change of an entity has a higher version.
+     */
+    private Long version;
+
+    /**
+     * The written entity, a UserDto or a UserContactDto, relayed as stored.
+     */
+    @JsonRawValue
+    private String payload;
+
+    /**
+     * The start time of the writing transaction.
+     */
+    private Instant occurredAt;
+}
@@ -1,6 +1,5 @@
 package com.iprody.userprofile.userprofileservice.dto;
 
-import com.iprody.userprofile.userprofileservice.entity.User;
 import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,6 +14,11 @@ import lombok.Setter;
 @NoArgsConstructor
 public class UserContactDto {
 
+    /**
+     * The id of the user contact, assigned by the service.
+     */
+    private Long id;
+
     /**
      * The telegram id of the user contact.
      */
@@ -29,7 +33,12 @@ public class UserContactDto {
     private String mobilePhone;
 
     /**
-     * The user of the user contact.
+     * The id of the user owning the contact.
+     */
+    private Long userId;
+
+    /**
+     * The version of the user contact, also sent as the ETag of the user contact.
      */
-    private User user;
+    private Long version;
 }
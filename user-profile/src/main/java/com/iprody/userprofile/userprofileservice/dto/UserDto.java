@@ -1,7 +1,6 @@
 package com.iprody.userprofile.userprofileservice.dto;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
-import com.iprody.userprofile.userprofileservice.entity.UserContact;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -18,6 +17,11 @@ import lombok.Setter;
 @NoArgsConstructor
 public class UserDto {
 
+    /**
+     * The id of the user, assigned by the service.
+     */
+    private Long id;
+
     /**
      * The first name of the user.
      */
@@ -34,12 +38,12 @@ public class UserDto {
      * The email address of the user.
      */
 
+    @NotNull
     private String email;
 
     /**
-     * The user contact of the user.
+     * The version of the user, also sent as the ETag of the user.
      */
-    @JsonBackReference
-    private UserContact userContact;
+    private Long version;
 
 }
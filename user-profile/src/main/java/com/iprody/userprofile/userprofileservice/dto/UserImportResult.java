@@ -0,0 +1,52 @@
+package com.iprody.userprofile.userprofileservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data transfer object (DTO) representing the outcome of one row of a bulk user import.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportResult {
+
+    /**
+     * The line number of the row in the uploaded file, starting at 1.
+     */
+    private long line;
+
+    /**
+     * The outcome of the row.
+     */
+    private Status status;
+
+    /**
+     * The id of the created user.
+     */
+    private Long id;
+
+    /**
+     * The reason the row was rejected.
+     */
+    private String error;
+
+    /**
+     * Outcomes of an imported row.
+     */
+    public enum Status {
+        /**
+         * The user was created.
+         */
+        CREATED,
+        /**
+         * The row was rejected and nothing was written for it.
+         */
+        FAILED
+    }
+}
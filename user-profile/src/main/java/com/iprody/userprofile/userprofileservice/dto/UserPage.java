@@ -0,0 +1,30 @@
+package com.iprody.userprofile.userprofileservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data transfer object (DTO) representing one page of the user listing ordered by id.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPage {
+
+    /**
+     * The users of the page in ascending id order.
+     */
+    private List<UserDto> users;
+
+    /**
+     * The afterId to request the next page with, the last id of this page; null once a page comes back empty.
+     */
+    private Long nextAfterId;
+}
@@ -0,0 +1,63 @@
+package com.iprody.userprofile.userprofileservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data transfer object (DTO) representing the full profile of a user, the user and its contact in one flat object.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserProfileDto {
+
+    /**
+     * The id of the user.
+     */
+    private Long userId;
+
+    /**
+     * The first name of the user.
+     */
+    private String firstName;
+
+    /**
+     * The last name of the user.
+     */
+    private String lastName;
+
+    /**
+     * The email address of the user.
+     */
+    private String email;
+
+    /**
+     * The version of the user, the ETag of the user.
+     */
+    private Long userVersion;
+
+    /**
+     * The id of the user contact, null if the user has no contact.
+     */
+    private Long contactId;
+
+    /**
+     * The telegram id of the user contact.
+     */
+    private String telegramId;
+
+    /**
+     * The mobile phone of the user contact.
+     */
+    private String mobilePhone;
+
+    /**
+     * The version of the user contact, the ETag of the user contact.
+     */
+    private Long contactVersion;
+}
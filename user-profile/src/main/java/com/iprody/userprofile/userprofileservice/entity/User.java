@@ -9,22 +9,27 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 
 /**
  * User.
  * Columns:
- *   id (bigserial)
+ *   id (bigint, pooled from users_id_seq)
  *   first name (varchar(50))
  *   last name (varchar(50))
  *   email (varchar(255), unique)
+ *   version (bigint, incremented by every update)
+ * Updates only write the changed columns.
  */
 @Getter
 @Setter
@@ -32,16 +37,24 @@ import lombok.Setter;
 @Builder
 @AllArgsConstructor
 @Entity
+@DynamicUpdate
 @Table(name = "users")
 public class User {
 
+    /**
+     * The number of ids reserved per sequence call, matching the increment of the sequence.
+     * Ids are known before the insert, so Hibernate can batch the inserts.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * The id of the user.
      */
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     @Setter(AccessLevel.NONE)
     private Long id;
 
@@ -66,6 +79,15 @@ public class User {
     @Column(name = "email", unique = true, nullable = false)
     private String email;
 
+    /**
+     * The version of the user, checked and incremented by every update.
+     */
+
+    @Version
+    @Column(name = "version", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     /**
      * The user contact of user contacts in the user.
      */
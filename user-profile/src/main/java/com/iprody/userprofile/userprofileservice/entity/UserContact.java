@@ -8,7 +8,9 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Pattern;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -16,22 +18,31 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @Entity
+@DynamicUpdate
 @Builder
 @AllArgsConstructor
 @Table(name = "user_contact")
 public class UserContact {
 
+    /**
+     * The number of ids reserved per sequence call, matching the increment of the sequence.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * The id of the user contact.
      */
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_contact_id_seq")
+    @SequenceGenerator(name = "user_contact_id_seq", sequenceName = "user_contact_id_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = "id")
     @Setter(AccessLevel.NONE)
     private Long id;
@@ -52,11 +63,21 @@ public class UserContact {
     @Pattern(regexp = "^\\+[1-9]\\d{1,14}$")
     private String mobilePhone;
 
+    /**
+     * The version of the user contact, checked and incremented by every update.
+     */
+
+    @Version
+    @Column(name = "version", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     /**
      * The user id of the user contact.
+     * Loaded lazily; the repository queries fetch it explicitly where it is needed.
      */
 
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", unique = true)
     private User user;
 
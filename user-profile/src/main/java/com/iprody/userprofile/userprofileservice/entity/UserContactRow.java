@@ -0,0 +1,82 @@
+package com.iprody.userprofile.userprofileservice.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC row of the user_contact table.
+ * The user relationship is kept as the plain user_id foreign key.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("user_contact")
+public class UserContactRow {
+
+    /**
+     * The id of the user contact.
+     */
+    @Id
+    private Long id;
+
+    /**
+     * The telegram id of the user contact.
+     */
+    private String telegramId;
+
+    /**
+     * The mobile phone of the user contact.
+     */
+    private String mobilePhone;
+
+    /**
+     * The id of the user owning the contact.
+     */
+    private Long userId;
+
+    /**
+     * The version of the user contact, checked and incremented by every save of an existing row.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Creates a row from the user contact entity.
+     *
+     * @param userContact The user contact entity.
+     * @return The row holding the user contact columns.
+     */
+    public static UserContactRow from(UserContact userContact) {
+        return UserContactRow.builder()
+                .id(userContact.getId())
+                .telegramId(userContact.getTelegramId())
+                .mobilePhone(userContact.getMobilePhone())
+                .userId(userContact.getUser() == null ? null : userContact.getUser().getId())
+                .version(userContact.getVersion())
+                .build();
+    }
+
+    /**
+     * Converts the row to the user contact entity.
+     *
+     * @param user The user owning the contact, may be null.
+     * @return The user contact entity.
+     */
+    public UserContact toUserContact(User user) {
+        return UserContact.builder()
+                .id(id)
+                .telegramId(telegramId)
+                .mobilePhone(mobilePhone)
+                .user(user)
+                .version(version)
+                .build();
+    }
+}
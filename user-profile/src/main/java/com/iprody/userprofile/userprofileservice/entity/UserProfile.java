@@ -0,0 +1,65 @@
+package com.iprody.userprofile.userprofileservice.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Row of the user_profile read model: a user with the columns of its user contact.
+ * The row is maintained by database triggers on every write of the user or its contact and is never written by the
+ * service; the contact columns are null while the user has no contact.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserProfile {
+
+    /**
+     * The id of the user.
+     */
+    private Long userId;
+
+    /**
+     * The first name of the user.
+     */
+    private String firstName;
+
+    /**
+     * The last name of the user.
+     */
+    private String lastName;
+
+    /**
+     * The email of the user.
+     */
+    private String email;
+
+    /**
+     * The version of the user.
+     */
+    private Long userVersion;
+
+    /**
+     * The id of the user contact.
+     */
+    private Long contactId;
+
+    /**
+     * The telegram id of the user contact.
+     */
+    private String telegramId;
+
+    /**
+     * The mobile phone of the user contact.
+     */
+    private String mobilePhone;
+
+    /**
+     * The version of the user contact.
+     */
+    private Long contactVersion;
+}
@@ -0,0 +1,81 @@
+package com.iprody.userprofile.userprofileservice.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC row of the users table.
+ * Mirrors the columns of {@link User} without the JPA relationship mapping.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("users")
+public class UserRow {
+
+    /**
+     * The id of the user.
+     */
+    @Id
+    private Long id;
+
+    /**
+     * The first name of the user.
+     */
+    private String firstName;
+
+    /**
+     * The last name of the user.
+     */
+    private String lastName;
+
+    /**
+     * The email of the user.
+     */
+    private String email;
+
+    /**
+     * The version of the user, checked and incremented by every save of an existing row.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Creates a row from the user entity.
+     *
+     * @param user The user entity.
+     * @return The row holding the user columns.
+     */
+    public static UserRow from(User user) {
+        return UserRow.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .version(user.getVersion())
+                .build();
+    }
+
+    /**
+     * Converts the row to the user entity.
+     *
+     * @return The user entity without the user contact.
+     */
+    public User toUser() {
+        return User.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(email)
+                .version(version)
+                .build();
+    }
+}
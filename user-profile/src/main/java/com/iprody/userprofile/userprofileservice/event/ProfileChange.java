@@ -0,0 +1,35 @@
+package com.iprody.userprofile.userprofileservice.event;
+
+import java.time.Instant;
+
+/**
+ * Committed change of a user or user contact, read from the transactional outbox.
+ * The payload is the state written by the change; a consumer keeps the payload with the highest version per entity.
+ * The current state of an entity, read to start a subscription, has no offset, operation or time.
+ *
+ * @param offset     The position of the change in the feed.
+ * @param type       The kind of the changed entity.
+ * @param operation  Whether the entity was created or updated.
+ * @param entityId   The id of the changed entity.
+ * @param userId     The id of the user the changed entity belongs to, may be null for a contact without user.
+ * @param version    The version of the entity written by the change.
+ * @param payload    The written entity as JSON, with the fields of its DTO.
+ * @param occurredAt The start time of the writing transaction.
+ */
+public record ProfileChange(ProfileChangeOffset offset, ProfileChangedEvent.Type type, Operation operation,
+                            Long entityId, Long userId, Long version, String payload, Instant occurredAt) {
+
+    /**
+     * Kinds of changes.
+     */
+    public enum Operation {
+        /**
+         * The entity was inserted.
+         */
+        CREATED,
+        /**
+         * The entity was updated.
+         */
+        UPDATED
+    }
+}
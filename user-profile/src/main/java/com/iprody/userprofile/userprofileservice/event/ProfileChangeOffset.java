@@ -0,0 +1,73 @@
+package com.iprody.userprofile.userprofileservice.event;
+
+import java.util.Comparator;
+
+/**
+ * Position in the change feed, after a given change.
+ * Changes are ordered by the id of their writing transaction and then by their own id, an order in which a change
+ * committed late can never appear before one already delivered. Its text form, txId-id, is the SSE event id.
+ * Offsets compare in feed order.
+ *
+ * @param txId The id of the transaction that wrote the change.
+ * @param id   The id of the change.
+ */
+public record ProfileChangeOffset(long txId, long id) implements Comparable<ProfileChangeOffset> {
+
+    /**
+     * The position before the first change.
+     */
+    public static final ProfileChangeOffset START = new ProfileChangeOffset(0L, 0L);
+
+    /**
+     * The position after every change.
+     */
+    public static final ProfileChangeOffset END = new ProfileChangeOffset(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    /**
+     * Orders offsets in feed order.
+     */
+    private static final Comparator<ProfileChangeOffset> FEED_ORDER =
+            Comparator.comparingLong(ProfileChangeOffset::txId).thenComparingLong(ProfileChangeOffset::id);
+
+    /**
+     * Separator of the transaction id and the change id in the text form.
+     */
+    private static final char SEPARATOR = '-';
+
+    /**
+     * Parses the text form of an offset.
+     *
+     * @param text The offset as txId-id.
+     * @return The offset.
+     * @throws IllegalArgumentException when the text is not an offset.
+     */
+    public static ProfileChangeOffset parse(String text) {
+        int separator = text.indexOf(SEPARATOR);
+        if (separator < 1) {
+            throw new IllegalArgumentException("Invalid change feed offset " + text);
+        }
+        return new ProfileChangeOffset(Long.parseLong(text.substring(0, separator)),
+                Long.parseLong(text.substring(separator + 1)));
+    }
+
+    /**
+     * Compares the offset to another in feed order.
+     *
+     * @param other The other offset.
+     * @return A negative number, zero or a positive number as this offset is before, at or after the other.
+     */
+    @Override
+    public int compareTo(ProfileChangeOffset other) {
+        return FEED_ORDER.compare(this, other);
+    }
+
+    /**
+     * Returns the text form of the offset.
+     *
+     * @return The offset as txId-id.
+     */
+    @Override
+    public String toString() {
+        return txId + String.valueOf(SEPARATOR) + id;
+    }
+}
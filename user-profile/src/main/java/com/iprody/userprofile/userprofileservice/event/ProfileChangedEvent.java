@@ -0,0 +1,25 @@
+package com.iprody.userprofile.userprofileservice.event;
+
+/**
+ * Application event published after a user or user contact write has been committed.
+ *
+ * @param type   The kind of the changed entity.
+ * @param id     The id of the changed entity.
+ * @param userId The id of the user the changed entity belongs to, may be null for a contact without user.
+ */
+public record ProfileChangedEvent(Type type, Long id, Long userId) {
+
+    /**
+     * Kinds of changed entities.
+     */
+    public enum Type {
+        /**
+         * A row of the users table.
+         */
+        USER,
+        /**
+         * A row of the user_contact table.
+         */
+        USER_CONTACT
+    }
+}
@@ -0,0 +1,11 @@
+package com.iprody.userprofile.userprofileservice.event;
+
+/**
+ * Application event published after a chunk of imported users has been committed.
+ * The users are new, so no cache can hold them; the event only wakes the change feed up, once per chunk instead of
+ * once per user.
+ *
+ * @param created The number of users created by the chunk.
+ */
+public record UsersImportedEvent(int created) {
+}
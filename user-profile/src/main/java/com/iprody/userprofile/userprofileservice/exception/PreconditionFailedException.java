@@ -0,0 +1,15 @@
+package com.iprody.userprofile.userprofileservice.exception;
+
+/**
+ * PreconditionFailedException exception class, raised when a conditional update expected another version.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    /**
+     * Constructor with arguments for class.
+     * @param message The exception message.
+     */
+    public PreconditionFailedException(final String message) {
+        super(message);
+    }
+}
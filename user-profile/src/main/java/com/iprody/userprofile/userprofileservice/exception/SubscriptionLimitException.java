@@ -0,0 +1,15 @@
+package com.iprody.userprofile.userprofileservice.exception;
+
+/**
+ * SubscriptionLimitException exception class, raised when the concurrent subscriptions reached their limit.
+ */
+public class SubscriptionLimitException extends RuntimeException {
+
+    /**
+     * Constructor with arguments for class.
+     * @param message The exception message.
+     */
+    public SubscriptionLimitException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,78 @@
+package com.iprody.userprofile.userprofileservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter letting at most a fixed number of DEBUG and TRACE events through per second, so that
+ * enabling debug logging on a busy instance samples the traffic instead of flooding the appenders.
+ * Events of loggers that are not enabled for the level, and the isDebugEnabled() checks, are left to Logback.
+ */
+public class DebugRateLimitFilter extends TurboFilter {
+
+    /**
+     * Milliseconds per rate window.
+     */
+    private static final long WINDOW_MILLIS = 1000L;
+
+    /**
+     * Events let through per second unless configured.
+     */
+    private static final int DEFAULT_MAX_PER_SECOND = 50;
+
+    /**
+     * Events let through per second.
+     */
+    private int maxPerSecond = DEFAULT_MAX_PER_SECOND;
+
+    /**
+     * Start of the current window, in epoch seconds.
+     */
+    private final AtomicLong window = new AtomicLong();
+
+    /**
+     * Events let through in the current window.
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * Sets the number of DEBUG and TRACE events let through per second.
+     *
+     * @param maxPerSecond The number of events.
+     */
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    /**
+     * Denies the DEBUG and TRACE events above the rate.
+     *
+     * @param marker The marker of the event.
+     * @param logger The logger.
+     * @param level  The level of the event.
+     * @param format The message format, null for level checks.
+     * @param params The message parameters.
+     * @param t      The logged throwable.
+     * @return DENY above the rate, NEUTRAL otherwise.
+     */
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (!isStarted() || format == null || level.toInt() > Level.DEBUG_INT
+                || logger.getEffectiveLevel().toInt() > level.toInt()) {
+            return FilterReply.NEUTRAL;
+        }
+        long current = System.currentTimeMillis() / WINDOW_MILLIS;
+        long previous = window.get();
+        if (current != previous && window.compareAndSet(previous, current)) {
+            count.set(0);
+        }
+        return count.incrementAndGet() <= maxPerSecond ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
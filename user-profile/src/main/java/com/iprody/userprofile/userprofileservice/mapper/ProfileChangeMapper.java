@@ -0,0 +1,21 @@
+package com.iprody.userprofile.userprofileservice.mapper;
+
+import com.iprody.userprofile.userprofileservice.dto.ProfileChangeDto;
+import com.iprody.userprofile.userprofileservice.event.ProfileChange;
+import org.mapstruct.Mapper;
+
+/**
+ * Mapper from {@link ProfileChange} to {@link ProfileChangeDto}, generated at compile time by MapStruct.
+ * The offset is not mapped, it is sent as the SSE event id.
+ */
+@Mapper(componentModel = "spring")
+public interface ProfileChangeMapper {
+
+    /**
+     * Maps a change to its DTO.
+     *
+     * @param profileChange The change.
+     * @return The DTO.
+     */
+    ProfileChangeDto toDto(ProfileChange profileChange);
+}
@@ -0,0 +1,55 @@
+package com.iprody.userprofile.userprofileservice.mapper;
+
+import com.iprody.userprofile.userprofileservice.dto.UserContactDto;
+import com.iprody.userprofile.userprofileservice.entity.User;
+import com.iprody.userprofile.userprofileservice.entity.UserContact;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper between {@link UserContact} and {@link UserContactDto}, generated at compile time by MapStruct.
+ * The user is carried as its id only.
+ */
+@Mapper(componentModel = "spring")
+public interface UserContactMapper {
+
+    /**
+     * Maps a user contact to its DTO.
+     *
+     * @param userContact The user contact.
+     * @return The DTO.
+     */
+    @Mapping(target = "userId", source = "user.id")
+    UserContactDto toDto(UserContact userContact);
+
+    /**
+     * Maps a DTO to a new user contact referencing its user by id; the id and the version are assigned on save.
+     *
+     * @param userContactDto The DTO.
+     * @return The user contact.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "user", source = "userId")
+    UserContact toEntity(UserContactDto userContactDto);
+
+    /**
+     * Copies the columns of a user contact into a new user contact that is not attached to any persistence context;
+     * the user is carried as a reference by id.
+     *
+     * @param userContact The user contact.
+     * @return The copy.
+     */
+    @Mapping(target = "user", source = "user.id")
+    UserContact snapshot(UserContact userContact);
+
+    /**
+     * Creates a reference to a user by id.
+     *
+     * @param userId The id of the user.
+     * @return The user reference or null without an id.
+     */
+    default User userReference(Long userId) {
+        return userId == null ? null : User.builder().id(userId).build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.iprody.userprofile.userprofileservice.mapper;
+
+import com.iprody.userprofile.userprofileservice.dto.UserDto;
+import com.iprody.userprofile.userprofileservice.entity.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper between {@link User} and {@link UserDto}, generated at compile time by MapStruct.
+ */
+@Mapper(componentModel = "spring")
+public interface UserMapper {
+
+    /**
+     * Maps a user to its DTO.
+     *
+     * @param user The user.
+     * @return The DTO.
+     */
+    UserDto toDto(User user);
+
+    /**
+     * Maps a DTO to a new user; the id and the version are assigned on save.
+     *
+     * @param userDto The DTO.
+     * @return The user.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "userContact", ignore = true)
+    User toEntity(UserDto userDto);
+
+    /**
+     * Copies the columns of a user into a new user that is not attached to any persistence context;
+     * the user contact is left out.
+     *
+     * @param user The user.
+     * @return The copy.
+     */
+    @Mapping(target = "userContact", ignore = true)
+    User snapshot(User user);
+}
@@ -0,0 +1,20 @@
+package com.iprody.userprofile.userprofileservice.mapper;
+
+import com.iprody.userprofile.userprofileservice.dto.UserProfileDto;
+import com.iprody.userprofile.userprofileservice.entity.UserProfile;
+import org.mapstruct.Mapper;
+
+/**
+ * Mapper from {@link UserProfile} to {@link UserProfileDto}, generated at compile time by MapStruct.
+ */
+@Mapper(componentModel = "spring")
+public interface UserProfileMapper {
+
+    /**
+     * Maps a profile to its DTO.
+     *
+     * @param userProfile The profile.
+     * @return The DTO.
+     */
+    UserProfileDto toDto(UserProfile userProfile);
+}
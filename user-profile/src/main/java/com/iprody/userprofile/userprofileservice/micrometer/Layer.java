@@ -0,0 +1,38 @@
+package com.iprody.userprofile.userprofileservice.micrometer;
+
+import java.util.Locale;
+
+/**
+ * Application layers observed by {@link LayerObservationPostProcessor}, used as the layer key of the observations.
+ */
+public enum Layer {
+
+    /**
+     * Service beans.
+     */
+    SERVICE,
+
+    /**
+     * MapStruct mappers between entities and DTOs.
+     */
+    MAPPING,
+
+    /**
+     * Bean validation.
+     */
+    VALIDATION,
+
+    /**
+     * Spring Data repositories, i.e. SQL.
+     */
+    REPOSITORY;
+
+    /**
+     * Returns the tag value of the layer.
+     *
+     * @return The lower case name.
+     */
+    public String tagValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,177 @@
+package com.iprody.userprofile.userprofileservice.micrometer;
+
+import com.iprody.userprofile.userprofileservice.persistence.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Observes every call of a bean of one layer as a user.profile.layer observation, tagged with the layer, the class
+ * and the method, which Micrometer publishes as a timer.
+ * Calls returning a Mono or a Flux are observed from subscription to termination rather than while the pipeline is
+ * assembled. Blocking repository calls also record the number of SQL statements they ran, in a summary registered
+ * once per method.
+ */
+public class LayerObservationInterceptor implements MethodInterceptor {
+
+    /**
+     * Name of the layer observations.
+     */
+    static final String OBSERVATION_NAME = "user.profile.layer";
+
+    /**
+     * Name of the summary of SQL statements per repository call.
+     */
+    static final String STATEMENTS_METRIC = "user.profile.repository.statements";
+
+    /**
+     * Name of the layer key.
+     */
+    private static final String LAYER_KEY = "layer";
+
+    /**
+     * Name of the class key.
+     */
+    private static final String CLASS_KEY = "class";
+
+    /**
+     * Name of the method key.
+     */
+    private static final String METHOD_KEY = "method";
+
+    /**
+     * Prefix of the validator methods that are observed.
+     */
+    private static final String VALIDATE_PREFIX = "validate";
+
+    /**
+     * Layer of the observed bean.
+     */
+    private final Layer layer;
+
+    /**
+     * Simple name of the observed class or repository interface.
+     */
+    private final String component;
+
+    /**
+     * Supplier of the observation registry, resolved on first use.
+     */
+    private final Supplier<ObservationRegistry> observationRegistry;
+
+    /**
+     * Supplier of the meter registry, resolved on first use.
+     */
+    private final Supplier<MeterRegistry> meterRegistry;
+
+    /**
+     * Summaries of the SQL statements by repository method, registered on the first call of the method.
+     */
+    private final Map<String, DistributionSummary> statementSummaries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for class.
+     *
+     * @param layer               The layer of the observed bean.
+     * @param component           The simple name of the observed class or repository interface.
+     * @param observationRegistry The supplier of the observation registry.
+     * @param meterRegistry       The supplier of the meter registry.
+     */
+    public LayerObservationInterceptor(final Layer layer, final String component,
+                                       final Supplier<ObservationRegistry> observationRegistry,
+                                       final Supplier<MeterRegistry> meterRegistry) {
+        this.layer = layer;
+        this.component = component;
+        this.observationRegistry = observationRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Observes the call.
+     *
+     * @param invocation The method invocation.
+     * @return The result of the call, wrapped when it is a Mono or a Flux.
+     * @throws Throwable The error thrown by the call.
+     */
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String method = invocation.getMethod().getName();
+        if (invocation.getMethod().getDeclaringClass() == Object.class
+                || layer == Layer.VALIDATION && !method.startsWith(VALIDATE_PREFIX)) {
+            return invocation.proceed();
+        }
+        if (Publisher.class.isAssignableFrom(invocation.getMethod().getReturnType())) {
+            return observePublisher(invocation.proceed(), method);
+        }
+        long statementsBefore = SqlStatementCounter.current();
+        try {
+            return observation(method).observeChecked(invocation::proceed);
+        } finally {
+            if (layer == Layer.REPOSITORY) {
+                recordStatements(method, SqlStatementCounter.current() - statementsBefore);
+            }
+        }
+    }
+
+    /**
+     * Observes a Mono or a Flux from subscription to termination.
+     *
+     * @param publisher The publisher returned by the call.
+     * @param method    The method name.
+     * @return The observed publisher, or the publisher itself when it is neither a Mono nor a Flux.
+     */
+    private Object observePublisher(Object publisher, String method) {
+        Object observed = publisher;
+        if (publisher instanceof Mono<?> mono) {
+            observed = Mono.defer(() -> {
+                Observation observation = observation(method).start();
+                return mono.doOnError(observation::error).doFinally(signal -> observation.stop());
+            });
+        } else if (publisher instanceof Flux<?> flux) {
+            observed = Flux.defer(() -> {
+                Observation observation = observation(method).start();
+                return flux.doOnError(observation::error).doFinally(signal -> observation.stop());
+            });
+        }
+        return observed;
+    }
+
+    /**
+     * Records the SQL statements run by a repository call.
+     *
+     * @param method     The method name.
+     * @param statements The number of statements.
+     */
+    private void recordStatements(String method, long statements) {
+        statementSummaries.computeIfAbsent(method, name -> DistributionSummary.builder(STATEMENTS_METRIC)
+                        .description("SQL statements run per repository call")
+                        .baseUnit("statements")
+                        .tag(CLASS_KEY, component)
+                        .tag(METHOD_KEY, name)
+                        .register(meterRegistry.get()))
+                .record(statements);
+    }
+
+    /**
+     * Creates the observation of a call.
+     *
+     * @param method The method name.
+     * @return The observation, not started.
+     */
+    private Observation observation(String method) {
+        return Observation.createNotStarted(OBSERVATION_NAME, observationRegistry.get())
+                .lowCardinalityKeyValue(LAYER_KEY, layer.tagValue())
+                .lowCardinalityKeyValue(CLASS_KEY, component)
+                .lowCardinalityKeyValue(METHOD_KEY, method);
+    }
+}
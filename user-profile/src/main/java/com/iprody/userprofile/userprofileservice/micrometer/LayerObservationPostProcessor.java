@@ -0,0 +1,180 @@
+package com.iprody.userprofile.userprofileservice.micrometer;
+
+import com.iprody.userprofile.userprofileservice.mapper.UserMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the services, mappers, validator and repositories in a {@link LayerObservationInterceptor}, so the time
+ * of a request can be split between service logic, mapping, validation and SQL.
+ * Every observed call goes through one more proxy, so it is only enabled with
+ * user-profile.observability.layers.enabled=true.
+ * The proxy classes are predicted from the bean classes, so that the AOT processing generates them ahead of time for
+ * the native image, where no class can be defined at runtime.
+ */
+@Component
+@ConditionalOnProperty(name = "user-profile.observability.layers.enabled", havingValue = "true")
+public class LayerObservationPostProcessor implements SmartInstantiationAwareBeanPostProcessor {
+
+    /**
+     * Package of the MapStruct mappers, whose annotation is not retained at runtime.
+     */
+    private static final String MAPPER_PACKAGE = UserMapper.class.getPackageName();
+
+    /**
+     * Supplier of the observation registry, resolved on first use so that it is not created early.
+     */
+    private final Supplier<ObservationRegistry> observationRegistry;
+
+    /**
+     * Supplier of the meter registry, resolved on first use so that it is not created early.
+     */
+    private final Supplier<MeterRegistry> meterRegistry;
+
+    /**
+     * Constructor for class.
+     *
+     * @param observationRegistry The observation registry provider.
+     * @param meterRegistry       The meter registry provider.
+     */
+    public LayerObservationPostProcessor(final ObjectProvider<ObservationRegistry> observationRegistry,
+                                         final ObjectProvider<MeterRegistry> meterRegistry) {
+        this.observationRegistry = SingletonSupplier.of(observationRegistry::getObject);
+        this.meterRegistry = SingletonSupplier.of(meterRegistry::getObject);
+    }
+
+    /**
+     * Predicts the class of the proxy observing the beans of an observed layer.
+     *
+     * @param beanClass The class of the bean.
+     * @param beanName  The name of the bean.
+     * @return The proxy class, or the bean class when the bean is not observed through a class proxy.
+     */
+    @Override
+    public Class<?> determineBeanType(Class<?> beanClass, String beanName) {
+        Layer layer = layerOf(beanClass);
+        if (layer == null || layer == Layer.REPOSITORY) {
+            return beanClass;
+        }
+        return classProxyFactory(beanClass, layer, componentName(null, beanClass, layer))
+                .getProxyClass(beanClass.getClassLoader());
+    }
+
+    /**
+     * Adds the observation interceptor to the beans of an observed layer.
+     *
+     * @param bean     The initialized bean.
+     * @param beanName The name of the bean.
+     * @return The bean, or a proxy observing it.
+     */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        Layer layer = layerOf(targetClass);
+        if (layer == null) {
+            return bean;
+        }
+        String name = componentName(bean, targetClass, layer);
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, interceptor(layer, name));
+            return bean;
+        }
+        ProxyFactory proxyFactory;
+        if (AopUtils.isJdkDynamicProxy(bean)) {
+            proxyFactory = new ProxyFactory(bean);
+            proxyFactory.addAdvice(interceptor(layer, name));
+        } else {
+            proxyFactory = classProxyFactory(targetClass, layer, name);
+            proxyFactory.setTarget(bean);
+        }
+        return proxyFactory.getProxy(targetClass.getClassLoader());
+    }
+
+    /**
+     * Returns the factory of a class proxy, configured the same way for the predicted and the created proxy so
+     * that both share one proxy class.
+     *
+     * @param targetClass The class of the observed bean.
+     * @param layer       The layer of the bean.
+     * @param name        The name the bean is tagged with.
+     * @return The proxy factory, without target.
+     */
+    private ProxyFactory classProxyFactory(Class<?> targetClass, Layer layer, String name) {
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTargetClass(targetClass);
+        proxyFactory.setInterfaces(ClassUtils.getAllInterfacesForClass(targetClass, targetClass.getClassLoader()));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor(layer, name));
+        return proxyFactory;
+    }
+
+    /**
+     * Creates the observation interceptor of a bean.
+     *
+     * @param layer The layer of the bean.
+     * @param name  The name the bean is tagged with.
+     * @return The interceptor.
+     */
+    private LayerObservationInterceptor interceptor(Layer layer, String name) {
+        return new LayerObservationInterceptor(layer, name, observationRegistry, meterRegistry);
+    }
+
+    /**
+     * Returns the observed layer of a bean.
+     *
+     * @param targetClass The class of the bean behind its proxies.
+     * @return The layer, null when the bean is not observed.
+     */
+    private static Layer layerOf(Class<?> targetClass) {
+        Layer layer = null;
+        if (Repository.class.isAssignableFrom(targetClass)) {
+            layer = Layer.REPOSITORY;
+        } else if (AnnotatedElementUtils.hasAnnotation(targetClass, Service.class)) {
+            layer = Layer.SERVICE;
+        } else if (MAPPER_PACKAGE.equals(targetClass.getPackageName()) && targetClass.getInterfaces().length > 0) {
+            layer = Layer.MAPPING;
+        } else if (LocalValidatorFactoryBean.class.isAssignableFrom(targetClass)) {
+            layer = Layer.VALIDATION;
+        }
+        return layer;
+    }
+
+    /**
+     * Returns the name the bean is tagged with: the repository interface for repositories, the mapper interface for
+     * mappers and the class otherwise.
+     *
+     * @param bean        The bean, null when only its class is known.
+     * @param targetClass The class of the bean behind its proxies.
+     * @param layer       The layer of the bean.
+     * @return The simple name.
+     */
+    private static String componentName(Object bean, Class<?> targetClass, Layer layer) {
+        if (layer == Layer.REPOSITORY && bean instanceof Advised advised) {
+            return Arrays.stream(advised.getProxiedInterfaces())
+                    .filter(Repository.class::isAssignableFrom)
+                    .findFirst()
+                    .map(Class::getSimpleName)
+                    .orElse(targetClass.getSimpleName());
+        }
+        if (layer == Layer.MAPPING) {
+            return targetClass.getInterfaces()[0].getSimpleName();
+        }
+        return targetClass.getSimpleName();
+    }
+}
@@ -0,0 +1,129 @@
+package com.iprody.userprofile.userprofileservice.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Detects virtual threads pinned to their carrier thread, e.g. by a synchronized block or a JDBC driver lock.
+ * Streams the JFR jdk.VirtualThreadPinned event in-process, publishes it as a Micrometer timer and logs
+ * the top of the pinning stack trace.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+
+    /**
+     * Name of the JFR pinning event.
+     */
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    /**
+     * Number of stack frames written to the log.
+     */
+    private static final int LOGGED_FRAMES = 8;
+
+    /**
+     * Minimum pinning duration that is reported.
+     */
+    private final Duration threshold;
+
+    /**
+     * Timer of pinning events.
+     */
+    private final Timer pinnedTimer;
+
+    /**
+     * JFR stream, created on start.
+     */
+    private RecordingStream recordingStream;
+
+    /**
+     * Constructor for class.
+     *
+     * @param threshold     The minimum pinning duration that is reported.
+     * @param meterRegistry The Micrometer registry.
+     */
+    public VirtualThreadPinningMonitor(
+            @Value("${user-profile.virtual-threads.pinned-threshold:20ms}") final Duration threshold,
+            final MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinnedTimer = Timer.builder("user.profile.virtual.threads.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts streaming pinning events.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Virtual thread pinning monitor started with threshold {}", threshold);
+    }
+
+    /**
+     * Stops streaming pinning events.
+     */
+    @Override
+    public void destroy() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    /**
+     * Records a pinning event.
+     *
+     * @param event The JFR event.
+     */
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        if (log.isWarnEnabled()) {
+            log.warn("Virtual thread {} pinned for {} ms at {}", event.getThread() == null
+                    ? "unknown" : event.getThread().getJavaName(), event.getDuration().toMillis(), topFrames(event));
+        }
+    }
+
+    /**
+     * Formats the top frames of the event stack trace.
+     *
+     * @param event The JFR event.
+     * @return The formatted frames.
+     */
+    private String topFrames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown location";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(this::formatFrame)
+                .collect(Collectors.joining(" <- "));
+    }
+
+    /**
+     * Formats a stack frame.
+     *
+     * @param frame The frame.
+     * @return The frame as type.method:line.
+     */
+    private String formatFrame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
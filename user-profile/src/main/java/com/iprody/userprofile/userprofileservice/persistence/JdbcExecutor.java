@@ -0,0 +1,242 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import com.iprody.userprofile.userprofileservice.config.JdbcExecutorProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking JDBC work lazily on a dedicated scheduler, each call in its own transaction.
+ * Work only starts when the returned Mono is subscribed, so request-handling threads never wait on JDBC.
+ * The time a task waits for a worker is recorded separately from its execution time, which together with
+ * the Hikari pool metrics tells connection-pool starvation apart from slow SQL.
+ * There is no JDBC DataSource in the "r2dbc" profile, so there is no executor either.
+ */
+@Component
+@Profile("!r2dbc")
+public class JdbcExecutor implements DisposableBean {
+
+    /**
+     * Name of the operation tag.
+     */
+    private static final String OPERATION_TAG = "operation";
+
+    /**
+     * Idle timeout of platform worker threads in seconds.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * Scheduler the blocking work is subscribed on.
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * Concurrency limit for virtual threads, null in bounded mode.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Template for read-write transactions.
+     */
+    private final TransactionTemplate writeTemplate;
+
+    /**
+     * Template for read-only transactions.
+     */
+    private final TransactionTemplate readTemplate;
+
+    /**
+     * Registry for the per-operation timers.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Wait and execution timers by operation, registered on the first task of the operation.
+     */
+    private final Map<String, OperationTimers> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Number of subscribed tasks waiting for a worker.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * Number of tasks currently running on a worker.
+     */
+    private final AtomicInteger active = new AtomicInteger();
+
+    /**
+     * Constructor for class.
+     *
+     * @param properties         The scheduler settings.
+     * @param transactionManager The JPA transaction manager.
+     * @param meterRegistry      The Micrometer registry.
+     */
+    public JdbcExecutor(final JdbcExecutorProperties properties,
+                        final PlatformTransactionManager transactionManager,
+                        final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        ExecutorService executor;
+        if (properties.type() == JdbcExecutorProperties.SchedulerType.VIRTUAL) {
+            executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("jdbc-virtual-", 0).factory());
+            this.permits = new Semaphore(properties.maxThreads());
+        } else {
+            executor = new ThreadPoolExecutor(properties.maxThreads(), properties.maxThreads(),
+                    KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new ArrayBlockingQueue<>(properties.queueCapacity()),
+                    Thread.ofPlatform().name("jdbc-", 0).daemon(true).factory());
+            this.permits = null;
+        }
+        this.scheduler = Schedulers.fromExecutorService(executor, "jdbc");
+        Gauge.builder("user.profile.jdbc.queue.depth", pending, AtomicInteger::get)
+                .description("JDBC tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("user.profile.jdbc.workers.active", active, AtomicInteger::get)
+                .description("JDBC tasks running on a worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs blocking work in a read-write transaction.
+     *
+     * @param operation The operation name used as metric tag.
+     * @param work      The blocking work, may return null for an empty result.
+     * @param <T>       The type of the result.
+     * @return A lazy Mono with the result of the work.
+     */
+    public <T> Mono<T> execute(String operation, Supplier<T> work) {
+        return submit(operation, writeTemplate, work);
+    }
+
+    /**
+     * Runs blocking work in a read-only transaction.
+     *
+     * @param operation The operation name used as metric tag.
+     * @param work      The blocking work, may return null for an empty result.
+     * @param <T>       The type of the result.
+     * @return A lazy Mono with the result of the work.
+     */
+    public <T> Mono<T> read(String operation, Supplier<T> work) {
+        return submit(operation, readTemplate, work);
+    }
+
+    /**
+     * Disposes the scheduler on shutdown.
+     */
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    /**
+     * Wraps the work in a deferred Mono subscribed on the JDBC scheduler.
+     *
+     * @param operation The operation name used as metric tag.
+     * @param template  The transaction template to run the work in.
+     * @param work      The blocking work.
+     * @param <T>       The type of the result.
+     * @return A lazy Mono with the result of the work.
+     */
+    private <T> Mono<T> submit(String operation, TransactionTemplate template, Supplier<T> work) {
+        return Mono.defer(() -> {
+            long enqueuedAt = System.nanoTime();
+            AtomicBoolean dequeued = new AtomicBoolean();
+            pending.incrementAndGet();
+            return Mono.fromCallable(() -> run(operation, template, work, enqueuedAt, dequeued))
+                    .subscribeOn(scheduler)
+                    .doFinally(signal -> leaveQueue(dequeued));
+        });
+    }
+
+    /**
+     * Runs the work on a worker thread and records the wait and execution timers.
+     *
+     * @param operation  The operation name used as metric tag.
+     * @param template   The transaction template to run the work in.
+     * @param work       The blocking work.
+     * @param enqueuedAt The nano time the task was subscribed.
+     * @param dequeued   Whether the task already left the queue.
+     * @param <T>        The type of the result.
+     * @return The result of the work.
+     * @throws InterruptedException If the worker is interrupted while waiting for a permit.
+     */
+    private <T> T run(String operation, TransactionTemplate template, Supplier<T> work,
+                      long enqueuedAt, AtomicBoolean dequeued) throws InterruptedException {
+        if (permits != null) {
+            permits.acquire();
+        }
+        try {
+            leaveQueue(dequeued);
+            active.incrementAndGet();
+            OperationTimers operationTimers = timers.computeIfAbsent(operation, this::registerTimers);
+            operationTimers.waiting().record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            return operationTimers.execution().record(() -> template.execute(status -> work.get()));
+        } finally {
+            active.decrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Registers the timers of an operation.
+     *
+     * @param operation The operation name used as metric tag.
+     * @return The wait and execution timers.
+     */
+    private OperationTimers registerTimers(String operation) {
+        return new OperationTimers(
+                Timer.builder("user.profile.jdbc.wait")
+                        .description("Time JDBC tasks wait for a worker")
+                        .tag(OPERATION_TAG, operation)
+                        .register(meterRegistry),
+                Timer.builder("user.profile.jdbc.execution")
+                        .description("Time JDBC tasks spend running on a worker")
+                        .tag(OPERATION_TAG, operation)
+                        .register(meterRegistry));
+    }
+
+    /**
+     * Decrements the queue depth exactly once per task.
+     *
+     * @param dequeued Whether the task already left the queue.
+     */
+    private void leaveQueue(AtomicBoolean dequeued) {
+        if (dequeued.compareAndSet(false, true)) {
+            pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * The timers of one operation.
+     *
+     * @param waiting   The time tasks wait for a worker.
+     * @param execution The time tasks spend running on a worker.
+     */
+    private record OperationTimers(Timer waiting, Timer execution) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import com.iprody.userprofile.userprofileservice.event.ProfileChange;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangeOffset;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangedEvent;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.function.Function;
+
+/**
+ * Blocking JDBC implementation of {@link ProfileOutboxPersistence}.
+ * Every call is deferred to the {@link JdbcExecutor} and runs in its own transaction.
+ */
+@Component
+@Profile("!r2dbc")
+@AllArgsConstructor
+public class JpaProfileOutboxPersistence implements ProfileOutboxPersistence {
+
+    /**
+     * Column of the transaction id.
+     */
+    private static final String TX_ID_COLUMN = "tx_id";
+
+    /**
+     * Column of the change id.
+     */
+    private static final String ID_COLUMN = "id";
+
+    /**
+     * Injection of JdbcExecutor.
+     */
+    private final JdbcExecutor jdbcExecutor;
+
+    /**
+     * Injection of NamedParameterJdbcTemplate.
+     */
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Find the committed changes following an offset through one JDBC query.
+     *
+     * @param after The offset to start after.
+     * @param limit The maximum number of changes.
+     * @return The changes in feed order.
+     */
+    @Override
+    public Flux<ProfileChange> findAfter(ProfileChangeOffset after, int limit) {
+        var parameters = new MapSqlParameterSource()
+                .addValue(ProfileOutboxQuery.TX_ID, after.txId())
+                .addValue(ProfileOutboxQuery.ID, after.id())
+                .addValue(ProfileOutboxQuery.LIMIT, limit);
+        return jdbcExecutor.read("outbox.findAfter", () -> jdbcTemplate.query(ProfileOutboxQuery.FIND_AFTER,
+                        parameters, (resultSet, rowNumber) -> toChange(resultSet)))
+                .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Find the offset of the last committed change through one JDBC query.
+     *
+     * @return The offset of the last change in feed order, or an empty Mono if there is none.
+     */
+    @Override
+    public Mono<ProfileChangeOffset> findLast() {
+        return jdbcExecutor.read("outbox.findLast", () -> jdbcTemplate.query(ProfileOutboxQuery.FIND_LAST,
+                        (resultSet, rowNumber) -> new ProfileChangeOffset(resultSet.getLong(TX_ID_COLUMN),
+                                resultSet.getLong(ID_COLUMN)))
+                .stream().findFirst().orElse(null));
+    }
+
+    /**
+     * Deletes the changes up to an offset created before a time through one JDBC statement.
+     *
+     * @param upTo          The offset of the last change that may be deleted.
+     * @param createdBefore The time before which the deleted changes were created.
+     * @return The number of deleted changes.
+     */
+    @Override
+    public Mono<Long> deleteUpTo(ProfileChangeOffset upTo, Instant createdBefore) {
+        var parameters = new MapSqlParameterSource()
+                .addValue(ProfileOutboxQuery.TX_ID, upTo.txId())
+                .addValue(ProfileOutboxQuery.ID, upTo.id())
+                .addValue(ProfileOutboxQuery.CREATED_BEFORE, createdBefore.atOffset(ZoneOffset.UTC));
+        return jdbcExecutor.execute("outbox.deleteUpTo",
+                () -> (long) jdbcTemplate.update(ProfileOutboxQuery.DELETE_UP_TO, parameters));
+    }
+
+    /**
+     * Maps the current row of the outbox query.
+     *
+     * @param resultSet The result set.
+     * @return The change.
+     * @throws SQLException If a column can not be read.
+     */
+    private static ProfileChange toChange(ResultSet resultSet) throws SQLException {
+        return new ProfileChange(
+                new ProfileChangeOffset(resultSet.getLong(TX_ID_COLUMN), resultSet.getLong(ID_COLUMN)),
+                ProfileChangedEvent.Type.valueOf(resultSet.getString("aggregate_type")),
+                ProfileChange.Operation.valueOf(resultSet.getString("operation")),
+                resultSet.getLong("aggregate_id"),
+                resultSet.getObject("user_id", Long.class),
+                resultSet.getLong("version"),
+                resultSet.getString("payload"),
+                resultSet.getObject("created_at", OffsetDateTime.class).toInstant());
+    }
+}
@@ -0,0 +1,164 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import com.iprody.userprofile.userprofileservice.entity.User;
+import com.iprody.userprofile.userprofileservice.entity.UserContact;
+import com.iprody.userprofile.userprofileservice.repository.UserContactRepository;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Blocking JPA implementation of {@link UserContactPersistence}.
+ * Every call is deferred to the {@link JdbcExecutor} and runs in its own transaction.
+ */
+@Component
+@Profile("!r2dbc")
+@AllArgsConstructor
+public class JpaUserContactPersistence implements UserContactPersistence {
+
+    /**
+     * Injection of UserContactRepository.
+     */
+    private final UserContactRepository userContactRepository;
+
+    /**
+     * Injection of the shared EntityManager, bound to the transaction of the call.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Injection of JdbcExecutor.
+     */
+    private final JdbcExecutor jdbcExecutor;
+
+    /**
+     * Saves a user contact through JPA.
+     * A user carrying only its id, as mapped from a DTO, is replaced by a reference of the persistence context, so
+     * that Hibernate neither loads it nor mistakes it for a detached user without a version.
+     *
+     * @param userContact The user contact object to be saved.
+     * @return The saved user contact object.
+     */
+    @Override
+    public Mono<UserContact> save(UserContact userContact) {
+        return jdbcExecutor.execute("userContact.save", () -> {
+            if (userContact.getUser() != null && userContact.getUser().getVersion() == null) {
+                userContact.setUser(entityManager.getReference(User.class, userContact.getUser().getId()));
+            }
+            return userContactRepository.save(userContact);
+        });
+    }
+
+    /**
+     * Find a user contact by id through JPA.
+     *
+     * @param id The id of user contact object to be found.
+     * @return The found user contact object or an empty Mono.
+     */
+    @Override
+    public Mono<UserContact> findById(Long id) {
+        return jdbcExecutor.read("userContact.findById", () -> userContactRepository.findById(id).orElse(null));
+    }
+
+    /**
+     * Find all user contacts with the given ids through one JPA IN query.
+     *
+     * @param ids The ids of user contact objects to be found.
+     * @return The found user contact objects.
+     */
+    @Override
+    public Flux<UserContact> findAllById(Collection<Long> ids) {
+        return jdbcExecutor.read("userContact.findAllById", () -> userContactRepository.findAllById(ids))
+                .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Find a user contact by user id with its user through one JPA query.
+     *
+     * @param userId The user id of user contact object to be found.
+     * @return The found user contact object or an empty Mono.
+     */
+    @Override
+    public Mono<UserContact> findByUserId(Long userId) {
+        return jdbcExecutor.read("userContact.findByUserId",
+                () -> userContactRepository.findByUserId(userId).orElse(null));
+    }
+
+    /**
+     * Applies changes to a managed user contact and saves it through JPA.
+     *
+     * @param id      The id of user contact object to be updated.
+     * @param changes The changes to apply to the loaded user contact.
+     * @return The updated user contact object or an empty Mono if the user contact does not exist.
+     */
+    @Override
+    public Mono<UserContact> update(Long id, Consumer<UserContact> changes) {
+        return jdbcExecutor.execute("userContact.update", () -> userContactRepository.findById(id)
+                .map(existingUserContact -> {
+                    changes.accept(existingUserContact);
+                    return userContactRepository.save(existingUserContact);
+                })
+                .orElse(null));
+    }
+
+    /**
+     * Applies changes to user contacts loaded with one JPA query and saves them in one transaction.
+     * The changed rows are flushed as JDBC batches at commit.
+     *
+     * @param changes The changes to apply by user contact id.
+     * @return The updated user contact objects, ids that do not exist are absent.
+     */
+    @Override
+    public Flux<UserContact> updateAll(Map<Long, Consumer<UserContact>> changes) {
+        return jdbcExecutor.execute("userContact.updateAll", () -> {
+                    List<UserContact> found = new ArrayList<>();
+                    for (UserContact userContact : userContactRepository.findAllById(changes.keySet())) {
+                        changes.get(userContact.getId()).accept(userContact);
+                        found.add(userContact);
+                    }
+                    return userContactRepository.saveAll(found);
+                })
+                .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Overwrites a user contact with one native UPDATE ... RETURNING statement.
+     * The user of the returned user contact is an uninitialized reference carrying its id.
+     *
+     * @param id      The id of user contact object to be updated.
+     * @param version The expected version.
+     * @param values  The new column values.
+     * @return The updated user contact object or an empty Mono if it does not exist or has another version.
+     */
+    @Override
+    public Mono<UserContact> updateIfVersion(Long id, long version, UserContact values) {
+        return jdbcExecutor.execute("userContact.updateIfVersion", () -> userContactRepository.updateIfVersion(id,
+                version, values.getTelegramId(), values.getMobilePhone()).orElse(null));
+    }
+
+    /**
+     * Sets only the given columns of a user contact with one native UPDATE ... RETURNING statement.
+     * The user of the returned user contact is an uninitialized reference carrying its id.
+     *
+     * @param id              The id of user contact object to be updated.
+     * @param expectedVersion The expected version, null to update any version.
+     * @param changes         The new values by attribute, at least one; null clears the column.
+     * @return The updated user contact object or an empty Mono if it does not exist or has another version.
+     */
+    @Override
+    public Mono<UserContact> patch(Long id, Long expectedVersion, Map<String, String> changes) {
+        return jdbcExecutor.execute("userContact.patch", () -> PatchStatement.USER_CONTACTS
+                .execute(entityManager, UserContact.class, id, expectedVersion, changes)
+                .orElse(null));
+    }
+}
@@ -0,0 +1,160 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import com.iprody.userprofile.userprofileservice.entity.User;
+import com.iprody.userprofile.userprofileservice.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Blocking JPA implementation of {@link UserPersistence}.
+ * Every call is deferred to the {@link JdbcExecutor} and runs in its own transaction.
+ */
+@Component
+@Profile("!r2dbc")
+@AllArgsConstructor
+public class JpaUserPersistence implements UserPersistence {
+
+    /**
+     * Injection of UserRepository.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * Injection of JdbcExecutor.
+     */
+    private final JdbcExecutor jdbcExecutor;
+
+    /**
+     * Injection of the shared EntityManager, bound to the transaction of the call.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Saves a user through JPA.
+     *
+     * @param user The user object to be saved.
+     * @return The saved user object.
+     */
+    @Override
+    public Mono<User> save(User user) {
+        return jdbcExecutor.execute("user.save", () -> userRepository.save(user));
+    }
+
+    /**
+     * Saves several users through JPA in one transaction.
+     * The ids come from the pooled sequence, so the inserts are sent as JDBC batches.
+     *
+     * @param users The user objects to be saved.
+     * @return The saved user objects.
+     */
+    @Override
+    public Flux<User> saveAll(List<User> users) {
+        return jdbcExecutor.execute("user.saveAll", () -> userRepository.saveAll(users))
+                .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Find a user by id through JPA.
+     *
+     * @param id The id of user object to be found.
+     * @return The found user object or an empty Mono.
+     */
+    @Override
+    public Mono<User> findById(Long id) {
+        return jdbcExecutor.read("user.findById", () -> userRepository.findById(id).orElse(null));
+    }
+
+    /**
+     * Find a user by email through one JPA index probe.
+     *
+     * @param email The email of user object to be found.
+     * @return The found user object or an empty Mono.
+     */
+    @Override
+    public Mono<User> findByEmail(String email) {
+        return jdbcExecutor.read("user.findByEmail", () -> userRepository.findByEmailIgnoreCase(email).orElse(null));
+    }
+
+    /**
+     * Find all users with the given ids through one JPA IN query.
+     *
+     * @param ids The ids of user objects to be found.
+     * @return The found user objects.
+     */
+    @Override
+    public Flux<User> findAllById(Collection<Long> ids) {
+        return jdbcExecutor.read("user.findAllById", () -> userRepository.findAllById(ids))
+                .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Find the users following an id through one JPA keyset query.
+     *
+     * @param afterId The id to start after, 0 for the first page.
+     * @param limit   The maximum number of users.
+     * @return The users of the page with their user contacts.
+     */
+    @Override
+    public Flux<User> findPage(long afterId, int limit) {
+        return jdbcExecutor.read("user.findPage",
+                        () -> userRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit)))
+                .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Applies changes to a managed user and saves it through JPA.
+     *
+     * @param id      The id of user object to be updated.
+     * @param changes The changes to apply to the loaded user.
+     * @return The updated user object or an empty Mono if the user does not exist.
+     */
+    @Override
+    public Mono<User> update(Long id, Consumer<User> changes) {
+        return jdbcExecutor.execute("user.update", () -> userRepository.findById(id)
+                .map(existingUser -> {
+                    changes.accept(existingUser);
+                    return userRepository.save(existingUser);
+                })
+                .orElse(null));
+    }
+
+    /**
+     * Overwrites a user with one native UPDATE ... RETURNING statement.
+     *
+     * @param id      The id of user object to be updated.
+     * @param version The expected version.
+     * @param values  The new column values.
+     * @return The updated user object or an empty Mono if the user does not exist or has another version.
+     */
+    @Override
+    public Mono<User> updateIfVersion(Long id, long version, User values) {
+        return jdbcExecutor.execute("user.updateIfVersion", () -> userRepository.updateIfVersion(id, version,
+                values.getFirstName(), values.getLastName(), values.getEmail()).orElse(null));
+    }
+
+    /**
+     * Sets only the given columns of a user with one native UPDATE ... RETURNING statement.
+     *
+     * @param id              The id of user object to be updated.
+     * @param expectedVersion The expected version, null to update any version.
+     * @param changes         The new values by attribute, at least one; null clears the column.
+     * @return The updated user object or an empty Mono if it does not exist or has another version.
+     */
+    @Override
+    public Mono<User> patch(Long id, Long expectedVersion, Map<String, String> changes) {
+        return jdbcExecutor.execute("user.patch", () -> PatchStatement.USERS
+                .execute(entityManager, User.class, id, expectedVersion, changes)
+                .orElse(null));
+    }
+}
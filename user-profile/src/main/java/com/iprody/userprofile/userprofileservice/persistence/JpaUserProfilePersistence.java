@@ -0,0 +1,67 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import com.iprody.userprofile.userprofileservice.entity.UserProfile;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Blocking JDBC implementation of {@link UserProfilePersistence}.
+ * Every call is deferred to the {@link JdbcExecutor} and runs in its own transaction.
+ */
+@Component
+@Profile("!r2dbc")
+@AllArgsConstructor
+public class JpaUserProfilePersistence implements UserProfilePersistence {
+
+    /**
+     * Injection of JdbcExecutor.
+     */
+    private final JdbcExecutor jdbcExecutor;
+
+    /**
+     * Injection of NamedParameterJdbcTemplate.
+     */
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Find the profile of a user through one JDBC query.
+     *
+     * @param userId The id of the user.
+     * @return The profile, or an empty Mono if the user does not exist.
+     */
+    @Override
+    public Mono<UserProfile> findByUserId(Long userId) {
+        var parameters = new MapSqlParameterSource(UserProfileQuery.USER_ID, userId);
+        return jdbcExecutor.read("userProfile.findByUserId", () -> jdbcTemplate.query(
+                        UserProfileQuery.FIND_BY_USER_ID, parameters, (resultSet, rowNumber) -> toProfile(resultSet))
+                .stream().findFirst().orElse(null));
+    }
+
+    /**
+     * Maps the current row of the profile query.
+     *
+     * @param resultSet The result set.
+     * @return The profile.
+     * @throws SQLException If a column can not be read.
+     */
+    private static UserProfile toProfile(ResultSet resultSet) throws SQLException {
+        return UserProfile.builder()
+                .userId(resultSet.getLong("user_id"))
+                .firstName(resultSet.getString("first_name"))
+                .lastName(resultSet.getString("last_name"))
+                .email(resultSet.getString("email"))
+                .userVersion(resultSet.getLong("user_version"))
+                .contactId(resultSet.getObject("contact_id", Long.class))
+                .telegramId(resultSet.getString("telegram_id"))
+                .mobilePhone(resultSet.getString("mobile_phone"))
+                .contactVersion(resultSet.getObject("contact_version", Long.class))
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Single-statement partial update of a versioned table, shared by the JPA and the R2DBC persistence.
+ * Only the supplied columns are set and the version is incremented, optionally only if the row still has the
+ * expected version; the updated row is returned, so the row is never read before it is written.
+ * Every value is bound as a named parameter called like its attribute, next to {@link #ID} and {@link #VERSION}.
+ */
+final class PatchStatement {
+
+    /**
+     * Name of the id parameter.
+     */
+    static final String ID = "id";
+
+    /**
+     * Name of the expected version parameter.
+     */
+    static final String VERSION = "version";
+
+    /**
+     * Name of the email attribute, stored in the email column.
+     */
+    static final String EMAIL = "email";
+
+    /**
+     * Partial update of the users table.
+     */
+    static final PatchStatement USERS = new PatchStatement("users",
+            Map.of("firstName", "first_name", "lastName", "last_name", EMAIL, EMAIL));
+
+    /**
+     * Partial update of the user_contact table.
+     */
+    static final PatchStatement USER_CONTACTS = new PatchStatement("user_contact",
+            Map.of("telegramId", "telegram_id", "mobilePhone", "mobile_phone"));
+
+    /**
+     * The table to update.
+     */
+    private final String table;
+
+    /**
+     * The column of every patchable attribute.
+     */
+    private final Map<String, String> columns;
+
+    /**
+     * Constructor for class.
+     *
+     * @param table   The table to update.
+     * @param columns The column of every patchable attribute.
+     */
+    private PatchStatement(final String table, final Map<String, String> columns) {
+        this.table = table;
+        this.columns = columns;
+    }
+
+    /**
+     * Builds the UPDATE ... RETURNING statement setting the changed attributes.
+     *
+     * @param changes         The new values by attribute, at least one.
+     * @param expectedVersion The expected version, null to update any version.
+     * @return The SQL with named parameters.
+     * @throws IllegalArgumentException when an attribute is not patchable.
+     */
+    String sql(Map<String, String> changes, Long expectedVersion) {
+        StringJoiner set = new StringJoiner(", ", "UPDATE " + table + " SET ", ", version = version + 1");
+        for (String attribute : changes.keySet()) {
+            String column = columns.get(attribute);
+            if (column == null) {
+                throw new IllegalArgumentException(attribute + " of " + table + " can not be patched");
+            }
+            set.add(column + " = :" + attribute);
+        }
+        return set + " WHERE id = :" + ID + (expectedVersion == null ? "" : " AND version = :" + VERSION)
+                + " RETURNING *";
+    }
+
+    /**
+     * Runs the statement through JPA, in the transaction of the entity manager.
+     *
+     * @param <T>             The entity type.
+     * @param entityManager   The entity manager.
+     * @param entityType      The entity the returned row is mapped to.
+     * @param id              The id of the row.
+     * @param expectedVersion The expected version, null to update any version.
+     * @param changes         The new values by attribute, at least one.
+     * @return The updated entity, empty if the row does not exist or has another version.
+     */
+    <T> Optional<T> execute(EntityManager entityManager, Class<T> entityType, Long id, Long expectedVersion,
+                            Map<String, String> changes) {
+        NativeQuery<T> query = entityManager.unwrap(Session.class)
+                .createNativeQuery(sql(changes, expectedVersion), entityType)
+                .setParameter(ID, id);
+        if (expectedVersion != null) {
+            query.setParameter(VERSION, expectedVersion);
+        }
+        changes.forEach((attribute, value) -> query.setParameter(attribute, value, String.class));
+        return query.uniqueResultOptional();
+    }
+
+    /**
+     * Runs the statement through R2DBC.
+     *
+     * @param <T>             The row type.
+     * @param template        The R2DBC entity template.
+     * @param rowType         The row the returned row is mapped to.
+     * @param id              The id of the row.
+     * @param expectedVersion The expected version, null to update any version.
+     * @param changes         The new values by attribute, at least one.
+     * @return The updated row, empty if the row does not exist or has another version.
+     */
+    <T> Mono<T> execute(R2dbcEntityTemplate template, Class<T> rowType, Long id, Long expectedVersion,
+                        Map<String, String> changes) {
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient()
+                .sql(sql(changes, expectedVersion))
+                .bind(ID, id);
+        if (expectedVersion != null) {
+            spec = spec.bind(VERSION, expectedVersion);
+        }
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            spec = change.getValue() == null
+                    ? spec.bindNull(change.getKey(), String.class)
+                    : spec.bind(change.getKey(), change.getValue());
+        }
+        return spec.map((row, metadata) -> template.getConverter().read(rowType, row, metadata)).one();
+    }
+}
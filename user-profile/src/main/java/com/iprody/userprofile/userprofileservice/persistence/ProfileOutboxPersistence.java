@@ -0,0 +1,43 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import com.iprody.userprofile.userprofileservice.event.ProfileChange;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangeOffset;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Persistence port for the transactional outbox of profile changes, filled by database triggers.
+ * The implementation is selected by profile: JPA by default, R2DBC with the "r2dbc" profile.
+ */
+public interface ProfileOutboxPersistence {
+
+    /**
+     * Find the committed changes following an offset in feed order.
+     * Changes of transactions that are still running, or that started after one still running, are left out until
+     * they can no longer be preceded by a later commit.
+     *
+     * @param after The offset to start after.
+     * @param limit The maximum number of changes.
+     * @return The changes in feed order.
+     */
+    Flux<ProfileChange> findAfter(ProfileChangeOffset after, int limit);
+
+    /**
+     * Find the offset of the last committed change, the offset to follow the changes from now on.
+     *
+     * @return The offset of the last change in feed order, or an empty Mono if there is none.
+     */
+    Mono<ProfileChangeOffset> findLast();
+
+    /**
+     * Deletes the changes up to an offset that were created before a time.
+     * Changes that are not yet visible in feed order are kept.
+     *
+     * @param upTo          The offset of the last change that may be deleted.
+     * @param createdBefore The time before which the deleted changes were created.
+     * @return The number of deleted changes.
+     */
+    Mono<Long> deleteUpTo(ProfileChangeOffset upTo, Instant createdBefore);
+}
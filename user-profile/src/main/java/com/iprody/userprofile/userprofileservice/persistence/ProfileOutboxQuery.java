@@ -0,0 +1,67 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+/**
+ * Query of the profile outbox shared by the JPA and the R2DBC persistence.
+ * The changes are read in (tx_id, id) order, only from transactions older than the oldest running one: such a
+ * transaction has ended, so no change can be committed anymore before the last one read.
+ */
+final class ProfileOutboxQuery {
+
+    /**
+     * Name of the transaction id parameter of the offset.
+     */
+    static final String TX_ID = "txId";
+
+    /**
+     * Name of the change id parameter of the offset.
+     */
+    static final String ID = "id";
+
+    /**
+     * Name of the limit parameter.
+     */
+    static final String LIMIT = "limit";
+
+    /**
+     * Name of the creation time parameter.
+     */
+    static final String CREATED_BEFORE = "createdBefore";
+
+    /**
+     * The changes following an offset, with named parameters.
+     */
+    static final String FIND_AFTER = """
+            SELECT id, tx_id, aggregate_type, aggregate_id, user_id, operation, version, payload::text AS payload,
+                   created_at
+            FROM profile_outbox
+            WHERE (tx_id, id) > (:txId, :id)
+              AND tx_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+            ORDER BY tx_id, id
+            LIMIT :limit""";
+
+    /**
+     * The offset of the last change visible in feed order.
+     */
+    static final String FIND_LAST = """
+            SELECT tx_id, id
+            FROM profile_outbox
+            WHERE tx_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+            ORDER BY tx_id DESC, id DESC
+            LIMIT 1""";
+
+    /**
+     * Deletes the visible changes up to an offset created before a time, with named parameters.
+     */
+    static final String DELETE_UP_TO = """
+            DELETE
+            FROM profile_outbox
+            WHERE (tx_id, id) <= (:txId, :id)
+              AND tx_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+              AND created_at < :createdBefore""";
+
+    /**
+     * Utility class, not instantiated.
+     */
+    private ProfileOutboxQuery() {
+    }
+}
@@ -0,0 +1,104 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import com.iprody.userprofile.userprofileservice.event.ProfileChange;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangeOffset;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangedEvent;
+import io.r2dbc.spi.Readable;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Non-blocking R2DBC implementation of {@link ProfileOutboxPersistence}.
+ */
+@Component
+@Profile("r2dbc")
+@AllArgsConstructor
+public class R2dbcProfileOutboxPersistence implements ProfileOutboxPersistence {
+
+    /**
+     * Injection of DatabaseClient.
+     */
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Find the committed changes following an offset through one R2DBC query.
+     *
+     * @param after The offset to start after.
+     * @param limit The maximum number of changes.
+     * @return The changes in feed order.
+     */
+    @Override
+    public Flux<ProfileChange> findAfter(ProfileChangeOffset after, int limit) {
+        return databaseClient.sql(ProfileOutboxQuery.FIND_AFTER)
+                .bind(ProfileOutboxQuery.TX_ID, after.txId())
+                .bind(ProfileOutboxQuery.ID, after.id())
+                .bind(ProfileOutboxQuery.LIMIT, limit)
+                .map(R2dbcProfileOutboxPersistence::toChange)
+                .all();
+    }
+
+    /**
+     * Find the offset of the last committed change through one R2DBC query.
+     *
+     * @return The offset of the last change in feed order, or an empty Mono if there is none.
+     */
+    @Override
+    public Mono<ProfileChangeOffset> findLast() {
+        return databaseClient.sql(ProfileOutboxQuery.FIND_LAST)
+                .map(R2dbcProfileOutboxPersistence::toOffset)
+                .first();
+    }
+
+    /**
+     * Deletes the changes up to an offset created before a time through one R2DBC statement.
+     *
+     * @param upTo          The offset of the last change that may be deleted.
+     * @param createdBefore The time before which the deleted changes were created.
+     * @return The number of deleted changes.
+     */
+    @Override
+    public Mono<Long> deleteUpTo(ProfileChangeOffset upTo, Instant createdBefore) {
+        return databaseClient.sql(ProfileOutboxQuery.DELETE_UP_TO)
+                .bind(ProfileOutboxQuery.TX_ID, upTo.txId())
+                .bind(ProfileOutboxQuery.ID, upTo.id())
+                .bind(ProfileOutboxQuery.CREATED_BEFORE, createdBefore.atOffset(ZoneOffset.UTC))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Maps the offset columns of a row.
+     *
+     * @param row The row.
+     * @return The offset.
+     */
+    private static ProfileChangeOffset toOffset(Readable row) {
+        return new ProfileChangeOffset(row.get("tx_id", Long.class), row.get("id", Long.class));
+    }
+
+    /**
+     * Maps a row of the outbox query.
+     *
+     * @param row The row.
+     * @return The change.
+     */
+    private static ProfileChange toChange(Readable row) {
+        return new ProfileChange(
+                toOffset(row),
+                ProfileChangedEvent.Type.valueOf(row.get("aggregate_type", String.class)),
+                ProfileChange.Operation.valueOf(row.get("operation", String.class)),
+                row.get("aggregate_id", Long.class),
+                row.get("user_id", Long.class),
+                row.get("version", Long.class),
+                row.get("payload", String.class),
+                row.get("created_at", OffsetDateTime.class).toInstant());
+    }
+}
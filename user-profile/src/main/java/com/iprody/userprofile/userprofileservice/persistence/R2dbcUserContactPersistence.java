@@ -0,0 +1,236 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import com.iprody.userprofile.userprofileservice.entity.User;
+import com.iprody.userprofile.userprofileservice.entity.UserContact;
+import com.iprody.userprofile.userprofileservice.entity.UserContactRow;
+import com.iprody.userprofile.userprofileservice.entity.UserRow;
+import com.iprody.userprofile.userprofileservice.repository.UserContactRowRepository;
+import com.iprody.userprofile.userprofileservice.repository.UserRowRepository;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking R2DBC implementation of {@link UserContactPersistence}.
+ * Bean validation is applied explicitly because there is no JPA lifecycle on this path.
+ */
+@Component
+@Profile("r2dbc")
+@AllArgsConstructor
+public class R2dbcUserContactPersistence implements UserContactPersistence {
+
+    /**
+     * Injection of UserContactRowRepository.
+     */
+    private final UserContactRowRepository userContactRowRepository;
+
+    /**
+     * Injection of UserRowRepository.
+     */
+    private final UserRowRepository userRowRepository;
+
+    /**
+     * Injection of TransactionalOperator backed by the R2DBC transaction manager.
+     */
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * Injection of R2dbcEntityTemplate, running the statements built at runtime.
+     */
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+
+    /**
+     * Injection of the bean validator.
+     */
+    private final Validator validator;
+
+    /**
+     * Validates and saves a user contact through R2DBC.
+     *
+     * @param userContact The user contact object to be saved.
+     * @return The saved user contact object.
+     */
+    @Override
+    public Mono<UserContact> save(UserContact userContact) {
+        return validate(userContact)
+                .flatMap(valid -> userContactRowRepository.save(UserContactRow.from(valid)))
+                .map(row -> row.toUserContact(userContact.getUser()))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Find a user contact by id through R2DBC.
+     *
+     * @param id The id of user contact object to be found.
+     * @return The found user contact object or an empty Mono.
+     */
+    @Override
+    public Mono<UserContact> findById(Long id) {
+        return userContactRowRepository.findById(id).flatMap(this::withUser);
+    }
+
+    /**
+     * Find all user contacts with the given ids through R2DBC.
+     * The contacts and their users are read with one IN query each instead of a user lookup per contact.
+     *
+     * @param ids The ids of user contact objects to be found.
+     * @return The found user contact objects.
+     */
+    @Override
+    public Flux<UserContact> findAllById(Collection<Long> ids) {
+        return userContactRowRepository.findAllById(ids)
+                .collectList()
+                .flatMapMany(this::withUsers);
+    }
+
+    /**
+     * Find a user contact by user id through R2DBC.
+     *
+     * @param userId The user id of user contact object to be found.
+     * @return The found user contact object or an empty Mono.
+     */
+    @Override
+    public Mono<UserContact> findByUserId(Long userId) {
+        return userContactRowRepository.findByUserId(userId).flatMap(this::withUser);
+    }
+
+    /**
+     * Applies changes to a loaded user contact, validates and saves it through R2DBC.
+     *
+     * @param id      The id of user contact object to be updated.
+     * @param changes The changes to apply to the loaded user contact.
+     * @return The updated user contact object or an empty Mono if the user contact does not exist.
+     */
+    @Override
+    public Mono<UserContact> update(Long id, Consumer<UserContact> changes) {
+        return userContactRowRepository.findById(id)
+                .flatMap(this::withUser)
+                .doOnNext(changes)
+                .flatMap(this::validate)
+                .flatMap(userContact -> userContactRowRepository.save(UserContactRow.from(userContact))
+                        .map(row -> row.toUserContact(userContact.getUser())))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Applies changes to user contacts loaded with one R2DBC query each for contacts and users, validates and saves
+     * them in one transaction.
+     *
+     * @param changes The changes to apply by user contact id.
+     * @return The updated user contact objects, ids that do not exist are absent.
+     */
+    @Override
+    public Flux<UserContact> updateAll(Map<Long, Consumer<UserContact>> changes) {
+        return userContactRowRepository.findAllById(changes.keySet())
+                .collectList()
+                .flatMapMany(this::withUsers)
+                .doOnNext(userContact -> changes.get(userContact.getId()).accept(userContact))
+                .concatMap(this::validate)
+                .concatMap(userContact -> userContactRowRepository.save(UserContactRow.from(userContact))
+                        .map(row -> row.toUserContact(userContact.getUser())))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Validates the values and overwrites a user contact with one R2DBC UPDATE ... RETURNING statement.
+     * The user of the returned user contact is a reference carrying its id.
+     *
+     * @param id      The id of user contact object to be updated.
+     * @param version The expected version.
+     * @param values  The new column values.
+     * @return The updated user contact object or an empty Mono if it does not exist or has another version.
+     */
+    @Override
+    public Mono<UserContact> updateIfVersion(Long id, long version, UserContact values) {
+        return validate(values)
+                .flatMap(valid -> userContactRowRepository.updateIfVersion(id, version, valid.getTelegramId(),
+                        valid.getMobilePhone()))
+                .map(R2dbcUserContactPersistence::withUserReference);
+    }
+
+    /**
+     * Sets only the given columns of a user contact with one R2DBC UPDATE ... RETURNING statement.
+     * The values are validated by the caller; the user of the returned user contact is a reference carrying its id.
+     *
+     * @param id              The id of user contact object to be updated.
+     * @param expectedVersion The expected version, null to update any version.
+     * @param changes         The new values by attribute, at least one; null clears the column.
+     * @return The updated user contact object or an empty Mono if it does not exist or has another version.
+     */
+    @Override
+    public Mono<UserContact> patch(Long id, Long expectedVersion, Map<String, String> changes) {
+        return PatchStatement.USER_CONTACTS
+                .execute(r2dbcEntityTemplate, UserContactRow.class, id, expectedVersion, changes)
+                .map(R2dbcUserContactPersistence::withUserReference);
+    }
+
+    /**
+     * Assembles the user contact entity with a reference to its user carrying only the id.
+     *
+     * @param row The user contact row.
+     * @return The user contact entity.
+     */
+    private static UserContact withUserReference(UserContactRow row) {
+        return row.toUserContact(row.getUserId() == null ? null : User.builder().id(row.getUserId()).build());
+    }
+
+    /**
+     * Loads the user referenced by the row and assembles the user contact entity.
+     *
+     * @param row The user contact row.
+     * @return The user contact entity with its user.
+     */
+    private Mono<UserContact> withUser(UserContactRow row) {
+        if (row.getUserId() == null) {
+            return Mono.just(row.toUserContact(null));
+        }
+        return userRowRepository.findById(row.getUserId())
+                .map(userRow -> row.toUserContact(userRow.toUser()))
+                .defaultIfEmpty(row.toUserContact(null));
+    }
+
+    /**
+     * Loads the users referenced by the rows in one query and assembles the user contact entities.
+     *
+     * @param rows The user contact rows.
+     * @return The user contact entities with their users.
+     */
+    private Flux<UserContact> withUsers(List<UserContactRow> rows) {
+        var userIds = rows.stream()
+                .map(UserContactRow::getUserId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        return userRowRepository.findAllById(userIds)
+                .collectMap(UserRow::getId, UserRow::toUser)
+                .flatMapIterable(users -> rows.stream()
+                        .map(row -> row.toUserContact(users.get(row.getUserId())))
+                        .toList());
+    }
+
+    /**
+     * Validates the user contact against its bean validation constraints.
+     *
+     * @param userContact The user contact to validate.
+     * @return The same user contact or an error with the constraint violations.
+     */
+    private Mono<UserContact> validate(UserContact userContact) {
+        var violations = validator.validate(userContact);
+        if (!violations.isEmpty()) {
+            return Mono.error(new ConstraintViolationException(violations));
+        }
+        return Mono.just(userContact);
+    }
+}
@@ -0,0 +1,158 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import com.iprody.userprofile.userprofileservice.entity.User;
+import com.iprody.userprofile.userprofileservice.entity.UserRow;
+import com.iprody.userprofile.userprofileservice.repository.UserRowRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking R2DBC implementation of {@link UserPersistence}.
+ */
+@Component
+@Profile("r2dbc")
+@AllArgsConstructor
+public class R2dbcUserPersistence implements UserPersistence {
+
+    /**
+     * Injection of UserRowRepository.
+     */
+    private final UserRowRepository userRowRepository;
+
+    /**
+     * Injection of TransactionalOperator backed by the R2DBC transaction manager.
+     */
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * Injection of R2dbcEntityTemplate, running the statements built at runtime.
+     */
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+
+    /**
+     * Saves a user through R2DBC.
+     *
+     * @param user The user object to be saved.
+     * @return The saved user object.
+     */
+    @Override
+    public Mono<User> save(User user) {
+        return userRowRepository.save(UserRow.from(user))
+                .map(UserRow::toUser)
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Saves several users through R2DBC in one transaction.
+     *
+     * @param users The user objects to be saved.
+     * @return The saved user objects.
+     */
+    @Override
+    public Flux<User> saveAll(List<User> users) {
+        return userRowRepository.saveAll(users.stream().map(UserRow::from).toList())
+                .map(UserRow::toUser)
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Find a user by id through R2DBC.
+     *
+     * @param id The id of user object to be found.
+     * @return The found user object or an empty Mono.
+     */
+    @Override
+    public Mono<User> findById(Long id) {
+        return userRowRepository.findById(id).map(UserRow::toUser);
+    }
+
+    /**
+     * Find a user by email through one R2DBC index probe.
+     *
+     * @param email The email of user object to be found.
+     * @return The found user object or an empty Mono.
+     */
+    @Override
+    public Mono<User> findByEmail(String email) {
+        return userRowRepository.findByEmailIgnoreCase(email).map(UserRow::toUser);
+    }
+
+    /**
+     * Find all users with the given ids through one R2DBC IN query.
+     *
+     * @param ids The ids of user objects to be found.
+     * @return The found user objects.
+     */
+    @Override
+    public Flux<User> findAllById(Collection<Long> ids) {
+        return userRowRepository.findAllById(ids).map(UserRow::toUser);
+    }
+
+    /**
+     * Find the users following an id through one R2DBC keyset query.
+     *
+     * @param afterId The id to start after, 0 for the first page.
+     * @param limit   The maximum number of users.
+     * @return The users of the page.
+     */
+    @Override
+    public Flux<User> findPage(long afterId, int limit) {
+        return userRowRepository.findPage(afterId, limit).map(UserRow::toUser);
+    }
+
+    /**
+     * Applies changes to a loaded user and saves it through R2DBC.
+     *
+     * @param id      The id of user object to be updated.
+     * @param changes The changes to apply to the loaded user.
+     * @return The updated user object or an empty Mono if the user does not exist.
+     */
+    @Override
+    public Mono<User> update(Long id, Consumer<User> changes) {
+        return userRowRepository.findById(id)
+                .map(UserRow::toUser)
+                .doOnNext(changes)
+                .flatMap(user -> userRowRepository.save(UserRow.from(user)))
+                .map(UserRow::toUser)
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Overwrites a user with one R2DBC UPDATE ... RETURNING statement.
+     *
+     * @param id      The id of user object to be updated.
+     * @param version The expected version.
+     * @param values  The new column values.
+     * @return The updated user object or an empty Mono if the user does not exist or has another version.
+     */
+    @Override
+    public Mono<User> updateIfVersion(Long id, long version, User values) {
+        return userRowRepository.updateIfVersion(id, version, values.getFirstName(), values.getLastName(),
+                        values.getEmail())
+                .map(UserRow::toUser);
+    }
+
+    /**
+     * Sets only the given columns of a user with one R2DBC UPDATE ... RETURNING statement.
+     *
+     * @param id              The id of user object to be updated.
+     * @param expectedVersion The expected version, null to update any version.
+     * @param changes         The new values by attribute, at least one; null clears the column.
+     * @return The updated user object or an empty Mono if the user does not exist or has another version.
+     */
+    @Override
+    public Mono<User> patch(Long id, Long expectedVersion, Map<String, String> changes) {
+        return PatchStatement.USERS.execute(r2dbcEntityTemplate, UserRow.class, id, expectedVersion, changes)
+                .map(UserRow::toUser);
+    }
+}
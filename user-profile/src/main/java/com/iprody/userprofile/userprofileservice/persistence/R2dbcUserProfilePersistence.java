@@ -0,0 +1,57 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import com.iprody.userprofile.userprofileservice.entity.UserProfile;
+import io.r2dbc.spi.Readable;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking R2DBC implementation of {@link UserProfilePersistence}.
+ */
+@Component
+@Profile("r2dbc")
+@AllArgsConstructor
+public class R2dbcUserProfilePersistence implements UserProfilePersistence {
+
+    /**
+     * Injection of DatabaseClient.
+     */
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Find the profile of a user through one R2DBC query.
+     *
+     * @param userId The id of the user.
+     * @return The profile, or an empty Mono if the user does not exist.
+     */
+    @Override
+    public Mono<UserProfile> findByUserId(Long userId) {
+        return databaseClient.sql(UserProfileQuery.FIND_BY_USER_ID)
+                .bind(UserProfileQuery.USER_ID, userId)
+                .map(R2dbcUserProfilePersistence::toProfile)
+                .one();
+    }
+
+    /**
+     * Maps a row of the profile query.
+     *
+     * @param row The row.
+     * @return The profile.
+     */
+    private static UserProfile toProfile(Readable row) {
+        return UserProfile.builder()
+                .userId(row.get("user_id", Long.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .email(row.get("email", String.class))
+                .userVersion(row.get("user_version", Long.class))
+                .contactId(row.get("contact_id", Long.class))
+                .telegramId(row.get("telegram_id", String.class))
+                .mobilePhone(row.get("mobile_phone", String.class))
+                .contactVersion(row.get("contact_version", Long.class))
+                .build();
+    }
+}
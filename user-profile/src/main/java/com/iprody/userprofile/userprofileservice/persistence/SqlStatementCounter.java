@@ -0,0 +1,37 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * Registered as the Hibernate statement inspector, it lets the repository observations record how many statements
+ * each repository call runs, since JPA repository calls run entirely on the calling thread.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    /**
+     * Statements prepared on the current thread.
+     */
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Returns the number of statements prepared on the current thread so far.
+     *
+     * @return The number of statements.
+     */
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    /**
+     * Counts the statement and leaves it unchanged.
+     *
+     * @param sql The SQL of the statement.
+     * @return The unchanged SQL.
+     */
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+}
@@ -0,0 +1,86 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import com.iprody.userprofile.userprofileservice.entity.UserContact;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Persistence port for user contacts.
+ * The implementation is selected by profile: JPA by default, R2DBC with the "r2dbc" profile.
+ */
+public interface UserContactPersistence {
+
+    /**
+     * Saves a user contact.
+     *
+     * @param userContact The user contact object to be saved.
+     * @return The saved user contact object.
+     */
+    Mono<UserContact> save(UserContact userContact);
+
+    /**
+     * Find a user contact by id.
+     *
+     * @param id The id of user contact object to be found.
+     * @return The found user contact object or an empty Mono.
+     */
+    Mono<UserContact> findById(Long id);
+
+    /**
+     * Find all user contacts with the given ids in a single query.
+     *
+     * @param ids The ids of user contact objects to be found.
+     * @return The found user contact objects in no particular order, missing ids are skipped.
+     */
+    Flux<UserContact> findAllById(Collection<Long> ids);
+
+    /**
+     * Find a user contact by user id.
+     *
+     * @param userId The user id of user contact object to be found.
+     * @return The found user contact object or an empty Mono.
+     */
+    Mono<UserContact> findByUserId(Long userId);
+
+    /**
+     * Applies changes to an existing user contact and saves it in one transaction.
+     *
+     * @param id      The id of user contact object to be updated.
+     * @param changes The changes to apply to the loaded user contact.
+     * @return The updated user contact object or an empty Mono if the user contact does not exist.
+     */
+    Mono<UserContact> update(Long id, Consumer<UserContact> changes);
+
+    /**
+     * Applies changes to several user contacts loaded with one query and saves them in one transaction.
+     *
+     * @param changes The changes to apply by user contact id.
+     * @return The updated user contact objects, ids that do not exist are absent.
+     */
+    Flux<UserContact> updateAll(Map<Long, Consumer<UserContact>> changes);
+
+    /**
+     * Overwrites the columns of a user contact with one statement, without loading it first, if its version is
+     * unchanged.
+     *
+     * @param id      The id of user contact object to be updated.
+     * @param version The expected version.
+     * @param values  The new column values.
+     * @return The updated user contact object or an empty Mono if it does not exist or has another version.
+     */
+    Mono<UserContact> updateIfVersion(Long id, long version, UserContact values);
+
+    /**
+     * Sets only the given columns of a user contact with one statement, without loading it first.
+     *
+     * @param id              The id of user contact object to be updated.
+     * @param expectedVersion The expected version, null to update any version.
+     * @param changes         The new values by attribute, at least one; null clears the column.
+     * @return The updated user contact object or an empty Mono if it does not exist or has another version.
+     */
+    Mono<UserContact> patch(Long id, Long expectedVersion, Map<String, String> changes);
+}
@@ -0,0 +1,95 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import com.iprody.userprofile.userprofileservice.entity.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Persistence port for users.
+ * The implementation is selected by profile: JPA by default, R2DBC with the "r2dbc" profile.
+ */
+public interface UserPersistence {
+
+    /**
+     * Saves a user.
+     *
+     * @param user The user object to be saved.
+     * @return The saved user object.
+     */
+    Mono<User> save(User user);
+
+    /**
+     * Saves several users in one transaction, either all of them or none.
+     *
+     * @param users The user objects to be saved.
+     * @return The saved user objects in the given order.
+     */
+    Flux<User> saveAll(List<User> users);
+
+    /**
+     * Find a user by id.
+     *
+     * @param id The id of user object to be found.
+     * @return The found user object or an empty Mono.
+     */
+    Mono<User> findById(Long id);
+
+    /**
+     * Find a user by email ignoring case.
+     *
+     * @param email The email of user object to be found.
+     * @return The found user object or an empty Mono.
+     */
+    Mono<User> findByEmail(String email);
+
+    /**
+     * Find all users with the given ids in a single query.
+     *
+     * @param ids The ids of user objects to be found.
+     * @return The found user objects in no particular order, missing ids are skipped.
+     */
+    Flux<User> findAllById(Collection<Long> ids);
+
+    /**
+     * Find the users following an id in ascending id order (keyset pagination).
+     *
+     * @param afterId The id to start after, 0 for the first page.
+     * @param limit   The maximum number of users.
+     * @return The users of the page.
+     */
+    Flux<User> findPage(long afterId, int limit);
+
+    /**
+     * Applies changes to an existing user and saves it in one transaction.
+     *
+     * @param id      The id of user object to be updated.
+     * @param changes The changes to apply to the loaded user.
+     * @return The updated user object or an empty Mono if the user does not exist.
+     */
+    Mono<User> update(Long id, Consumer<User> changes);
+
+    /**
+     * Overwrites the columns of a user with one statement, without loading it first, if its version is unchanged.
+     *
+     * @param id      The id of user object to be updated.
+     * @param version The expected version.
+     * @param values  The new column values.
+     * @return The updated user object or an empty Mono if the user does not exist or has another version.
+     */
+    Mono<User> updateIfVersion(Long id, long version, User values);
+
+    /**
+     * Sets only the given columns of a user with one statement, without loading it first.
+     *
+     * @param id              The id of user object to be updated.
+     * @param expectedVersion The expected version, null to update any version.
+     * @param changes         The new values by attribute, at least one; null clears the column.
+     * @return The updated user object or an empty Mono if the user does not exist or has another version.
+     */
+    Mono<User> patch(Long id, Long expectedVersion, Map<String, String> changes);
+}
@@ -0,0 +1,19 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import com.iprody.userprofile.userprofileservice.entity.UserProfile;
+import reactor.core.publisher.Mono;
+
+/**
+ * Persistence port for the user_profile read model, maintained by database triggers.
+ * The implementation is selected by profile: JPA by default, R2DBC with the "r2dbc" profile.
+ */
+public interface UserProfilePersistence {
+
+    /**
+     * Find the profile of a user with a single primary key lookup.
+     *
+     * @param userId The id of the user.
+     * @return The profile, or an empty Mono if the user does not exist.
+     */
+    Mono<UserProfile> findByUserId(Long userId);
+}
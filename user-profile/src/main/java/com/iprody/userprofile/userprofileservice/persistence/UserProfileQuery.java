@@ -0,0 +1,27 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+/**
+ * Query of the user_profile read model shared by the JPA and the R2DBC persistence.
+ */
+final class UserProfileQuery {
+
+    /**
+     * Name of the user id parameter.
+     */
+    static final String USER_ID = "userId";
+
+    /**
+     * The profile of a user, with named parameters.
+     */
+    static final String FIND_BY_USER_ID = """
+            SELECT user_id, first_name, last_name, email, user_version, contact_id, telegram_id, mobile_phone,
+                   contact_version
+            FROM user_profile
+            WHERE user_id = :userId""";
+
+    /**
+     * Utility class, not instantiated.
+     */
+    private UserProfileQuery() {
+    }
+}
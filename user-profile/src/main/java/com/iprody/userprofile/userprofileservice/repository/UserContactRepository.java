@@ -1,9 +1,58 @@
 package com.iprody.userprofile.userprofileservice.repository;
 
 import com.iprody.userprofile.userprofileservice.entity.UserContact;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface UserContactRepository extends CrudRepository<UserContact, Long> {
+
+    /**
+     * Find a user contact by id together with its user in one query.
+     *
+     * @param id The id of the user contact.
+     * @return The found user contact.
+     */
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Optional<UserContact> findById(Long id);
+
+    /**
+     * Find the user contacts with the given ids together with their users in one query.
+     *
+     * @param ids The ids of the user contacts.
+     * @return The found user contacts.
+     */
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Iterable<UserContact> findAllById(Iterable<Long> ids);
+
+    /**
+     * Find a user contact by the id of its user together with the user in one query.
+     *
+     * @param userId The id of the user.
+     * @return The found user contact.
+     */
+    @Query("select c from UserContact c join fetch c.user where c.user.id = :userId")
+    Optional<UserContact> findByUserId(Long userId);
+
+    /**
+     * Overwrites the columns of a user contact and increments its version in one statement, if the version is
+     * unchanged. The updated row is returned by the same statement, so the user contact is not read before.
+     * It is not a {@code @Modifying} query, which could only return the row count; it runs as a query mapping the
+     * returned row. That is safe for the same reason as {@link UserRepository#updateIfVersion}.
+     *
+     * @param id          The id of the user contact.
+     * @param version     The expected version.
+     * @param telegramId  The new telegram id.
+     * @param mobilePhone The new mobile phone.
+     * @return The updated user contact, empty when it does not exist or has another version.
+     */
+    @Query(value = "UPDATE user_contact SET telegram_id = :telegramId, mobile_phone = :mobilePhone, "
+            + "version = version + 1 WHERE id = :id AND version = :version RETURNING *", nativeQuery = true)
+    Optional<UserContact> updateIfVersion(Long id, long version, String telegramId, String mobilePhone);
 }
@@ -0,0 +1,33 @@
+package com.iprody.userprofile.userprofileservice.repository;
+
+import com.iprody.userprofile.userprofileservice.entity.UserContactRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface UserContactRowRepository extends R2dbcRepository<UserContactRow, Long> {
+
+    /**
+     * Find a user contact row by the id of its user.
+     *
+     * @param userId The id of the user.
+     * @return The found user contact row.
+     */
+    Mono<UserContactRow> findByUserId(Long userId);
+
+    /**
+     * Overwrites the columns of a user contact row and increments its version in one statement, if the version is
+     * unchanged.
+     *
+     * @param id          The id of the user contact.
+     * @param version     The expected version.
+     * @param telegramId  The new telegram id.
+     * @param mobilePhone The new mobile phone.
+     * @return The updated row, empty when the row does not exist or has another version.
+     */
+    @Query("UPDATE user_contact SET telegram_id = :telegramId, mobile_phone = :mobilePhone, version = version + 1 "
+            + "WHERE id = :id AND version = :version RETURNING *")
+    Mono<UserContactRow> updateIfVersion(Long id, long version, String telegramId, String mobilePhone);
+}
@@ -1,9 +1,76 @@
 package com.iprody.userprofile.userprofileservice.repository;
 
 import com.iprody.userprofile.userprofileservice.entity.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends CrudRepository<User, Long> {
+
+    /**
+     * Find a user by id together with its user contact in one query.
+     * The inverse one-to-one cannot be proxied, so without the join it costs a second select.
+     *
+     * @param id The id of the user.
+     * @return The found user.
+     */
+    @Override
+    @EntityGraph(attributePaths = "userContact")
+    Optional<User> findById(Long id);
+
+    /**
+     * Find the users with the given ids together with their user contacts in one query.
+     *
+     * @param ids The ids of the users.
+     * @return The found users.
+     */
+    @Override
+    @EntityGraph(attributePaths = "userContact")
+    Iterable<User> findAllById(Iterable<Long> ids);
+
+    /**
+     * Find the users following an id in id order, seeking on the primary key index instead of using an offset.
+     * The user contacts are fetched in the same query.
+     *
+     * @param afterId The id to start after.
+     * @param limit   The maximum number of users.
+     * @return The users of the page.
+     */
+    @EntityGraph(attributePaths = "userContact")
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Find a user by email ignoring case, probing the unique index on lower(email).
+     * The user contact is fetched in the same query.
+     *
+     * @param email The email.
+     * @return The found user.
+     */
+    @Query("select u from User u left join fetch u.userContact where lower(u.email) = lower(:email)")
+    Optional<User> findByEmailIgnoreCase(String email);
+
+    /**
+     * Overwrites the columns of a user and increments its version in one statement, if the version is unchanged.
+     * The updated row is returned by the same statement, so the user is not read before.
+     * It is not a {@code @Modifying} query, which could only return the row count; it runs as a query mapping the
+     * returned row. That is safe because every persistence operation runs in a transaction of its own: the
+     * persistence context is empty when the statement runs, so the result is the updated row and not a stale
+     * managed copy, and the context is closed with the transaction.
+     *
+     * @param id        The id of the user.
+     * @param version   The expected version.
+     * @param firstName The new first name.
+     * @param lastName  The new last name.
+     * @param email     The new email.
+     * @return The updated user, empty when the user does not exist or has another version.
+     */
+    @Query(value = "UPDATE users SET first_name = :firstName, last_name = :lastName, email = :email, "
+            + "version = version + 1 WHERE id = :id AND version = :version RETURNING *", nativeQuery = true)
+    Optional<User> updateIfVersion(Long id, long version, String firstName, String lastName, String email);
 }
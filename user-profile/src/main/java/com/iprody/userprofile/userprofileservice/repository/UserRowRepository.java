@@ -0,0 +1,45 @@
+package com.iprody.userprofile.userprofileservice.repository;
+
+import com.iprody.userprofile.userprofileservice.entity.UserRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface UserRowRepository extends R2dbcRepository<UserRow, Long> {
+
+    /**
+     * Find the user rows following an id in id order, seeking on the primary key index instead of using an offset.
+     *
+     * @param afterId The id to start after.
+     * @param limit   The maximum number of rows.
+     * @return The rows of the page.
+     */
+    @Query("SELECT * FROM users WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<UserRow> findPage(Long afterId, int limit);
+
+    /**
+     * Find a user row by email ignoring case, probing the unique index on lower(email).
+     *
+     * @param email The email.
+     * @return The found row.
+     */
+    @Query("SELECT * FROM users WHERE lower(email) = lower(:email)")
+    Mono<UserRow> findByEmailIgnoreCase(String email);
+
+    /**
+     * Overwrites the columns of a user row and increments its version in one statement, if the version is unchanged.
+     *
+     * @param id        The id of the user.
+     * @param version   The expected version.
+     * @param firstName The new first name.
+     * @param lastName  The new last name.
+     * @param email     The new email.
+     * @return The updated row, empty when the row does not exist or has another version.
+     */
+    @Query("UPDATE users SET first_name = :firstName, last_name = :lastName, email = :email, version = version + 1 "
+            + "WHERE id = :id AND version = :version RETURNING *")
+    Mono<UserRow> updateIfVersion(Long id, long version, String firstName, String lastName, String email);
+}
@@ -0,0 +1,385 @@
+package com.iprody.userprofile.userprofileservice.service;
+
+import com.iprody.userprofile.userprofileservice.config.ProfileChangeFeedProperties;
+import com.iprody.userprofile.userprofileservice.event.ProfileChange;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangeOffset;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangedEvent;
+import com.iprody.userprofile.userprofileservice.event.UsersImportedEvent;
+import com.iprody.userprofile.userprofileservice.exception.SubscriptionLimitException;
+import com.iprody.userprofile.userprofileservice.persistence.ProfileOutboxPersistence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Relays the committed profile changes of the transactional outbox to subscribers of the change feed.
+ * Every subscriber reads the outbox after its own offset, at once, every poll interval and whenever this instance
+ * commits a change, so the changes of other instances arrive within the poll interval. A subscriber is only read
+ * for again once it consumed the previous changes, at most one batch ahead, so a slow consumer holds no more than
+ * two batches in memory.
+ * Followers of the changes committed from now on share a single reader instead, started by the first of them and
+ * stopped once the last of them is gone, so the outbox is read once per poll interval however many clients follow
+ * it, and not at all while none does.
+ * Every prune interval, the changes older than the retention are deleted from the outbox, up to the oldest offset
+ * still served to a subscriber or to the shared reader.
+ */
+@Slf4j
+@Component
+public class ProfileChangeRelay implements InitializingBean, DisposableBean {
+
+    /**
+     * Injection of ProfileOutboxPersistence.
+     */
+    private final ProfileOutboxPersistence profileOutboxPersistence;
+
+    /**
+     * Injection of the change feed settings.
+     */
+    private final ProfileChangeFeedProperties properties;
+
+    /**
+     * Signals the local commits to the subscribers; a signal missed by a busy subscriber is covered by its next read.
+     */
+    private final Sinks.Many<Long> localChanges = Sinks.many().multicast().directBestEffort();
+
+    /**
+     * The changes read by the shared reader, dispatched to the followers.
+     */
+    private final Sinks.Many<ProfileChange> sharedChanges = Sinks.many().multicast().directBestEffort();
+
+    /**
+     * Number of active followers, changed together with the shared reader under its lock.
+     */
+    private final AtomicInteger followers = new AtomicInteger();
+
+    /**
+     * Guards the start and the stop of the shared reader.
+     */
+    private final Object sharedReaderLock = new Object();
+
+    /**
+     * Number of active change feed subscribers.
+     */
+    private final AtomicInteger feedSubscribers = new AtomicInteger();
+
+    /**
+     * The offsets of the subscribers and of the shared reader, the changes after which are still to be read.
+     */
+    private final Set<AtomicReference<ProfileChangeOffset>> cursors = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Changes deleted from the outbox.
+     */
+    private final Counter pruned;
+
+    /**
+     * The shared reader, null while nobody follows the changes.
+     */
+    private SharedReader sharedReader;
+
+    /**
+     * The periodic prune of the outbox, null when disabled.
+     */
+    private Disposable pruning;
+
+    /**
+     * Constructor for class.
+     *
+     * @param profileOutboxPersistence The outbox persistence.
+     * @param properties               The change feed settings.
+     * @param meterRegistry            The Micrometer registry.
+     */
+    public ProfileChangeRelay(final ProfileOutboxPersistence profileOutboxPersistence,
+                              final ProfileChangeFeedProperties properties,
+                              final MeterRegistry meterRegistry) {
+        this.profileOutboxPersistence = profileOutboxPersistence;
+        this.properties = properties;
+        Gauge.builder("user.profile.change-feed.followers", followers, AtomicInteger::get)
+                .description("Active followers of the shared change feed reader")
+                .register(meterRegistry);
+        Gauge.builder("user.profile.change-feed.subscribers", feedSubscribers, AtomicInteger::get)
+                .description("Active change feed subscribers, each polling the outbox")
+                .register(meterRegistry);
+        this.pruned = Counter.builder("user.profile.change-feed.pruned")
+                .description("Changes deleted from the outbox")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts pruning the outbox every prune interval, unless it is zero.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (properties.pruneInterval().isZero()) {
+            return;
+        }
+        pruning = Flux.interval(properties.pruneInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> prune().onErrorResume(error -> {
+                    log.warn("Pruning the change feed outbox failed", error);
+                    return Mono.empty();
+                }), 1)
+                .subscribe();
+    }
+
+    /**
+     * Streams the committed changes following an offset, endlessly.
+     * The changes are delivered in feed order, each once, whenever the subscriber requests them. The subscriber is
+     * counted from its subscription until its flux ends; beyond the limit it fails at once, before anything is read.
+     *
+     * @param after The offset to start after, {@link ProfileChangeOffset#START} for all changes.
+     * @return The changes, or a SubscriptionLimitException when the maximum number of subscribers is active.
+     */
+    public Flux<ProfileChange> changes(ProfileChangeOffset after) {
+        return Flux.defer(() -> {
+            if (feedSubscribers.incrementAndGet() > properties.maxFeedSubscriptions()) {
+                feedSubscribers.decrementAndGet();
+                return Flux.error(limitReached(properties.maxFeedSubscriptions(), "change feed"));
+            }
+            AtomicReference<ProfileChangeOffset> cursor = new AtomicReference<>(after);
+            cursors.add(cursor);
+            return poll(cursor).doFinally(signal -> {
+                cursors.remove(cursor);
+                feedSubscribers.decrementAndGet();
+            });
+        });
+    }
+
+    /**
+     * Deletes the changes older than the retention from the outbox, up to the oldest offset still served.
+     * A subscriber resuming after a deleted change misses the deleted changes following it.
+     *
+     * @return The number of deleted changes.
+     */
+    public Mono<Long> prune() {
+        return Mono.defer(() -> {
+            ProfileChangeOffset oldestServed = cursors.stream()
+                    .map(AtomicReference::get)
+                    .min(Comparator.naturalOrder())
+                    .orElse(ProfileChangeOffset.END);
+            return profileOutboxPersistence.deleteUpTo(oldestServed, Instant.now().minus(properties.retention()));
+        }).doOnNext(count -> {
+            pruned.increment(count);
+            log.debug("Pruned {} changes from the change feed outbox", count);
+        });
+    }
+
+    /**
+     * Follows the changes committed from now on through the shared reader.
+     * The follower is counted from its subscription until its flux ends, and gets the changes once the reader is
+     * started; beyond the limit it fails at once, before anything is streamed. The shared changes are only delivered
+     * while the follower requests them, so it has to buffer or drop them itself.
+     *
+     * @param <T>      The type of the followed elements.
+     * @param follower Derives the followed elements from the shared changes, subscribing to them first.
+     * @return The followed elements, or a SubscriptionLimitException when the maximum number of followers is
+     *         active.
+     */
+    public <T> Flux<T> follow(Function<Flux<ProfileChange>, Flux<T>> follower) {
+        return Flux.defer(() -> {
+            SharedReader reader = join();
+            if (reader == null) {
+                return Flux.error(limitReached(properties.maxUserSubscriptions(), "change"));
+            }
+            return reader.started
+                    .thenMany(Flux.defer(() -> follower.apply(sharedChanges.asFlux())))
+                    .doFinally(signal -> leave());
+        });
+    }
+
+    /**
+     * Stops the prune, the shared reader and ends the followers on shutdown.
+     */
+    @Override
+    public void destroy() {
+        if (pruning != null) {
+            pruning.dispose();
+        }
+        synchronized (sharedReaderLock) {
+            if (sharedReader != null) {
+                sharedReader.stop();
+                sharedReader = null;
+            }
+        }
+        sharedChanges.tryEmitComplete();
+    }
+
+    /**
+     * Wakes the subscribers up after a local commit.
+     *
+     * @param event The change event.
+     */
+    @EventListener
+    public void onProfileChanged(ProfileChangedEvent event) {
+        localChanges.tryEmitNext(event.id());
+    }
+
+    /**
+     * Wakes the subscribers up after a chunk of imported users was committed.
+     *
+     * @param event The import event.
+     */
+    @EventListener
+    public void onUsersImported(UsersImportedEvent event) {
+        localChanges.tryEmitNext((long) event.created());
+    }
+
+    /**
+     * Reads the changes following a cursor at once, every poll interval and after every local commit.
+     *
+     * @param cursor The offset of the last change delivered, advanced with every change.
+     * @return The changes.
+     */
+    private Flux<ProfileChange> poll(AtomicReference<ProfileChangeOffset> cursor) {
+        return Flux.merge(Flux.interval(Duration.ZERO, properties.pollInterval()), localChanges.asFlux())
+                .onBackpressureDrop()
+                .concatMap(signal -> readAfter(cursor), 1);
+    }
+
+    /**
+     * Reads all changes following the cursor of a subscriber, batch by batch, advancing the cursor.
+     *
+     * @param cursor The offset of the last change delivered to the subscriber.
+     * @return The changes.
+     */
+    private Flux<ProfileChange> readAfter(AtomicReference<ProfileChangeOffset> cursor) {
+        int batchSize = properties.batchSize();
+        return profileOutboxPersistence.findAfter(cursor.get(), batchSize).collectList()
+                .expand(batch -> batch.size() < batchSize ? Mono.empty()
+                        : profileOutboxPersistence.findAfter(batch.get(batch.size() - 1).offset(), batchSize)
+                                .collectList())
+                .concatMapIterable(batch -> batch, 1)
+                .doOnNext(change -> cursor.set(change.offset()));
+    }
+
+    /**
+     * Creates the error of a subscription beyond its limit.
+     *
+     * @param limit The maximum number of subscriptions.
+     * @param kind  The kind of subscriptions.
+     * @return The error.
+     */
+    private static SubscriptionLimitException limitReached(int limit, String kind) {
+        return new SubscriptionLimitException("The maximum of " + limit + " " + kind + " subscriptions is reached");
+    }
+
+    /**
+     * Counts a new follower and starts the shared reader for the first one.
+     *
+     * @return The shared reader, or null when the maximum number of followers is active.
+     */
+    private SharedReader join() {
+        synchronized (sharedReaderLock) {
+            if (followers.get() >= properties.maxUserSubscriptions()) {
+                return null;
+            }
+            followers.incrementAndGet();
+            if (sharedReader == null) {
+                sharedReader = new SharedReader();
+            }
+            return sharedReader;
+        }
+    }
+
+    /**
+     * Uncounts a follower whose flux ended and stops the shared reader after the last one.
+     */
+    private void leave() {
+        synchronized (sharedReaderLock) {
+            if (followers.decrementAndGet() == 0 && sharedReader != null) {
+                sharedReader.stop();
+                sharedReader = null;
+            }
+        }
+    }
+
+    /**
+     * One run of the shared reader, from the first follower to the last one.
+     * It reads after the last change committed when it is started, retrying from the last change read whenever
+     * reading fails.
+     */
+    private final class SharedReader {
+
+        /**
+         * The offset of the last change read, tracked among the cursors while reading.
+         */
+        private final AtomicReference<ProfileChangeOffset> offset = new AtomicReference<>();
+
+        /**
+         * Completes once reading started; only a successful start is cached, a failed one is retried by the next
+         * follower.
+         */
+        private final Mono<Boolean> started;
+
+        /**
+         * The reading, null until started; guarded by the lock of the shared reader.
+         */
+        private Disposable reading;
+
+        /**
+         * Whether the reader is stopped; guarded by the lock of the shared reader.
+         */
+        private boolean stopped;
+
+        /**
+         * Creates the reader, started by the first follower subscribing to it.
+         */
+        SharedReader() {
+            this.started = Mono.defer(profileOutboxPersistence::findLast)
+                    .defaultIfEmpty(ProfileChangeOffset.START)
+                    .doOnNext(this::read)
+                    .thenReturn(true)
+                    .cacheInvalidateIf(readerStarted -> false);
+        }
+
+        /**
+         * Starts reading after an offset, unless the reader was stopped in the meantime.
+         *
+         * @param after The offset to start after.
+         */
+        private void read(ProfileChangeOffset after) {
+            synchronized (sharedReaderLock) {
+                if (stopped || reading != null) {
+                    return;
+                }
+                offset.set(after);
+                cursors.add(offset);
+                reading = Flux.defer(() -> poll(offset))
+                        .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, properties.pollInterval())
+                                .doBeforeRetry(retry -> log.warn("Reading the change feed failed, retrying",
+                                        retry.failure())))
+                        .subscribe(sharedChanges::tryEmitNext);
+            }
+        }
+
+        /**
+         * Stops reading; must be called with the lock of the shared reader held.
+         */
+        private void stop() {
+            stopped = true;
+            cursors.remove(offset);
+            if (reading != null) {
+                reading.dispose();
+            }
+        }
+    }
+}
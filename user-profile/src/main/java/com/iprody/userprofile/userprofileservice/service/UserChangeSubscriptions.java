@@ -0,0 +1,122 @@
+package com.iprody.userprofile.userprofileservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iprody.userprofile.userprofileservice.event.ProfileChange;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangedEvent;
+import com.iprody.userprofile.userprofileservice.mapper.UserContactMapper;
+import com.iprody.userprofile.userprofileservice.mapper.UserMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Subscriptions to the changes of single users and their contacts.
+ * The subscriptions follow the reader of the change feed shared by the instance, so they put no load on the
+ * database beyond reading the current state once; the pushed states are the payloads of the changes.
+ * Every subscriber first receives the current user and contact, then every newer state of either. A subscriber that
+ * does not keep up only receives the latest state of each, the older ones are dropped.
+ */
+@Component
+@AllArgsConstructor
+public class UserChangeSubscriptions {
+
+    /**
+     * Injection of ProfileChangeRelay.
+     */
+    private final ProfileChangeRelay profileChangeRelay;
+
+    /**
+     * Injection of UserService.
+     */
+    private final UserService userService;
+
+    /**
+     * Injection of UserContactService.
+     */
+    private final UserContactService userContactService;
+
+    /**
+     * Injection of UserMapper.
+     */
+    private final UserMapper userMapper;
+
+    /**
+     * Injection of UserContactMapper.
+     */
+    private final UserContactMapper userContactMapper;
+
+    /**
+     * Injection of the JSON object mapper, writing the current states.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Subscribes to the changes of a user and its contact.
+     * The current states are read from the database, bypassing the caches: a cached state another instance has not
+     * yet invalidated may predate a change committed before the subscription, which the feed does not deliver again.
+     * Beyond the subscription limit it fails at once, see {@link ProfileChangeRelay#follow}.
+     *
+     * @param userId The id of the user.
+     * @return The current state of the user and of its contact, then every newer state, endlessly.
+     */
+    public Flux<ProfileChange> subscribe(Long userId) {
+        Mono<ProfileChange> currentUser = userService.findCurrentUserById(userId)
+                .flatMap(user -> currentState(ProfileChangedEvent.Type.USER, user.getId(), userId,
+                        user.getVersion(), userMapper.toDto(user)));
+        Mono<ProfileChange> currentUserContact = userContactService.findByUserId(userId)
+                .onErrorResume(NoSuchElementException.class, notFound -> Mono.empty())
+                .flatMap(userContact -> currentState(ProfileChangedEvent.Type.USER_CONTACT, userContact.getId(),
+                        userId, userContact.getVersion(), userContactMapper.toDto(userContact)));
+        return profileChangeRelay.follow(changes -> Flux.merge(1,
+                latestStates(changes, ProfileChangedEvent.Type.USER, userId, currentUser),
+                latestStates(changes, ProfileChangedEvent.Type.USER_CONTACT, userId, currentUserContact)));
+    }
+
+    /**
+     * Streams the states of one kind of entity of a user, the current one and then the changed ones.
+     * The changes are followed before the current state is read, so no change is missed in between; a state not
+     * newer than one already streamed is skipped.
+     *
+     * @param changes The shared changes.
+     * @param type    The kind of entity.
+     * @param userId  The id of the user.
+     * @param current The current state, empty if there is none.
+     * @return The states, of which only the latest is kept while the subscriber does not request.
+     */
+    private static Flux<ProfileChange> latestStates(Flux<ProfileChange> changes, ProfileChangedEvent.Type type,
+                                                    Long userId, Mono<ProfileChange> current) {
+        Map<Long, Long> versions = new HashMap<>();
+        return Flux.merge(1, changes.filter(change -> change.type() == type && userId.equals(change.userId()))
+                                .onBackpressureLatest(), current)
+                .filter(state -> {
+                    Long streamedVersion = versions.get(state.entityId());
+                    if (streamedVersion != null && streamedVersion >= state.version()) {
+                        return false;
+                    }
+                    versions.put(state.entityId(), state.version());
+                    return true;
+                })
+                .onBackpressureLatest();
+    }
+
+    /**
+     * Creates the current state of an entity, which has no offset, operation or time.
+     *
+     * @param type     The kind of entity.
+     * @param entityId The id of the entity.
+     * @param userId   The id of the user.
+     * @param version  The version of the entity.
+     * @param dto      The DTO of the entity.
+     * @return The state with the DTO as payload.
+     */
+    private Mono<ProfileChange> currentState(ProfileChangedEvent.Type type, Long entityId, Long userId,
+                                             Long version, Object dto) {
+        return Mono.fromCallable(() -> new ProfileChange(null, type, null, entityId, userId, version,
+                objectMapper.writeValueAsString(dto), null));
+    }
+}
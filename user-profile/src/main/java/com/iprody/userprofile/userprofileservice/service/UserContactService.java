@@ -1,14 +1,20 @@
 package com.iprody.userprofile.userprofileservice.service;
 
+import com.iprody.userprofile.userprofileservice.cache.ReadThroughCache;
 import com.iprody.userprofile.userprofileservice.entity.UserContact;
-import com.iprody.userprofile.userprofileservice.repository.UserContactRepository;
-import com.iprody.userprofile.userprofileservice.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangedEvent;
+import com.iprody.userprofile.userprofileservice.exception.PreconditionFailedException;
+import com.iprody.userprofile.userprofileservice.persistence.UserContactPersistence;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 /**
  * Service class for managing user contact-related operations.
@@ -22,16 +28,25 @@ public class UserContactService {
      */
     private static final String NOT_FOUND_MASSAGE = "Could not find user contact with id ";
     /**
-     * Injection of UserContactRepository.
+     * Injection of UserContactPersistence.
      */
 
-    private final UserContactRepository userContactRepository;
+    private final UserContactPersistence userContactPersistence;
 
     /**
-     * Injection of UserRepository.
+     * Injection of the user contacts cache.
      */
+    private final ReadThroughCache<Long, UserContact> userContactCache;
 
-    private final UserRepository userRepository;
+    /**
+     * Injection of ApplicationEventPublisher.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Injection of the write-behind of updates, only available when enabled.
+     */
+    private final ObjectProvider<UserContactWriteBehind> writeBehind;
 
     /**
      * Creates a new user contact.
@@ -39,53 +54,144 @@ public class UserContactService {
      * @param userContact The user object to be created.
      * @return The created user object.
      */
-    @Transactional
     public Mono<UserContact> createUserContact(UserContact userContact) {
-        return Mono.just(userContactRepository.save(userContact));
+        return userContactPersistence.save(userContact)
+                .doOnNext(this::publishChange);
     }
 
     /**
-     * Find a user contact by id.
+     * Find a user contact by id, reading through the user contacts cache.
      *
      * @param id The id of user contact object to be found.
      * @return The found user contact object.
      */
-    @Transactional
     public Mono<UserContact> findById(Long id) {
-        var foundedUser = userContactRepository.findById(id);
-        return foundedUser.map(Mono::just).orElseGet(() ->
-                Mono.error(new NoSuchElementException(NOT_FOUND_MASSAGE + id)));
+        return userContactCache.get(id)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException(NOT_FOUND_MASSAGE + id)));
     }
 
     /**
-     * Find a user contact by user id.
+     * Find a user contact by id in the database, bypassing the user contacts cache.
+     * Used by conditional requests, whose answer must not come from an entry another instance has not yet
+     * invalidated.
+     *
+     * @param id The id of user contact object to be found.
+     * @return The found user contact object.
+     */
+    public Mono<UserContact> findCurrentById(Long id) {
+        return userContactPersistence.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException(NOT_FOUND_MASSAGE + id)));
+    }
+
+    /**
+     * Find several user contacts by id with one round-trip, reading through the user contacts cache.
+     * Only the ids missing from the cache are loaded, with a single query.
+     *
+     * @param ids The ids of the user contacts to be found.
+     * @return The found user contacts by id, ids that do not exist are absent.
+     */
+    public Mono<Map<Long, UserContact>> findAllByIds(Collection<Long> ids) {
+        return userContactCache.getAll(ids);
+    }
+
+    /**
+     * Find a user contact by user id in the database; the user contacts cache is keyed by contact id only.
      *
      * @param userId The user id of user contact object to be found.
      * @return The found user contact object.
      */
     public Mono<UserContact> findByUserId(Long userId) {
-        var userOptional =  userRepository.findById(userId);
-        return userOptional.map(user -> Mono.just(user.getUserContact())).orElseGet(() ->
-                Mono.error(new NoSuchElementException(NOT_FOUND_MASSAGE + userId)));
+        return userContactPersistence.findByUserId(userId)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException(NOT_FOUND_MASSAGE + userId)));
     }
 
     /**
      * Update a user contact by id.
+     * With write-behind enabled, the update is coalesced with the other updates of the user contact until the next
+     * flush, which also publishes the change.
      *
      * @param id The id of user object to be updated.
      * @param userContact The user object to be updated.
      * @return The updated user contact object.
      */
-    @Transactional
     public Mono<UserContact> update(Long id, UserContact userContact) {
-        var userContactOptional = userContactRepository.findById(id);
-        if (userContactOptional.isPresent()) {
-            var existingUserContact = userContactOptional.get();
+        Consumer<UserContact> changes = existingUserContact -> {
             existingUserContact.setMobilePhone(userContact.getMobilePhone());
             existingUserContact.setTelegramId(userContact.getTelegramId());
-            return Mono.just(userContactRepository.save(existingUserContact));
-        } else {
-            return Mono.error(new NoSuchElementException(NOT_FOUND_MASSAGE + id));
+        };
+        UserContactWriteBehind userContactWriteBehind = writeBehind.getIfAvailable();
+        Mono<UserContact> updated = userContactWriteBehind == null
+                ? userContactPersistence.update(id, changes).doOnNext(this::publishChange)
+                : userContactWriteBehind.update(id, changes);
+        return updated.switchIfEmpty(Mono.error(() -> new NoSuchElementException(NOT_FOUND_MASSAGE + id)));
+    }
+
+    /**
+     * Update a user contact by id if it still has the expected version.
+     * The user contact is overwritten with one statement that checks the version, without reading it first; it is
+     * only read when no row was updated, to tell a missing user contact from a concurrent change.
+     *
+     * @param id              The id of user contact object to be updated.
+     * @param userContact     The user contact object to be updated.
+     * @param expectedVersion The version the client read, null to update whatever the version is.
+     * @return The updated user contact object.
+     */
+    public Mono<UserContact> update(Long id, UserContact userContact, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return update(id, userContact);
+        }
+        return userContactPersistence.updateIfVersion(id, expectedVersion, userContact)
+                .doOnNext(this::publishChange)
+                .switchIfEmpty(Mono.defer(() -> notUpdated(id, expectedVersion)));
+    }
+
+    /**
+     * Set only the given fields of a user contact, with one statement and without reading it first.
+     * An empty patch changes nothing and returns the user contact read from the database, not from the cache,
+     * still checking the expected version.
+     *
+     * @param id              The id of user contact object to be updated.
+     * @param changes         The new values by field, validated; null clears the field.
+     * @param expectedVersion The version the client read, null to update whatever the version is.
+     * @return The updated user contact object.
+     */
+    public Mono<UserContact> patch(Long id, Map<String, String> changes, Long expectedVersion) {
+        if (changes.isEmpty()) {
+            return findCurrentById(id)
+                    .filter(userContact -> expectedVersion == null || expectedVersion.equals(userContact.getVersion()))
+                    .switchIfEmpty(Mono.defer(() -> notUpdated(id, expectedVersion)));
+        }
+        return userContactPersistence.patch(id, expectedVersion, changes)
+                .doOnNext(this::publishChange)
+                .switchIfEmpty(Mono.defer(() -> notUpdated(id, expectedVersion)));
+    }
+
+    /**
+     * Tells why a conditional update wrote no row, reading the user contact only when a version was expected.
+     *
+     * @param id              The id of the user contact.
+     * @param expectedVersion The expected version, null if any version was accepted.
+     * @return An error, PreconditionFailedException if the user contact has another version.
+     */
+    private Mono<UserContact> notUpdated(Long id, Long expectedVersion) {
+        Mono<UserContact> notFound = Mono.error(() -> new NoSuchElementException(NOT_FOUND_MASSAGE + id));
+        if (expectedVersion == null) {
+            return notFound;
         }
+        return userContactPersistence.findById(id)
+                .flatMap(current -> Mono.<UserContact>error(new PreconditionFailedException("User contact "
+                        + id + " has version " + current.getVersion() + ", not " + expectedVersion)))
+                .switchIfEmpty(notFound);
+    }
+
+    /**
+     * Publishes the committed change, which invalidates the caches.
+     *
+     * @param userContact The written user contact.
+     */
+    private void publishChange(UserContact userContact) {
+        Long userId = userContact.getUser() == null ? null : userContact.getUser().getId();
+        eventPublisher.publishEvent(new ProfileChangedEvent(ProfileChangedEvent.Type.USER_CONTACT,
+                userContact.getId(), userId));
     }
 }
@@ -0,0 +1,590 @@
+package com.iprody.userprofile.userprofileservice.service;
+
+import com.iprody.userprofile.userprofileservice.config.ContactWriteBehindProperties;
+import com.iprody.userprofile.userprofileservice.entity.UserContact;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangedEvent;
+import com.iprody.userprofile.userprofileservice.persistence.UserContactPersistence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind of user contact updates.
+ * The changes to a contact are queued and coalesced with the later changes to the same contact until the next
+ * flush, which loads every pending contact with one query, applies all of its changes in order and writes it once;
+ * the flush of a window is split into transactions of at most max-batch-size contacts. Every caller is answered
+ * with the written contact once the transaction holding its changes committed, so an answered update is durable.
+ * An update whose values break the constraints of a user contact is rejected before it is queued. A failed batch
+ * is retried contact by contact. A contact failing with a {@link TransientDataAccessException} is retried by the
+ * following flushes until its oldest update is max-lag old; on any other failure its coalesced updates are written
+ * one by one, so only the callers whose update fails get the error. Flushes are serialized on one thread, and the
+ * pending updates are written when the application stops, after the web server finished its requests.
+ * Metrics: user.profile.contact.write-behind.coalesced (updates per written contact, its mean is the coalescing
+ * ratio), .flush (latency of a batch transaction by outcome), .lag (from the first update to the commit),
+ * .failed (updates answered with an error) and .pending (contacts waiting for a flush).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "user-profile.contact-write-behind.enabled", havingValue = "true")
+public class UserContactWriteBehind implements SmartLifecycle {
+
+    /**
+     * Prefix of the metric names.
+     */
+    private static final String METRIC_PREFIX = "user.profile.contact.write-behind.";
+
+    /**
+     * Name of the outcome tag.
+     */
+    private static final String OUTCOME_TAG = "outcome";
+
+    /**
+     * Log message of an update failing for good.
+     */
+    private static final String UPDATE_FAILED = "Update of user contact {} failed";
+
+    /**
+     * Phase below the web server, so that it is stopped after the server finished its requests.
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    /**
+     * Injection of UserContactPersistence.
+     */
+    private final UserContactPersistence userContactPersistence;
+
+    /**
+     * Injection of ApplicationEventPublisher.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The write-behind settings.
+     */
+    private final ContactWriteBehindProperties properties;
+
+    /**
+     * Injection of the bean validator, checking updates before they are queued.
+     */
+    private final Validator validator;
+
+    /**
+     * Pending updates by contact id in the order of their first update, guarded by itself.
+     */
+    private final Map<Long, Pending> pending = new LinkedHashMap<>();
+
+    /**
+     * Requests for a flush before the end of the window, emitted when a batch is full.
+     */
+    private final Sinks.Many<Long> flushRequests = Sinks.many().multicast().directBestEffort();
+
+    /**
+     * Request to end the flush loop once the running flush is done.
+     */
+    private final Sinks.Empty<Void> stopRequest = Sinks.empty();
+
+    /**
+     * Thread the flushes run on.
+     */
+    private final Scheduler scheduler = Schedulers.newSingle("contact-write-behind", true);
+
+    /**
+     * Updates per written contact.
+     */
+    private final DistributionSummary coalesced;
+
+    /**
+     * Latency of successful batch transactions.
+     */
+    private final Timer flushSucceeded;
+
+    /**
+     * Latency of failed batch transactions.
+     */
+    private final Timer flushFailed;
+
+    /**
+     * Time from the first update of a contact to the commit of its write.
+     */
+    private final Timer lag;
+
+    /**
+     * Updates answered with an error.
+     */
+    private final Counter failed;
+
+    /**
+     * Completes when the flush loop ended, null before start.
+     */
+    private Mono<Void> flushLoop;
+
+    /**
+     * Whether updates are queued, between start and stop.
+     */
+    private volatile boolean running;
+
+    /**
+     * Constructor for class.
+     *
+     * @param userContactPersistence The persistence the flushes write through.
+     * @param eventPublisher         The publisher of the change events of written contacts.
+     * @param properties             The write-behind settings.
+     * @param validator              The bean validator.
+     * @param meterRegistry          The Micrometer registry.
+     */
+    public UserContactWriteBehind(final UserContactPersistence userContactPersistence,
+                                  final ApplicationEventPublisher eventPublisher,
+                                  final ContactWriteBehindProperties properties,
+                                  final Validator validator,
+                                  final MeterRegistry meterRegistry) {
+        this.userContactPersistence = userContactPersistence;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.validator = validator;
+        this.coalesced = DistributionSummary.builder(METRIC_PREFIX + "coalesced")
+                .description("Updates combined into one written user contact")
+                .register(meterRegistry);
+        this.flushSucceeded = flushTimer("success", meterRegistry);
+        this.flushFailed = flushTimer("failure", meterRegistry);
+        this.lag = Timer.builder(METRIC_PREFIX + "lag")
+                .description("Time from the first pending update of a user contact to the commit of its write")
+                .register(meterRegistry);
+        this.failed = Counter.builder(METRIC_PREFIX + "failed")
+                .description("User contact updates answered with an error")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "pending", pending, this::size)
+                .description("User contacts waiting for a flush")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues changes to a user contact, coalesced with the other changes to it until the next flush.
+     * After the write-behind stopped, the changes are written directly.
+     *
+     * @param id      The id of the user contact.
+     * @param changes The changes to apply to the loaded user contact.
+     * @return The written user contact once committed, an empty Mono if it does not exist, or a
+     *         ConstraintViolationException if the changes set invalid values.
+     */
+    public Mono<UserContact> update(Long id, Consumer<UserContact> changes) {
+        return Mono.defer(() -> {
+            Set<ConstraintViolation<UserContact>> violations = violations(changes);
+            if (!violations.isEmpty()) {
+                failed.increment();
+                return Mono.error(new ConstraintViolationException(violations));
+            }
+            Sinks.One<UserContact> result = Sinks.one();
+            boolean batchFull;
+            synchronized (pending) {
+                if (!running) {
+                    return userContactPersistence.update(id, changes)
+                            .doOnNext(this::publishChange);
+                }
+                Pending entry = pending.computeIfAbsent(id, key -> new Pending(System.nanoTime()));
+                entry.add(changes, result);
+                batchFull = pending.size() >= properties.maxBatchSize();
+            }
+            if (batchFull) {
+                flushRequests.tryEmitNext(System.nanoTime());
+            }
+            return result.asMono();
+        });
+    }
+
+    /**
+     * Starts the flush loop: a flush every window, and at once when a batch is full.
+     */
+    @Override
+    public void start() {
+        flushLoop = Flux.merge(Flux.interval(properties.window(), scheduler), flushRequests.asFlux())
+                .onBackpressureDrop()
+                .takeUntilOther(stopRequest.asMono())
+                .concatMap(tick -> flush(), 1)
+                .then()
+                .cache();
+        flushLoop.subscribe();
+        running = true;
+    }
+
+    /**
+     * Stops queuing and lets the running flush finish, then writes the pending updates or fails them, as
+     * configured.
+     */
+    @Override
+    public void stop() {
+        synchronized (pending) {
+            running = false;
+        }
+        stopRequest.tryEmitEmpty();
+        flushLoop.timeout(properties.maxLag(), Mono.empty()).block();
+        if (properties.flushOnShutdown()) {
+            flush().timeout(properties.maxLag(), Mono.empty()).block();
+        }
+        List<Pending> unwritten;
+        synchronized (pending) {
+            unwritten = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        unwritten.forEach(entry -> fail(entry, new IllegalStateException("Shut down before the update was written")));
+        if (!unwritten.isEmpty()) {
+            log.warn("{} user contacts were not written before shutdown", unwritten.size());
+        }
+        scheduler.dispose();
+    }
+
+    /**
+     * Returns whether the flush loop runs.
+     *
+     * @return true between start and stop.
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns the phase, below the web server.
+     *
+     * @return The phase.
+     */
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Writes all pending updates, in transactions of at most max-batch-size contacts.
+     *
+     * @return Completes when every batch is written or requeued.
+     */
+    private Mono<Void> flush() {
+        List<Map<Long, Pending>> batches = new ArrayList<>();
+        synchronized (pending) {
+            Map<Long, Pending> batch = new LinkedHashMap<>();
+            for (Map.Entry<Long, Pending> entry : pending.entrySet()) {
+                batch.put(entry.getKey(), entry.getValue());
+                if (batch.size() == properties.maxBatchSize()) {
+                    batches.add(batch);
+                    batch = new LinkedHashMap<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.add(batch);
+            }
+            pending.clear();
+        }
+        return Flux.fromIterable(batches)
+                .concatMap(this::write)
+                .then();
+    }
+
+    /**
+     * Writes a batch in one transaction; if it fails, its contacts are written one by one.
+     *
+     * @param batch The pending updates by contact id.
+     * @return Completes when the batch is written or requeued.
+     */
+    private Mono<Void> write(Map<Long, Pending> batch) {
+        return attempt(batch).flatMap(error -> {
+            if (batch.size() > 1) {
+                log.warn("Writing {} user contacts failed, writing them one by one", batch.size(), error);
+                return Flux.fromIterable(batch.entrySet())
+                        .concatMap(entry -> write(Map.of(entry.getKey(), entry.getValue())))
+                        .then();
+            }
+            Map.Entry<Long, Pending> only = batch.entrySet().iterator().next();
+            return onFailure(only.getKey(), only.getValue(), error);
+        });
+    }
+
+    /**
+     * Writes a batch in one transaction and answers its callers once committed.
+     *
+     * @param batch The pending updates by contact id.
+     * @return Empty when the batch was written, the error of the transaction otherwise.
+     */
+    private Mono<Throwable> attempt(Map<Long, Pending> batch) {
+        Map<Long, Consumer<UserContact>> changes = new LinkedHashMap<>();
+        batch.forEach((id, entry) -> changes.put(id, entry::apply));
+        long startedAt = System.nanoTime();
+        return userContactPersistence.updateAll(changes)
+                .collectMap(UserContact::getId)
+                .doOnNext(written -> {
+                    flushSucceeded.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    batch.forEach((id, entry) -> complete(entry, written.get(id)));
+                })
+                .then(Mono.<Throwable>empty())
+                .onErrorResume(error -> {
+                    flushFailed.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    return Mono.just(error);
+                });
+    }
+
+    /**
+     * Handles the failed write of a single contact: a transient failure is retried by the following flushes,
+     * coalesced updates failing otherwise are written one by one, and a single update failing otherwise fails.
+     *
+     * @param id    The id of the contact.
+     * @param entry The pending updates of the contact.
+     * @param error The error of the write.
+     * @return Completes when the updates are written, requeued or failed.
+     */
+    private Mono<Void> onFailure(Long id, Pending entry, Throwable error) {
+        if (error instanceof TransientDataAccessException) {
+            retryOrFail(id, entry, error);
+            return Mono.empty();
+        }
+        if (entry.results.size() > 1) {
+            log.warn("Writing {} updates of user contact {} failed, writing them one by one", entry.results.size(),
+                    id, error);
+            return writeSeparately(id, entry.split());
+        }
+        log.warn(UPDATE_FAILED, id, error);
+        fail(entry, error);
+        return Mono.empty();
+    }
+
+    /**
+     * Writes the updates of a contact one after the other, in arrival order. An update failing for good fails only
+     * its caller; a transient failure requeues it together with the updates after it.
+     *
+     * @param id      The id of the contact.
+     * @param updates The single updates of the contact in arrival order.
+     * @return Completes when every update is written, requeued or failed.
+     */
+    private Mono<Void> writeSeparately(Long id, List<Pending> updates) {
+        if (updates.isEmpty()) {
+            return Mono.empty();
+        }
+        Pending first = updates.get(0);
+        return attempt(Map.of(id, first))
+                .map(error -> {
+                    if (error instanceof TransientDataAccessException) {
+                        Pending remaining = new Pending(first.firstUpdateAt);
+                        updates.forEach(remaining::addAll);
+                        retryOrFail(id, remaining, error);
+                        return false;
+                    }
+                    log.warn(UPDATE_FAILED, id, error);
+                    fail(first, error);
+                    return true;
+                })
+                .defaultIfEmpty(true)
+                .flatMap(proceed -> proceed ? writeSeparately(id, updates.subList(1, updates.size()))
+                        : Mono.empty());
+    }
+
+    /**
+     * Answers the callers of a written contact.
+     *
+     * @param entry       The pending updates of the contact.
+     * @param userContact The written contact, null if it does not exist.
+     */
+    private void complete(Pending entry, UserContact userContact) {
+        if (userContact == null) {
+            entry.results.forEach(Sinks.One::tryEmitEmpty);
+            return;
+        }
+        coalesced.record(entry.results.size());
+        lag.record(System.nanoTime() - entry.firstUpdateAt, TimeUnit.NANOSECONDS);
+        publishChange(userContact);
+        entry.results.forEach(result -> result.tryEmitValue(userContact));
+    }
+
+    /**
+     * Requeues the updates of a contact whose write failed ahead of its newer updates, or fails them once the
+     * oldest of them is max-lag old.
+     *
+     * @param id    The id of the contact.
+     * @param entry The pending updates of the contact.
+     * @param error The error of the write.
+     */
+    private void retryOrFail(Long id, Pending entry, Throwable error) {
+        if (System.nanoTime() - entry.firstUpdateAt < properties.maxLag().toNanos() && requeue(id, entry)) {
+            return;
+        }
+        log.warn("Giving up on {} updates of user contact {}", entry.results.size(), id, error);
+        fail(entry, error);
+    }
+
+    /**
+     * Puts the updates of a contact back ahead of its newer updates, unless the write-behind stopped.
+     *
+     * @param id    The id of the contact.
+     * @param entry The pending updates of the contact.
+     * @return true when requeued.
+     */
+    private boolean requeue(Long id, Pending entry) {
+        synchronized (pending) {
+            if (!running) {
+                return false;
+            }
+            Pending newer = pending.remove(id);
+            if (newer != null) {
+                entry.addAll(newer);
+            }
+            pending.put(id, entry);
+            return true;
+        }
+    }
+
+    /**
+     * Answers the callers of a contact with an error.
+     *
+     * @param entry The pending updates of the contact.
+     * @param error The error.
+     */
+    private void fail(Pending entry, Throwable error) {
+        failed.increment(entry.results.size());
+        entry.results.forEach(result -> result.tryEmitError(error));
+    }
+
+    /**
+     * Checks the values set by changes, applied to an empty user contact; every constraint of a user contact accepts
+     * null, so only the values the changes set can break one.
+     *
+     * @param changes The changes of an update.
+     * @return The constraint violations, empty if the values are valid.
+     */
+    private Set<ConstraintViolation<UserContact>> violations(Consumer<UserContact> changes) {
+        UserContact values = new UserContact();
+        changes.accept(values);
+        return validator.validate(values);
+    }
+
+    /**
+     * Publishes the committed change once per written contact, which invalidates the caches.
+     *
+     * @param userContact The written user contact.
+     */
+    private void publishChange(UserContact userContact) {
+        Long userId = userContact.getUser() == null ? null : userContact.getUser().getId();
+        eventPublisher.publishEvent(new ProfileChangedEvent(ProfileChangedEvent.Type.USER_CONTACT,
+                userContact.getId(), userId));
+    }
+
+    /**
+     * Returns the number of contacts waiting for a flush.
+     *
+     * @param map The pending updates.
+     * @return The number of contacts.
+     */
+    private double size(Map<Long, Pending> map) {
+        synchronized (pending) {
+            return map.size();
+        }
+    }
+
+    /**
+     * Creates the latency timer of the batch transactions of an outcome.
+     *
+     * @param outcome       The outcome.
+     * @param meterRegistry The Micrometer registry.
+     * @return The timer.
+     */
+    private static Timer flushTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder(METRIC_PREFIX + "flush")
+                .description("Latency of the batch transactions writing coalesced user contact updates")
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The coalesced updates of one contact.
+     */
+    private static final class Pending {
+
+        /**
+         * When the oldest update arrived, in System.nanoTime.
+         */
+        private final long firstUpdateAt;
+
+        /**
+         * The callers waiting for the write.
+         */
+        private final List<Sinks.One<UserContact>> results = new ArrayList<>();
+
+        /**
+         * All changes in arrival order.
+         */
+        private final List<Consumer<UserContact>> changes = new ArrayList<>();
+
+        /**
+         * Constructor for class.
+         *
+         * @param firstUpdateAt When the oldest update arrived.
+         */
+        private Pending(final long firstUpdateAt) {
+            this.firstUpdateAt = firstUpdateAt;
+        }
+
+        /**
+         * Appends the changes of an update.
+         *
+         * @param update The changes.
+         * @param result The caller waiting for the write.
+         */
+        private void add(Consumer<UserContact> update, Sinks.One<UserContact> result) {
+            changes.add(update);
+            results.add(result);
+        }
+
+        /**
+         * Appends the updates that arrived after these.
+         *
+         * @param newer The newer updates of the same contact.
+         */
+        private void addAll(Pending newer) {
+            changes.addAll(newer.changes);
+            results.addAll(newer.results);
+        }
+
+        /**
+         * Splits the coalesced updates into one entry per update, in arrival order.
+         *
+         * @return The single updates.
+         */
+        private List<Pending> split() {
+            List<Pending> updates = new ArrayList<>(changes.size());
+            for (int i = 0; i < changes.size(); i++) {
+                Pending update = new Pending(firstUpdateAt);
+                update.add(changes.get(i), results.get(i));
+                updates.add(update);
+            }
+            return updates;
+        }
+
+        /**
+         * Applies all changes in arrival order.
+         *
+         * @param userContact The loaded user contact.
+         */
+        private void apply(UserContact userContact) {
+            changes.forEach(change -> change.accept(userContact));
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.iprody.userprofile.userprofileservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iprody.userprofile.userprofileservice.config.UserImportProperties;
+import com.iprody.userprofile.userprofileservice.dto.UserImportResult;
+import com.iprody.userprofile.userprofileservice.entity.User;
+import com.iprody.userprofile.userprofileservice.event.UsersImportedEvent;
+import com.iprody.userprofile.userprofileservice.persistence.UserPersistence;
+import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Service class importing users in bulk from NDJSON or CSV lines.
+ * Rows are committed in chunks of {@link UserImportProperties#chunkSize()} users with one transaction each.
+ * When a chunk fails, for example on a duplicate email, its rows are retried one by one so that
+ * only the offending rows are rejected. Lines are pulled from the upload only as chunks complete,
+ * which keeps memory bounded regardless of the file size. An import running longer than
+ * {@link UserImportProperties#timeout()} fails, which bounds the request on both web stacks.
+ * The created users are new, so no cache entry is affected by them: a committed chunk publishes a single
+ * {@link UsersImportedEvent} waking the change feed up, rather than a change event per user.
+ */
+@Service
+@AllArgsConstructor
+public class UserImportService {
+
+    /**
+     * The optional header line of CSV uploads.
+     */
+    private static final String CSV_HEADER = "firstName,lastName,email";
+
+    /**
+     * The number of columns of a CSV row.
+     */
+    private static final int CSV_COLUMNS = 3;
+
+    /**
+     * Injection of UserPersistence.
+     */
+    private final UserPersistence userPersistence;
+
+    /**
+     * Injection of the import settings.
+     */
+    private final UserImportProperties properties;
+
+    /**
+     * Injection of ObjectMapper.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Injection of ApplicationEventPublisher.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Imports users from the lines of an upload.
+     *
+     * @param lines  The lines of the upload, blank lines are skipped.
+     * @param format The format of the lines.
+     * @return One result per row in line order, emitted as each chunk is committed; a TimeoutException once the
+     *         import has run for the configured timeout.
+     */
+    public Flux<UserImportResult> importUsers(Flux<String> lines, Format format) {
+        return Flux.defer(() -> {
+            Instant deadline = Instant.now().plus(properties.timeout());
+            return lines.index()
+                    .filter(line -> !line.getT2().isBlank() && !isHeader(line.getT1(), line.getT2(), format))
+                    .map(line -> parse(line.getT1() + 1, line.getT2().strip(), format))
+                    .buffer(properties.chunkSize())
+                    .concatMap(this::importChunk)
+                    .timeout(Mono.delay(properties.timeout()), result -> untilDeadline(deadline),
+                            Flux.error(() -> new TimeoutException("Import did not complete within "
+                                    + properties.timeout())));
+        });
+    }
+
+    /**
+     * Completes when the deadline of an import is reached.
+     *
+     * @param deadline The deadline.
+     * @return A Mono emitting at the deadline, immediately if it has passed.
+     */
+    private static Mono<Long> untilDeadline(Instant deadline) {
+        Duration remaining = Duration.between(Instant.now(), deadline);
+        return Mono.delay(remaining.isNegative() ? Duration.ZERO : remaining);
+    }
+
+    /**
+     * Saves the valid rows of a chunk in one transaction, falling back to row by row on failure.
+     *
+     * @param rows The parsed rows of the chunk.
+     * @return The results of the chunk in line order, emitted once the chunk is committed.
+     */
+    private Flux<UserImportResult> importChunk(List<ImportRow> rows) {
+        var valid = rows.stream().filter(row -> row.error() == null).toList();
+        var rejected = Flux.fromIterable(rows)
+                .filter(row -> row.error() != null)
+                .map(row -> failed(row.line(), row.error()));
+        var saved = valid.isEmpty() ? Flux.<UserImportResult>empty()
+                : userPersistence.saveAll(valid.stream().map(ImportRow::toUser).toList())
+                        .collectList()
+                        .flatMapIterable(users -> createdChunk(valid, users))
+                        .onErrorResume(DataAccessException.class, e -> Flux.fromIterable(valid)
+                                .concatMap(this::importRow));
+        return Flux.concat(rejected, saved)
+                .collectSortedList(Comparator.comparingLong(UserImportResult::getLine))
+                .doOnNext(this::publishImported)
+                .flatMapIterable(results -> results);
+    }
+
+    /**
+     * Saves a single row in its own transaction.
+     *
+     * @param row The parsed row.
+     * @return The result of the row.
+     */
+    private Mono<UserImportResult> importRow(ImportRow row) {
+        return userPersistence.save(row.toUser())
+                .map(user -> created(row.line(), user))
+                .onErrorResume(DataAccessException.class,
+                        e -> Mono.just(failed(row.line(), e.getMostSpecificCause().getMessage())));
+    }
+
+    /**
+     * Builds the results of a committed chunk.
+     *
+     * @param rows  The saved rows.
+     * @param users The saved users in row order.
+     * @return The results of the chunk.
+     */
+    private List<UserImportResult> createdChunk(List<ImportRow> rows, List<User> users) {
+        var results = new ArrayList<UserImportResult>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            results.add(created(rows.get(i).line(), users.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * Parses a line of the upload.
+     *
+     * @param line    The line number.
+     * @param content The content of the line.
+     * @param format  The format of the line.
+     * @return The parsed row, holding the error if the line is invalid.
+     */
+    private ImportRow parse(long line, String content, Format format) {
+        var row = format == Format.CSV ? parseCsv(line, content) : parseNdjson(line, content);
+        if (row.error() == null && (row.email() == null || row.email().isBlank())) {
+            return ImportRow.rejected(line, "email is required");
+        }
+        return row;
+    }
+
+    /**
+     * Parses an NDJSON line holding a user object.
+     *
+     * @param line    The line number.
+     * @param content The content of the line.
+     * @return The parsed row.
+     */
+    private ImportRow parseNdjson(long line, String content) {
+        try {
+            JsonNode node = objectMapper.readTree(content);
+            return new ImportRow(line, text(node, "firstName"), text(node, "lastName"), text(node, "email"), null);
+        } catch (JsonProcessingException e) {
+            return ImportRow.rejected(line, "malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Parses a CSV line with the columns firstName, lastName and email; quoting is not supported.
+     *
+     * @param line    The line number.
+     * @param content The content of the line.
+     * @return The parsed row.
+     */
+    private ImportRow parseCsv(long line, String content) {
+        var columns = content.split(",", -1);
+        if (columns.length != CSV_COLUMNS) {
+            return ImportRow.rejected(line, "expected " + CSV_COLUMNS + " columns: " + CSV_HEADER);
+        }
+        return new ImportRow(line, emptyToNull(columns[0]), emptyToNull(columns[1]), emptyToNull(columns[2]), null);
+    }
+
+    /**
+     * Publishes one event for the users created by a chunk, if any.
+     *
+     * @param results The results of the chunk.
+     */
+    private void publishImported(List<UserImportResult> results) {
+        int created = (int) results.stream()
+                .filter(result -> result.getStatus() == UserImportResult.Status.CREATED)
+                .count();
+        if (created > 0) {
+            eventPublisher.publishEvent(new UsersImportedEvent(created));
+        }
+    }
+
+    /**
+     * Tells whether a line is the CSV header.
+     *
+     * @param index   The zero-based index of the line.
+     * @param content The content of the line.
+     * @param format  The format of the upload.
+     * @return True for the header of a CSV upload.
+     */
+    private static boolean isHeader(long index, String content, Format format) {
+        return format == Format.CSV && index == 0 && CSV_HEADER.equalsIgnoreCase(content.replace(" ", "").strip());
+    }
+
+    /**
+     * Reads a text field of a JSON object.
+     *
+     * @param node  The JSON object.
+     * @param field The field name.
+     * @return The text or null if the field is missing.
+     */
+    private static String text(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+    /**
+     * Trims a CSV column.
+     *
+     * @param column The column.
+     * @return The trimmed column or null if it is empty.
+     */
+    private static String emptyToNull(String column) {
+        var trimmed = column.strip();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Builds the result of a created user.
+     *
+     * @param line The line number.
+     * @param user The created user.
+     * @return The result.
+     */
+    private static UserImportResult created(long line, User user) {
+        return UserImportResult.builder().line(line).status(UserImportResult.Status.CREATED).id(user.getId()).build();
+    }
+
+    /**
+     * Builds the result of a rejected row.
+     *
+     * @param line  The line number.
+     * @param error The reason.
+     * @return The result.
+     */
+    private static UserImportResult failed(long line, String error) {
+        return UserImportResult.builder().line(line).status(UserImportResult.Status.FAILED).error(error).build();
+    }
+
+    /**
+     * Formats of an upload.
+     */
+    public enum Format {
+        /**
+         * One JSON user object per line.
+         */
+        NDJSON,
+        /**
+         * Comma separated firstName, lastName and email, with an optional header line.
+         */
+        CSV
+    }
+
+    /**
+     * A parsed row of the upload.
+     *
+     * @param line      The line number.
+     * @param firstName The first name.
+     * @param lastName  The last name.
+     * @param email     The email.
+     * @param error     The reason the row is invalid, null for valid rows.
+     */
+    private record ImportRow(long line, String firstName, String lastName, String email, String error) {
+
+        /**
+         * Creates an invalid row.
+         *
+         * @param line  The line number.
+         * @param error The reason.
+         * @return The row.
+         */
+        static ImportRow rejected(long line, String error) {
+            return new ImportRow(line, null, null, null, error);
+        }
+
+        /**
+         * Creates a new user from the row, a fresh instance for every save attempt.
+         *
+         * @return The user.
+         */
+        User toUser() {
+            return User.builder().firstName(firstName).lastName(lastName).email(email).build();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.iprody.userprofile.userprofileservice.service;
+
+import com.iprody.userprofile.userprofileservice.entity.UserProfile;
+import com.iprody.userprofile.userprofileservice.persistence.UserProfilePersistence;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Service class for reading full profiles from the user_profile read model.
+ * The read model is updated in the transaction of every write of a user or user contact, so a profile is never
+ * older than the committed user and contact; it is read straight from the database, without a cache.
+ */
+@Service
+@AllArgsConstructor
+public class UserProfileService {
+
+    /**
+     * Injection of error message.
+     */
+    private static final String NOT_FOUND_MASSAGE = "Could not find profile of user with id ";
+
+    /**
+     * Injection of UserProfilePersistence.
+     */
+    private final UserProfilePersistence userProfilePersistence;
+
+    /**
+     * Find the profile of a user.
+     *
+     * @param userId The id of the user.
+     * @return The found profile.
+     */
+    public Mono<UserProfile> findByUserId(Long userId) {
+        return userProfilePersistence.findByUserId(userId)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException(NOT_FOUND_MASSAGE + userId)));
+    }
+}
@@ -1,12 +1,21 @@
 package com.iprody.userprofile.userprofileservice.service;
 
+import com.iprody.userprofile.userprofileservice.cache.ReadThroughCache;
+import com.iprody.userprofile.userprofileservice.config.UserListingProperties;
 import com.iprody.userprofile.userprofileservice.entity.User;
-import com.iprody.userprofile.userprofileservice.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangedEvent;
+import com.iprody.userprofile.userprofileservice.exception.PreconditionFailedException;
+import com.iprody.userprofile.userprofileservice.persistence.UserPersistence;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 /**
@@ -21,9 +30,29 @@ public class UserService {
      */
     private static final String NOT_FOUND_MASSAGE = "Could not find user with id ";
     /**
-     * Injection of UserRepository.
+     * Injection of UserPersistence.
      */
-    private final UserRepository userRepository;
+    private final UserPersistence userPersistence;
+
+    /**
+     * Injection of the users cache.
+     */
+    private final ReadThroughCache<Long, User> userCache;
+
+    /**
+     * Injection of the user ids by email cache.
+     */
+    private final ReadThroughCache<String, Long> userIdByEmailCache;
+
+    /**
+     * Injection of ApplicationEventPublisher.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Injection of the listing settings.
+     */
+    private final UserListingProperties listingProperties;
 
     /**
      * Creates a new user.
@@ -31,22 +60,90 @@ public class UserService {
      * @param user The user object to be created.
      * @return The created user object.
      */
-    @Transactional
     public Mono<User> createUser(User user) {
-        return Mono.just(userRepository.save(user));
+        return userPersistence.save(user)
+                .doOnNext(this::publishChange);
     }
 
     /**
-     * Find a user by id.
+     * Find a user by id, reading through the users cache.
      *
      * @param id The id of user object to be found.
      * @return The found user object.
      */
-    @Transactional
     public Mono<User> findUserById(Long id) {
-        var foundedUser = userRepository.findById(id);
-        return foundedUser.map(Mono::just).orElseGet(() ->
-                Mono.error(new  NoSuchElementException(NOT_FOUND_MASSAGE + id)));
+        return userCache.get(id)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException(NOT_FOUND_MASSAGE + id)));
+    }
+
+    /**
+     * Find a user by id in the database, bypassing the users cache.
+     * Used by conditional requests, whose answer must not come from an entry another instance has not yet
+     * invalidated.
+     *
+     * @param id The id of user object to be found.
+     * @return The found user object.
+     */
+    public Mono<User> findCurrentUserById(Long id) {
+        return userPersistence.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException(NOT_FOUND_MASSAGE + id)));
+    }
+
+    /**
+     * Find a user by email ignoring case, resolving the id cached for the email through the users cache.
+     * A cached id whose user no longer has the email is dropped and the email is looked up again.
+     *
+     * @param email The email of user object to be found.
+     * @return The found user object.
+     */
+    public Mono<User> findUserByEmail(String email) {
+        String key = email.toLowerCase(Locale.ROOT);
+        return userIdByEmailCache.get(key)
+                .flatMap(id -> userWithEmail(id, key)
+                        .switchIfEmpty(Mono.defer(() -> {
+                            userIdByEmailCache.invalidate(key);
+                            return userIdByEmailCache.get(key).flatMap(currentId -> userWithEmail(currentId, key));
+                        })))
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Could not find user with email " + email)));
+    }
+
+    /**
+     * Find several users by id with one round-trip, reading through the users cache.
+     * Only the ids missing from the cache are loaded, with a single query.
+     *
+     * @param ids The ids of the users to be found.
+     * @return The found users by id, ids that do not exist are absent.
+     */
+    public Mono<Map<Long, User>> findUsersByIds(Collection<Long> ids) {
+        return userCache.getAll(ids);
+    }
+
+    /**
+     * Lists one page of users in ascending id order.
+     *
+     * @param afterId The id to start after, null for the first page.
+     * @param limit   The page size, null for the default; capped at the maximum page size.
+     * @return The users of the page.
+     */
+    public Mono<List<User>> listUsers(Long afterId, Integer limit) {
+        var pageSize = limit == null ? listingProperties.defaultLimit()
+                : Math.max(1, Math.min(limit, listingProperties.maxLimit()));
+        return userPersistence.findPage(afterId == null ? 0L : afterId, pageSize).collectList();
+    }
+
+    /**
+     * Streams all users in ascending id order.
+     * Pages of the maximum page size are read one after the other, each seeking past the last id of the
+     * previous one, so memory stays constant and the next page is only read once the previous one is consumed.
+     *
+     * @return All users.
+     */
+    public Flux<User> streamUsers() {
+        var pageSize = listingProperties.maxLimit();
+        return userPersistence.findPage(0L, pageSize).collectList()
+                .expand(page -> page.size() < pageSize ? Mono.empty()
+                        : userPersistence.findPage(page.get(page.size() - 1).getId(), pageSize).collectList())
+                .concatMapIterable(page -> page);
     }
 
     /**
@@ -56,18 +153,93 @@ public class UserService {
      * @param updatedUser The user object to be updated.
      * @return The updated user object.
      */
-    @Transactional
     public Mono<User> updateUser(Long id, User updatedUser) {
-        var userOptional = userRepository.findById(id);
-        if (userOptional.isPresent()) {
-            var existingUser = userOptional.get();
-            existingUser.setFirstName(updatedUser.getFirstName());
-            existingUser.setLastName(updatedUser.getLastName());
-            existingUser.setEmail(updatedUser.getEmail());
-            return Mono.just(userRepository.save(existingUser));
-        } else {
-            return Mono.error(new NoSuchElementException(NOT_FOUND_MASSAGE + id));
+        return userPersistence.update(id, existingUser -> {
+                    existingUser.setFirstName(updatedUser.getFirstName());
+                    existingUser.setLastName(updatedUser.getLastName());
+                    existingUser.setEmail(updatedUser.getEmail());
+                })
+                .doOnNext(this::publishChange)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException(NOT_FOUND_MASSAGE + id)));
+    }
+
+    /**
+     * Update a user by id if it still has the expected version.
+     * The user is overwritten with one statement that checks the version, without reading it first; it is only
+     * read when no row was updated, to tell a missing user from a concurrent change.
+     *
+     * @param id              The id of user object to be updated.
+     * @param updatedUser     The user object to be updated.
+     * @param expectedVersion The version the client read, null to update whatever the version is.
+     * @return The updated user object.
+     */
+    public Mono<User> updateUser(Long id, User updatedUser, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return updateUser(id, updatedUser);
+        }
+        return userPersistence.updateIfVersion(id, expectedVersion, updatedUser)
+                .doOnNext(this::publishChange)
+                .switchIfEmpty(Mono.defer(() -> notUpdated(id, expectedVersion)));
+    }
+
+    /**
+     * Set only the given fields of a user, with one statement and without reading it first.
+     * An empty patch changes nothing and returns the user read from the database, not from the cache, still
+     * checking the expected version.
+     *
+     * @param id              The id of user object to be updated.
+     * @param changes         The new values by field; null clears the field.
+     * @param expectedVersion The version the client read, null to update whatever the version is.
+     * @return The updated user object.
+     */
+    public Mono<User> patchUser(Long id, Map<String, String> changes, Long expectedVersion) {
+        if (changes.isEmpty()) {
+            return findCurrentUserById(id)
+                    .filter(user -> expectedVersion == null || expectedVersion.equals(user.getVersion()))
+                    .switchIfEmpty(Mono.defer(() -> notUpdated(id, expectedVersion)));
         }
+        return userPersistence.patch(id, expectedVersion, changes)
+                .doOnNext(this::publishChange)
+                .switchIfEmpty(Mono.defer(() -> notUpdated(id, expectedVersion)));
+    }
+
+    /**
+     * Reads a user through the users cache, if it still has an email.
+     *
+     * @param id    The id of the user.
+     * @param email The lower-cased email.
+     * @return The user, or an empty Mono if it does not exist or has another email.
+     */
+    private Mono<User> userWithEmail(Long id, String email) {
+        return userCache.get(id)
+                .filter(user -> user.getEmail() != null && email.equals(user.getEmail().toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Tells why a conditional update wrote no row, reading the user only when a version was expected.
+     *
+     * @param id              The id of the user.
+     * @param expectedVersion The expected version, null if any version was accepted.
+     * @return An error, PreconditionFailedException if the user has another version.
+     */
+    private Mono<User> notUpdated(Long id, Long expectedVersion) {
+        Mono<User> notFound = Mono.error(() -> new NoSuchElementException(NOT_FOUND_MASSAGE + id));
+        if (expectedVersion == null) {
+            return notFound;
+        }
+        return userPersistence.findById(id)
+                .flatMap(current -> Mono.<User>error(new PreconditionFailedException("User " + id
+                        + " has version " + current.getVersion() + ", not " + expectedVersion)))
+                .switchIfEmpty(notFound);
+    }
+
+    /**
+     * Publishes the committed change, which invalidates the caches.
+     *
+     * @param user The written user.
+     */
+    private void publishChange(User user) {
+        eventPublisher.publishEvent(new ProfileChangedEvent(ProfileChangedEvent.Type.USER, user.getId(), user.getId()));
     }
 
 }
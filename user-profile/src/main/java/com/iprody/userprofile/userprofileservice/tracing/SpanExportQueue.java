@@ -0,0 +1,194 @@
+package com.iprody.userprofile.userprofileservice.tracing;
+
+import com.iprody.userprofile.userprofileservice.config.TracingExportProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded queue of spans exported in batches by a background thread, so request threads never wait on the exporter.
+ * Spans offered while the queue is full are dropped. Exported, dropped and failed spans are counted by the
+ * user.profile.tracing.spans counter and the queue depth is published as a gauge.
+ */
+public class SpanExportQueue {
+
+    /**
+     * Name of the span counter.
+     */
+    static final String SPANS_METRIC = "user.profile.tracing.spans";
+
+    /**
+     * Name of the outcome tag.
+     */
+    static final String OUTCOME_TAG = "outcome";
+
+    /**
+     * Queue of spans waiting for export.
+     */
+    private final BlockingQueue<SpanData> queue;
+
+    /**
+     * Exporter the batches are sent to.
+     */
+    private final SpanExporter exporter;
+
+    /**
+     * The queue settings.
+     */
+    private final TracingExportProperties properties;
+
+    /**
+     * Thread exporting the batches.
+     */
+    private final Thread worker;
+
+    /**
+     * Counter of exported spans.
+     */
+    private final Counter exported;
+
+    /**
+     * Counter of spans dropped because the queue was full.
+     */
+    private final Counter dropped;
+
+    /**
+     * Counter of spans whose export failed.
+     */
+    private final Counter failed;
+
+    /**
+     * Whether the worker keeps running.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Constructor for class, starts the export thread.
+     *
+     * @param exporter      The exporter the batches are sent to.
+     * @param properties    The queue settings.
+     * @param meterRegistry The Micrometer registry.
+     */
+    public SpanExportQueue(final SpanExporter exporter, final TracingExportProperties properties,
+                           final MeterRegistry meterRegistry) {
+        this.exporter = exporter;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.exported = spanCounter("exported", meterRegistry);
+        this.dropped = spanCounter("dropped", meterRegistry);
+        this.failed = spanCounter("failed", meterRegistry);
+        Gauge.builder("user.profile.tracing.queue.depth", queue, BlockingQueue::size)
+                .description("Spans waiting for export")
+                .register(meterRegistry);
+        this.worker = Thread.ofPlatform().name("span-export").daemon(true).start(this::run);
+    }
+
+    /**
+     * Creates the counter of an outcome.
+     *
+     * @param outcome       The outcome.
+     * @param meterRegistry The Micrometer registry.
+     * @return The counter.
+     */
+    static Counter spanCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder(SPANS_METRIC)
+                .description("Ended spans by what happened to them")
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues spans for export, dropping those that do not fit.
+     *
+     * @param spans The spans.
+     */
+    public void offer(Collection<SpanData> spans) {
+        for (SpanData span : spans) {
+            if (!queue.offer(span)) {
+                dropped.increment();
+            }
+        }
+    }
+
+    /**
+     * Exports the queued spans on the calling thread.
+     *
+     * @return The result of the exporter flush.
+     */
+    public CompletableResultCode flush() {
+        List<SpanData> batch = new ArrayList<>();
+        while (queue.drainTo(batch, properties.batchSize()) > 0) {
+            export(batch);
+            batch.clear();
+        }
+        return exporter.flush();
+    }
+
+    /**
+     * Stops the export thread once the queued spans are exported, then shuts the exporter down.
+     *
+     * @return The result of the exporter shutdown.
+     */
+    public CompletableResultCode shutdown() {
+        running = false;
+        try {
+            worker.join(properties.exportInterval().plus(properties.exportTimeout()).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return exporter.shutdown();
+    }
+
+    /**
+     * Export loop: a batch is sent once it is full or its first span waited for the export interval.
+     */
+    private void run() {
+        List<SpanData> batch = new ArrayList<>(properties.batchSize());
+        long deadline = 0;
+        while (running || !queue.isEmpty()) {
+            try {
+                long wait = batch.isEmpty() ? properties.exportInterval().toNanos() : deadline - System.nanoTime();
+                SpanData span = queue.poll(Math.max(wait, 0), TimeUnit.NANOSECONDS);
+                if (span != null) {
+                    if (batch.isEmpty()) {
+                        deadline = System.nanoTime() + properties.exportInterval().toNanos();
+                    }
+                    batch.add(span);
+                    queue.drainTo(batch, properties.batchSize() - batch.size());
+                }
+                if (!batch.isEmpty() && (batch.size() >= properties.batchSize() || System.nanoTime() >= deadline
+                        || !running)) {
+                    export(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (!batch.isEmpty()) {
+            export(batch);
+        }
+    }
+
+    /**
+     * Sends a batch to the exporter and waits for the result.
+     *
+     * @param batch The spans.
+     */
+    private void export(List<SpanData> batch) {
+        CompletableResultCode result = exporter.export(new ArrayList<>(batch))
+                .join(properties.exportTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        (result.isSuccess() ? exported : failed).increment(batch.size());
+    }
+}
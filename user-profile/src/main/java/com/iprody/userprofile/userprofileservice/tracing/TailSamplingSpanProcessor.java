@@ -0,0 +1,281 @@
+package com.iprody.userprofile.userprofileservice.tracing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.iprody.userprofile.userprofileservice.config.TracingExportProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Decides which traces are exported once their local root span has ended, when the outcome is known.
+ * The spans of a trace are held until its local root ends; the whole trace is then exported when one of its spans
+ * failed, when the root took at least the slow threshold, or when its trace id falls within the base rate.
+ * Spans ending after their root follow the decision taken for the trace. Held spans are bounded by number of
+ * traces, spans per trace and age, and the exported traces go to a bounded {@link SpanExportQueue}.
+ */
+public class TailSamplingSpanProcessor implements SpanProcessor {
+
+    /**
+     * Number of hex digits of the random part of a trace id.
+     */
+    private static final int TRACE_ID_RANDOM_DIGITS = 16;
+
+    /**
+     * Name of the OpenTelemetry exception event.
+     */
+    private static final String EXCEPTION_EVENT = "exception";
+
+    /**
+     * Spans of the traces whose local root has not ended yet, by trace id.
+     */
+    private final Cache<String, List<SpanData>> pending;
+
+    /**
+     * Decisions taken for traces whose local root has ended, by trace id.
+     */
+    private final Cache<String, Boolean> decisions;
+
+    /**
+     * Queue the exported spans are sent to.
+     */
+    private final SpanExportQueue exportQueue;
+
+    /**
+     * The sampling settings.
+     */
+    private final TracingExportProperties properties;
+
+    /**
+     * Trace ids whose random part is below this bound are within the base rate.
+     */
+    private final long baseRateBound;
+
+    /**
+     * Counter of spans that are not exported.
+     */
+    private final Counter unsampled;
+
+    /**
+     * Counter of held spans dropped because their trace was too large, too old or too many traces were held.
+     */
+    private final Counter evicted;
+
+    /**
+     * Constructor for class.
+     *
+     * @param exportQueue   The queue the exported spans are sent to.
+     * @param properties    The sampling settings.
+     * @param meterRegistry The Micrometer registry.
+     */
+    public TailSamplingSpanProcessor(final SpanExportQueue exportQueue, final TracingExportProperties properties,
+                                     final MeterRegistry meterRegistry) {
+        this.exportQueue = exportQueue;
+        this.properties = properties;
+        this.baseRateBound = (long) (Math.min(Math.max(properties.baseRate(), 0), 1) * Long.MAX_VALUE);
+        this.unsampled = SpanExportQueue.spanCounter("unsampled", meterRegistry);
+        this.evicted = SpanExportQueue.spanCounter("evicted", meterRegistry);
+        this.pending = Caffeine.newBuilder()
+                .maximumSize(properties.maxPendingTraces())
+                .expireAfterWrite(properties.pendingTimeout())
+                .scheduler(Scheduler.systemScheduler())
+                .<String, List<SpanData>>evictionListener((traceId, spans, cause) -> onEvicted(spans, cause))
+                .build();
+        this.decisions = Caffeine.newBuilder()
+                .maximumSize(properties.maxPendingTraces())
+                .expireAfterWrite(properties.pendingTimeout())
+                .build();
+    }
+
+    /**
+     * Nothing is done when a span starts.
+     *
+     * @param parentContext The parent context.
+     * @param span          The started span.
+     */
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        // decisions are taken when spans end
+    }
+
+    /**
+     * Spans are not seen on start.
+     *
+     * @return false.
+     */
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    /**
+     * Holds the ended span, or decides for its trace when it is the local root.
+     * The decision of a trace is stored before its held spans are removed, both within the same atomic update of
+     * the held trace, so a span ending concurrently either is taken with the held spans or sees the decision.
+     *
+     * @param span The ended span.
+     */
+    @Override
+    public void onEnd(ReadableSpan span) {
+        SpanData spanData = span.toSpanData();
+        SpanContext parent = spanData.getParentSpanContext();
+        if (!parent.isValid() || parent.isRemote()) {
+            onRootEnd(spanData);
+            return;
+        }
+        String traceId = spanData.getTraceId();
+        AtomicReference<Boolean> decision = new AtomicReference<>(decisions.getIfPresent(traceId));
+        if (decision.get() == null) {
+            pending.asMap().compute(traceId, (id, spans) -> {
+                decision.set(decisions.getIfPresent(id));
+                return decision.get() == null ? hold(spans, spanData) : spans;
+            });
+        }
+        if (decision.get() != null) {
+            send(List.of(spanData), decision.get() || isError(spanData));
+        }
+    }
+
+    /**
+     * Decides for the trace of an ended local root and sends its held spans along with the root.
+     *
+     * @param root The ended local root span.
+     */
+    private void onRootEnd(SpanData root) {
+        List<SpanData> spans = new ArrayList<>();
+        AtomicBoolean export = new AtomicBoolean();
+        pending.asMap().compute(root.getTraceId(), (id, held) -> {
+            if (held != null) {
+                spans.addAll(held);
+            }
+            spans.add(root);
+            export.set(isWithinBaseRate(id) || isSlow(root)
+                    || spans.stream().anyMatch(TailSamplingSpanProcessor::isError));
+            decisions.put(id, export.get());
+            return null;
+        });
+        send(spans, export.get());
+    }
+
+    /**
+     * Adds an ended span to the held spans of its trace, unless the trace already holds the maximum.
+     *
+     * @param spans    The held spans of the trace, null if none.
+     * @param spanData The ended span.
+     * @return The held spans of the trace.
+     */
+    private List<SpanData> hold(List<SpanData> spans, SpanData spanData) {
+        List<SpanData> held = spans == null ? new ArrayList<>() : spans;
+        if (held.size() < properties.maxSpansPerTrace()) {
+            held.add(spanData);
+        } else {
+            evicted.increment();
+        }
+        return held;
+    }
+
+    /**
+     * Spans are seen on end.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    /**
+     * Exports the queued spans.
+     *
+     * @return The result of the flush.
+     */
+    @Override
+    public CompletableResultCode forceFlush() {
+        return exportQueue.flush();
+    }
+
+    /**
+     * Drops the held spans and stops the export queue.
+     *
+     * @return The result of the shutdown.
+     */
+    @Override
+    public CompletableResultCode shutdown() {
+        pending.invalidateAll();
+        return exportQueue.shutdown();
+    }
+
+    /**
+     * Sends spans to the export queue or counts them as not exported.
+     *
+     * @param spans  The spans.
+     * @param export Whether the spans are exported.
+     */
+    private void send(List<SpanData> spans, boolean export) {
+        if (export) {
+            exportQueue.offer(spans);
+        } else {
+            unsampled.increment(spans.size());
+        }
+    }
+
+    /**
+     * Counts the spans of a trace dropped from the held traces.
+     *
+     * @param spans The spans.
+     * @param cause The cause of the eviction.
+     */
+    private void onEvicted(List<SpanData> spans, RemovalCause cause) {
+        if (spans != null && cause.wasEvicted()) {
+            evicted.increment(spans.size());
+        }
+    }
+
+    /**
+     * Tells whether a trace is within the base rate; the decision only depends on the trace id, so that all the
+     * instances taking part in a trace agree on it.
+     *
+     * @param traceId The trace id.
+     * @return Whether the trace is within the base rate.
+     */
+    private boolean isWithinBaseRate(String traceId) {
+        long random = Long.parseUnsignedLong(traceId.substring(traceId.length() - TRACE_ID_RANDOM_DIGITS),
+                TRACE_ID_RANDOM_DIGITS) >>> 1;
+        return random < baseRateBound;
+    }
+
+    /**
+     * Tells whether a span took at least the slow threshold.
+     *
+     * @param span The span.
+     * @return Whether the span is slow.
+     */
+    private boolean isSlow(SpanData span) {
+        return span.getEndEpochNanos() - span.getStartEpochNanos() >= properties.slowThreshold().toNanos();
+    }
+
+    /**
+     * Tells whether a span failed.
+     *
+     * @param span The span.
+     * @return Whether the span has an error status or recorded an exception.
+     */
+    private static boolean isError(SpanData span) {
+        return span.getStatus().getStatusCode() == StatusCode.ERROR
+                || span.getEvents().stream().anyMatch(event -> EXCEPTION_EVENT.equals(event.getName()));
+    }
+}
@@ -1,27 +1,19 @@
 package com.iprody.userprofile.userprofileservice.util;
 
-import org.modelmapper.ModelMapper;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
- * Utility class for mapping objects using ModelMapper.
+ * Utility class for mapping lists of objects.
+ * Single objects are mapped by the MapStruct mappers of the mapper package.
  */
-@Configuration
-public class MapperUtil {
+public final class MapperUtil {
 
     /**
-     * Provides a bean for ModelMapper.
-     *
-     * @return An instance of ModelMapper.
+     * Utility class, not instantiated.
      */
-    @Bean
-    public ModelMapper getMapper() {
-        return new ModelMapper();
+    private MapperUtil() {
     }
 
     /**
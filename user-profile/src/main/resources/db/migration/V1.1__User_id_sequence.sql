@@ -0,0 +1,2 @@
+-- Hibernate reserves blocks of 50 ids per nextval call (pooled optimizer), which enables batched inserts
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
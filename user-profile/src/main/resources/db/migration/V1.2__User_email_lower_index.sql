@@ -0,0 +1,2 @@
+-- Email lookups ignore case, so uniqueness and the lookup index are both on lower(email)
+CREATE UNIQUE INDEX users_email_lower_idx ON users (lower(email));
@@ -0,0 +1,27 @@
+-- user_contact was only ever created by Hibernate (ddl-auto=create), the schema is now owned by the migrations alone.
+-- IF NOT EXISTS skips the objects Hibernate already created; the sequence it created is realigned below.
+CREATE SEQUENCE IF NOT EXISTS user_contact_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS user_contact
+(
+    id           BIGINT NOT NULL
+        CONSTRAINT user_contact_pkey
+            PRIMARY KEY,
+    telegram_id  VARCHAR(255),
+    mobile_phone VARCHAR(255),
+    user_id      BIGINT
+        CONSTRAINT user_contact_user_id_key
+            UNIQUE
+        CONSTRAINT user_contact_user_id_fkey
+            REFERENCES users (id)
+);
+
+-- Hibernate created the id as an identity column, whose sequence of the same name increments by 1. The pooled
+-- optimizer reserves the 50 ids ending with each nextval value, so the sequence is moved a block past the used ids.
+ALTER SEQUENCE user_contact_id_seq INCREMENT BY 50;
+SELECT setval('user_contact_id_seq', max(id) + 50)
+FROM user_contact
+HAVING max(id) IS NOT NULL;
+
+-- ddl-auto=create recreated the users table without the case-insensitive email index of V1.2
+CREATE UNIQUE INDEX IF NOT EXISTS users_email_lower_idx ON users (lower(email));
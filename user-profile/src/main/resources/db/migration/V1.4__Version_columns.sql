@@ -0,0 +1,3 @@
+-- Row versions for optimistic concurrency, incremented by every update and exposed as the ETag of the resource
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE user_contact ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
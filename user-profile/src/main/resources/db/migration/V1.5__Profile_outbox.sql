@@ -0,0 +1,58 @@
+-- Transactional outbox of profile changes, written by triggers in the transaction of every insert and update of a
+-- user or user contact, whichever persistence (JPA, R2DBC, native statement or batch) performs the write.
+-- tx_id is the id of the writing transaction: rows of transactions older than the oldest running one can no longer
+-- appear, so consumers page through the table in (tx_id, id) order without ever skipping a late commit.
+CREATE TABLE profile_outbox
+(
+    id             BIGINT GENERATED ALWAYS AS IDENTITY
+        CONSTRAINT profile_outbox_pkey
+            PRIMARY KEY,
+    tx_id          BIGINT      NOT NULL DEFAULT pg_current_xact_id()::text::bigint,
+    aggregate_type VARCHAR(32) NOT NULL,
+    aggregate_id   BIGINT      NOT NULL,
+    user_id        BIGINT,
+    operation      VARCHAR(16) NOT NULL,
+    version        BIGINT      NOT NULL,
+    payload        JSONB       NOT NULL,
+    created_at     TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX profile_outbox_tx_id_id_idx ON profile_outbox (tx_id, id);
+
+-- The payloads carry the fields of UserDto and UserContactDto
+CREATE FUNCTION profile_outbox_user() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    INSERT INTO profile_outbox (aggregate_type, aggregate_id, user_id, operation, version, payload)
+    VALUES ('USER', NEW.id, NEW.id, CASE TG_OP WHEN 'INSERT' THEN 'CREATED' ELSE 'UPDATED' END, NEW.version,
+            jsonb_build_object('id', NEW.id, 'firstName', NEW.first_name, 'lastName', NEW.last_name,
+                               'email', NEW.email, 'version', NEW.version));
+    RETURN NULL;
+END
+$$;
+
+CREATE FUNCTION profile_outbox_user_contact() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    INSERT INTO profile_outbox (aggregate_type, aggregate_id, user_id, operation, version, payload)
+    VALUES ('USER_CONTACT', NEW.id, NEW.user_id, CASE TG_OP WHEN 'INSERT' THEN 'CREATED' ELSE 'UPDATED' END,
+            NEW.version,
+            jsonb_build_object('id', NEW.id, 'telegramId', NEW.telegram_id, 'mobilePhone', NEW.mobile_phone,
+                               'userId', NEW.user_id, 'version', NEW.version));
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER users_profile_outbox
+    AFTER INSERT OR UPDATE
+    ON users
+    FOR EACH ROW
+EXECUTE FUNCTION profile_outbox_user();
+
+CREATE TRIGGER user_contact_profile_outbox
+    AFTER INSERT OR UPDATE
+    ON user_contact
+    FOR EACH ROW
+EXECUTE FUNCTION profile_outbox_user_contact();
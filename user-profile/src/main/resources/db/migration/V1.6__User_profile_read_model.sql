@@ -0,0 +1,79 @@
+-- Denormalized read model of the full profile, one row per user with the columns of its user contact.
+-- Triggers keep it in step with users and user_contact in the transaction of every write, whichever persistence
+-- performs it, so the combined profile is read with a single primary key lookup.
+CREATE TABLE user_profile
+(
+    user_id         BIGINT NOT NULL
+        CONSTRAINT user_profile_pkey
+            PRIMARY KEY,
+    first_name      VARCHAR(50),
+    last_name       VARCHAR(50),
+    email           VARCHAR(255),
+    user_version    BIGINT NOT NULL,
+    contact_id      BIGINT,
+    telegram_id     VARCHAR(255),
+    mobile_phone    VARCHAR(255),
+    contact_version BIGINT
+);
+
+INSERT INTO user_profile (user_id, first_name, last_name, email, user_version, contact_id, telegram_id,
+                          mobile_phone, contact_version)
+SELECT u.id, u.first_name, u.last_name, u.email, u.version, c.id, c.telegram_id, c.mobile_phone, c.version
+FROM users u
+         LEFT JOIN user_contact c ON c.user_id = u.id;
+
+CREATE FUNCTION user_profile_user() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM user_profile WHERE user_id = OLD.id;
+        RETURN NULL;
+    END IF;
+    INSERT INTO user_profile (user_id, first_name, last_name, email, user_version)
+    VALUES (NEW.id, NEW.first_name, NEW.last_name, NEW.email, NEW.version)
+    ON CONFLICT (user_id) DO UPDATE SET first_name   = EXCLUDED.first_name,
+                                        last_name    = EXCLUDED.last_name,
+                                        email        = EXCLUDED.email,
+                                        user_version = EXCLUDED.user_version;
+    RETURN NULL;
+END
+$$;
+
+-- A contact moved to another user or deleted is cleared from the row of its previous user
+CREATE FUNCTION user_profile_user_contact() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' OR (TG_OP = 'UPDATE' AND OLD.user_id IS DISTINCT FROM NEW.user_id) THEN
+        UPDATE user_profile
+        SET contact_id      = NULL,
+            telegram_id     = NULL,
+            mobile_phone    = NULL,
+            contact_version = NULL
+        WHERE user_id = OLD.user_id
+          AND contact_id = OLD.id;
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        UPDATE user_profile
+        SET contact_id      = NEW.id,
+            telegram_id     = NEW.telegram_id,
+            mobile_phone    = NEW.mobile_phone,
+            contact_version = NEW.version
+        WHERE user_id = NEW.user_id;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER users_user_profile
+    AFTER INSERT OR UPDATE OR DELETE
+    ON users
+    FOR EACH ROW
+EXECUTE FUNCTION user_profile_user();
+
+CREATE TRIGGER user_contact_user_profile
+    AFTER INSERT OR UPDATE OR DELETE
+    ON user_contact
+    FOR EACH ROW
+EXECUTE FUNCTION user_profile_user_contact();
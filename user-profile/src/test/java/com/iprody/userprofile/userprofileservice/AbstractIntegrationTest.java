@@ -3,8 +3,12 @@ package com.iprody.userprofile.userprofileservice;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
@@ -19,6 +23,7 @@ import org.testcontainers.utility.DockerImageName;
  * RandomPort web environment. It also configures a PostgresSQL test container using Testcontainers
  * to provide a database for integration tests. AutoConfigureMockMvc is used to automatically
  * configure MockMvc for testing Spring MVC controllers.
+ * Every test class starts from an empty database migrated by Flyway, as the container is shared by all of them.
  */
 @ActiveProfiles("test")
 @ExtendWith(SpringExtension.class)
@@ -26,6 +31,7 @@ import org.testcontainers.utility.DockerImageName;
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Import(AbstractIntegrationTest.CleanDatabaseConfig.class)
 public abstract class AbstractIntegrationTest {
 
     /**
@@ -41,7 +47,8 @@ public abstract class AbstractIntegrationTest {
 
     /**
      * Method to dynamically set PostgresSQL properties for Spring Boot.
-     * It configures datasource URL, username, and password using dynamic properties.
+     * It configures datasource and R2DBC URL, username, and password using dynamic properties, and allows
+     * {@link CleanDatabaseConfig} to clean the database.
      * @param registry DynamicPropertyRegistry to register dynamic properties.
      */
     @DynamicPropertySource
@@ -49,5 +56,30 @@ public abstract class AbstractIntegrationTest {
         registry.add("spring.datasource.url", CONTAINER::getJdbcUrl);
         registry.add("spring.datasource.password", CONTAINER::getPassword);
         registry.add("spring.datasource.username", CONTAINER::getUsername);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + CONTAINER.getHost() + ":"
+                + CONTAINER.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + CONTAINER.getDatabaseName());
+        registry.add("spring.r2dbc.password", CONTAINER::getPassword);
+        registry.add("spring.r2dbc.username", CONTAINER::getUsername);
+        registry.add("spring.flyway.clean-disabled", () -> false);
+    }
+
+    /**
+     * Recreates the schema of the shared container whenever a test context starts.
+     */
+    @TestConfiguration
+    static class CleanDatabaseConfig {
+
+        /**
+         * Cleans the database before migrating it.
+         *
+         * @return The clean-then-migrate strategy.
+         */
+        @Bean
+        FlywayMigrationStrategy cleanMigrationStrategy() {
+            return flyway -> {
+                flyway.clean();
+                flyway.migrate();
+            };
+        }
     }
 }
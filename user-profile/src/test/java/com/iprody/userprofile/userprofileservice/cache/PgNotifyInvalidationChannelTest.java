@@ -0,0 +1,89 @@
+package com.iprody.userprofile.userprofileservice.cache;
+
+import com.iprody.userprofile.userprofileservice.AbstractIntegrationTest;
+import com.iprody.userprofile.userprofileservice.entity.User;
+import com.iprody.userprofile.userprofileservice.service.UserService;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This class contains integration tests for the invalidation of the local caches by notifications of other
+ * instances, sent from a connection of its own.
+ */
+@TestPropertySource(properties = "user-profile.cache.invalidation.enabled=true")
+class PgNotifyInvalidationChannelTest extends AbstractIntegrationTest {
+
+    private static final String TEST_FIRST_NAME = "notifyFirstName";
+    private static final String TEST_LAST_NAME = "notifyLastName";
+    private static final String CHANGED_LAST_NAME = "changedLastName";
+    private static final String TEST_EMAIL = "notify@mail.ru";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Opens a connection of its own, standing for another instance.
+     *
+     * @return The connection.
+     * @throws SQLException If the connection fails.
+     */
+    private Connection otherInstance() throws SQLException {
+        return DriverManager.getConnection(CONTAINER.getJdbcUrl(), CONTAINER.getUsername(), CONTAINER.getPassword());
+    }
+
+    /**
+     * Tells whether the listener connection has subscribed to the channel.
+     *
+     * @return True once a backend has run LISTEN.
+     * @throws SQLException If the query fails.
+     */
+    private boolean isListening() throws SQLException {
+        try (Connection connection = otherInstance();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT count(*) FROM pg_stat_activity WHERE query LIKE 'LISTEN %'")) {
+            resultSet.next();
+            return resultSet.getLong(1) > 0;
+        }
+    }
+
+    /**
+     * Test method to verify that a NOTIFY from another connection evicts the cached user, which is then read
+     * again with the change that connection made.
+     *
+     * @throws SQLException If the other connection fails.
+     */
+    @Test
+    @Order(1)
+    public void givenNotifyFromOtherInstance_ThenCachedUserIsEvicted() throws SQLException {
+        await().atMost(TIMEOUT).until(this::isListening);
+        User user = userService.createUser(User.builder().firstName(TEST_FIRST_NAME).lastName(TEST_LAST_NAME)
+                .email(TEST_EMAIL).build()).block();
+        userService.findUserById(user.getId()).block();
+
+        try (Connection connection = otherInstance(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE users SET last_name = '" + CHANGED_LAST_NAME
+                    + "', version = version + 1 WHERE id = " + user.getId());
+            assertEquals(TEST_LAST_NAME, userService.findUserById(user.getId()).block().getLastName());
+
+            statement.execute("SELECT pg_notify('profile_cache_invalidation', 'other-instance:USER:"
+                    + user.getId() + "')");
+        }
+
+        await().atMost(TIMEOUT).until(() -> CHANGED_LAST_NAME.equals(
+                userService.findUserById(user.getId()).block().getLastName()));
+    }
+}
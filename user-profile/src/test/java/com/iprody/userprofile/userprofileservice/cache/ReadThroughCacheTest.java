@@ -0,0 +1,107 @@
+package com.iprody.userprofile.userprofileservice.cache;
+
+import com.iprody.userprofile.userprofileservice.config.ProfileCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This class contains unit tests for ReadThroughCache, backed by an in-memory map.
+ */
+class ReadThroughCacheTest {
+
+    private static final long KEY = 1L;
+    private static final long OTHER_KEY = 2L;
+    private static final String VALUE = "value";
+    private static final String UPDATED_VALUE = "updated";
+    private static final long MAXIMUM_SIZE = 100;
+    private static final Duration LONG_TTL = Duration.ofMinutes(10);
+    private static final Duration SHORT_TTL = Duration.ofMillis(100);
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final Map<Long, String> database = new ConcurrentHashMap<>(Map.of(KEY, VALUE, OTHER_KEY, VALUE));
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    /**
+     * Creates a cache of mutable values loaded from the map, counting the loads.
+     *
+     * @param expireAfterWrite The time after which an entry is dropped.
+     * @return The cache.
+     */
+    private ReadThroughCache<Long, StringBuilder> createCache(Duration expireAfterWrite) {
+        return new ReadThroughCache<>("test", new ProfileCacheProperties.Region(MAXIMUM_SIZE, expireAfterWrite,
+                LONG_TTL), key -> Mono.fromSupplier(() -> {
+                    loads.incrementAndGet();
+                    return database.containsKey(key) ? new StringBuilder(database.get(key)) : null;
+                }), StringBuilder::new, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Test method to verify that every reader gets its own copy, so changing it leaves the cached value intact.
+     */
+    @Test
+    public void testValuesAreCopies() {
+        ReadThroughCache<Long, StringBuilder> cache = createCache(LONG_TTL);
+
+        cache.get(KEY).block().append(UPDATED_VALUE);
+        cache.getAll(List.of(KEY, OTHER_KEY)).block().values().forEach(value -> value.append(UPDATED_VALUE));
+
+        assertEquals(VALUE, cache.get(KEY).block().toString());
+        assertEquals(VALUE, cache.get(OTHER_KEY).block().toString());
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Test method to verify that an invalidated entry, as after an update, is loaded again.
+     */
+    @Test
+    public void testInvalidatedEntryIsReloaded() {
+        ReadThroughCache<Long, StringBuilder> cache = createCache(LONG_TTL);
+        cache.get(KEY).block();
+
+        database.put(KEY, UPDATED_VALUE);
+        assertEquals(VALUE, cache.get(KEY).block().toString());
+        cache.invalidate(KEY);
+
+        assertEquals(UPDATED_VALUE, cache.get(KEY).block().toString());
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Test method to verify that an entry removed from the source, as after a delete, is no longer returned
+     * once invalidated.
+     */
+    @Test
+    public void testInvalidatedEntryOfRemovedValueIsAbsent() {
+        ReadThroughCache<Long, StringBuilder> cache = createCache(LONG_TTL);
+        cache.get(KEY).block();
+
+        database.remove(KEY);
+        cache.invalidateIf(value -> VALUE.contentEquals(value));
+
+        assertEquals(Map.of(), cache.getAll(List.of(KEY)).block());
+    }
+
+    /**
+     * Test method to verify that an entry is loaded again once its time to live has passed.
+     */
+    @Test
+    public void testEntryExpiresAfterWrite() {
+        ReadThroughCache<Long, StringBuilder> cache = createCache(SHORT_TTL);
+        cache.get(KEY).block();
+        database.put(KEY, UPDATED_VALUE);
+
+        await().atMost(TIMEOUT).until(() -> UPDATED_VALUE.contentEquals(cache.get(KEY).block()));
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,169 @@
+package com.iprody.userprofile.userprofileservice.controller;
+
+import com.iprody.userprofile.userprofileservice.AbstractIntegrationTest;
+import com.iprody.userprofile.userprofileservice.dto.UserDto;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This class contains integration tests for the change feed endpoints, with a single subscription to user changes.
+ */
+@TestPropertySource(properties = "user-profile.change-feed.max-user-subscriptions=1")
+public class ProfileChangeControllerTest extends AbstractIntegrationTest {
+
+    private static final String CHANGES_ENDPOINT = "/api/profile-changes";
+    private static final String BASE_URL = "http://localhost:";
+    private static final String USER = "USER";
+    private static final String OPERATION = "operation";
+    private static final String UPDATED = "UPDATED";
+    private static final String FIRST_NAME = "changeFirstName";
+    private static final String LAST_NAME = "changeLastName";
+    private static final String UPDATED_EMAIL = "changed@mail.ru";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final String USER_CHANGES_ENDPOINT = "/api/user/{id}/changes";
+    private static final ParameterizedTypeReference<ServerSentEvent<Map<String, Object>>> EVENT_TYPE =
+            new ParameterizedTypeReference<>() { };
+
+    /**
+     * Local server port provided by Spring Boot for testing.
+     */
+    @LocalServerPort
+    private int port;
+
+    /**
+     * WebTestClient instance provided by Spring Boot for testing web applications.
+     */
+    @Autowired
+    private WebTestClient webTestClient;
+
+    /**
+     * Subscribes to the change feed.
+     *
+     * @param lastEventId The offset to resume after, null to receive all changes.
+     * @return The change events.
+     */
+    private Flux<ServerSentEvent<Map<String, Object>>> changes(String lastEventId) {
+        return webTestClient
+                .get()
+                .uri(BASE_URL + port + CHANGES_ENDPOINT)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .headers(headers -> {
+                    if (lastEventId != null) {
+                        headers.set("Last-Event-ID", lastEventId);
+                    }
+                })
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(EVENT_TYPE)
+                .getResponseBody();
+    }
+
+    /**
+     * Tests that the creation and the update of a user are streamed in order, each with the written state.
+     */
+    @Test
+    @Order(1)
+    public void givenCreatedAndUpdatedUser_ThenStreamBothChanges() {
+        webTestClient
+                .post()
+                .uri(BASE_URL + port + "/api/user/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(UserDto.builder().email("change@mail.ru").firstName(FIRST_NAME)
+                        .lastName(LAST_NAME).build()))
+                .exchange()
+                .expectStatus().isCreated();
+        webTestClient
+                .post()
+                .uri(BASE_URL + port + "/api/user/update?id={id}", 1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(UserDto.builder().email(UPDATED_EMAIL).firstName(FIRST_NAME)
+                        .lastName(LAST_NAME).build()))
+                .exchange()
+                .expectStatus().isOk();
+
+        StepVerifier.create(changes(null).take(2))
+                .assertNext(event -> {
+                    assertEquals(USER, event.event());
+                    assertEquals("CREATED", event.data().get(OPERATION));
+                })
+                .assertNext(event -> {
+                    assertEquals(USER, event.event());
+                    assertEquals(UPDATED, event.data().get(OPERATION));
+                    assertEquals(1, event.data().get("version"));
+                    assertEquals(UPDATED_EMAIL, ((Map<?, ?>) event.data().get("payload")).get("email"));
+                })
+                .expectComplete()
+                .verify(TIMEOUT);
+    }
+
+    /**
+     * Tests that a consumer resuming with the id of an event receives the changes after it only.
+     */
+    @Test
+    @Order(2)
+    public void givenLastEventId_ThenResumeAfterIt() {
+        String firstEventId = changes(null).blockFirst(TIMEOUT).id();
+
+        StepVerifier.create(changes(firstEventId).take(1))
+                .assertNext(event -> assertEquals(UPDATED, event.data().get(OPERATION)))
+                .expectComplete()
+                .verify(TIMEOUT);
+    }
+
+    /**
+     * Tests that an offset that is not one is rejected, expecting a bad request response.
+     */
+    @Test
+    @Order(3)
+    public void givenInvalidOffset_ThenReturnBadRequest() {
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + CHANGES_ENDPOINT + "?after={after}", "latest")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    /**
+     * Tests that a subscription to user changes beyond the limit is rejected while another one is active.
+     */
+    @Test
+    @Order(4)
+    public void givenSubscriptionLimitReached_ThenReturnServiceUnavailable() {
+        var activeSubscription = webTestClient
+                .get()
+                .uri(BASE_URL + port + USER_CHANGES_ENDPOINT, 1)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(EVENT_TYPE)
+                .getResponseBody();
+
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + USER_CHANGES_ENDPOINT, 1)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        StepVerifier.create(activeSubscription.take(1))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(TIMEOUT);
+    }
+}
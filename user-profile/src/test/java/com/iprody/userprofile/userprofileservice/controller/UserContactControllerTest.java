@@ -3,7 +3,6 @@ package com.iprody.userprofile.userprofileservice.controller;
 import com.iprody.userprofile.userprofileservice.AbstractIntegrationTest;
 import com.iprody.userprofile.userprofileservice.dto.UserContactDto;
 import com.iprody.userprofile.userprofileservice.dto.UserDto;
-import com.iprody.userprofile.userprofileservice.entity.User;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +11,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.BodyInserters;
 
+import java.util.Map;
+
 /**
  * This class contains integration tests for UserContactController endpoints.
  */
@@ -33,6 +34,9 @@ class UserContactControllerTest extends AbstractIntegrationTest {
     private static final String FIND_USER_CONTACT_BY_USER_ID_ENDPOINT = "/api/user-contact/user";
     private static final String TELEGRAM_ID = "$.telegramId";
     private static final String MOBILE_PHONE = "$.mobilePhone";
+    private static final String MOBILE_PHONE_FIELD = "mobilePhone";
+    private static final String PATCHED_MOBILE_PHONE = "+79537654321";
+    private static final MediaType MERGE_PATCH = MediaType.valueOf("application/merge-patch+json");
 
     /**
      * Local server port provided by Spring Boot for testing.
@@ -52,16 +56,7 @@ class UserContactControllerTest extends AbstractIntegrationTest {
      */
     private UserContactDto getValidUserContactDto() {
         return UserContactDto.builder().mobilePhone(TEST_MOBILE_PHONE).telegramId(TEST_TELEGRAM_ID)
-                .user(getValidUser()).build();
-    }
-
-    /**
-     * Retrieves a valid User for testing.
-     *
-     * @return A valid User instance.
-     */
-    private User getValidUser() {
-        return User.builder().email(TEST_EMAIL).firstName(TEST_FIRST_NAME).lastName(TEST_LAST_NAME).id(1L).build();
+                .userId(1L).build();
     }
 
     /**
@@ -172,4 +167,27 @@ class UserContactControllerTest extends AbstractIntegrationTest {
                 .jsonPath(MOBILE_PHONE).isEqualTo(getValidUserContactDto().getMobilePhone());
     }
 
+    /**
+     * Tests the merge patch, expecting only the supplied field to change and invalid values to be rejected.
+     */
+    @Test
+    @Order(7)
+    public void givenMergePatch_ThenUpdateOnlySuppliedFields() {
+        webTestClient
+                .patch()
+                .uri(BASE_URL + port + FIND_USER_CONTACT_ENDPOINT + ID_ENDPOINT, 1L)
+                .contentType(MERGE_PATCH)
+                .body(BodyInserters.fromValue(Map.of(MOBILE_PHONE_FIELD, PATCHED_MOBILE_PHONE)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath(MOBILE_PHONE).isEqualTo(PATCHED_MOBILE_PHONE)
+                .jsonPath(TELEGRAM_ID).isEqualTo(TEST_TELEGRAM_ID);
+        webTestClient
+                .patch()
+                .uri(BASE_URL + port + FIND_USER_CONTACT_ENDPOINT + ID_ENDPOINT, 1L)
+                .contentType(MERGE_PATCH)
+                .body(BodyInserters.fromValue(Map.of(MOBILE_PHONE_FIELD, TEST_INVALID_TELEGRAM_ID)))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
 }
@@ -1,14 +1,31 @@
 package com.iprody.userprofile.userprofileservice.controller;
 
 import com.iprody.userprofile.userprofileservice.AbstractIntegrationTest;
+import com.iprody.userprofile.userprofileservice.dto.BatchGetRequest;
 import com.iprody.userprofile.userprofileservice.dto.UserDto;
+import com.iprody.userprofile.userprofileservice.dto.UserImportResult;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.BodyInserters;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * This class contains integration tests for UserController endpoints.
@@ -22,10 +39,31 @@ public class UserControllerTest extends AbstractIntegrationTest {
     private static final String ADD_USER_ENDPOINT = "/api/user/add";
     private static final String FIND_USER_ENDPOINT = "/api/user";
     private static final String UPDATE_USER_ENDPOINT = "/api/user/update";
+    private static final String BATCH_GET_USER_ENDPOINT = "/api/user/batch-get";
+    private static final String BULK_USER_ENDPOINT = "/api/user/bulk";
+    private static final String LIST_USERS_ENDPOINT = "/api/users";
+    private static final String BULK_EMAIL = "bulk@mail.ru";
+    private static final String FIND_USER_BY_EMAIL_ENDPOINT = "/api/user/by-email?email={email}";
     private static final String EMAIL = "$.email";
     private static final String FIRST_NAME = "$.firstName";
     private static final String LAST_NAME = "$.lastName";
     private static final String BASE_URL = "http://localhost:";
+    private static final long UNKNOWN_ID = 99L;
+    private static final long OTHER_UNKNOWN_ID = 98L;
+    private static final long VERSIONED_ID = 1L;
+    private static final String STALE_ETAG = "\"0\"";
+    private static final String BUMP_VERSION_SQL = "UPDATE users SET version = version + 1 WHERE id = ?";
+    private static final String PATCHED_LAST_NAME = "patchedLastName";
+    private static final String MOVED_EMAIL = "moved@mail.ru";
+    private static final String BYPASSED_LAST_NAME = "bypassedLastName";
+    private static final String RENAME_SQL = "UPDATE users SET last_name = ?, version = version + 1 WHERE id = ?";
+    private static final MediaType MERGE_PATCH = MediaType.valueOf("application/merge-patch+json");
+    private static final String CHANGES_ENDPOINT = "/api/user/{id}/changes";
+    private static final String SUBSCRIBED_FIRST_NAME = "subscribedFirstName";
+    private static final String USER_EVENT = "USER";
+    private static final Duration SUBSCRIPTION_TIMEOUT = Duration.ofSeconds(10);
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> STATE_EVENT_TYPE =
+            new ParameterizedTypeReference<>() { };
 
     /**
      * Local server port provided by Spring Boot for testing.
@@ -39,6 +77,12 @@ public class UserControllerTest extends AbstractIntegrationTest {
     @Autowired
     private WebTestClient webTestClient;
 
+    /**
+     * JdbcTemplate used to change rows behind the caches.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     /**
      * Retrieves a valid UserDto for testing.
      *
@@ -151,4 +195,363 @@ public class UserControllerTest extends AbstractIntegrationTest {
                 .expectStatus().isBadRequest();
     }
 
+    /**
+     * Tests a batch lookup, expecting the found users in request order and the unknown ids reported as missing.
+     */
+    @Test
+    @Order(7)
+    public void givenBatchOfIds_ThenReturnFoundInRequestOrderAndMissingIds() {
+        webTestClient
+                .post()
+                .uri(BASE_URL + port + BATCH_GET_USER_ENDPOINT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(BatchGetRequest.builder()
+                        .ids(List.of(UNKNOWN_ID, 1L, OTHER_UNKNOWN_ID)).build()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.found.length()").isEqualTo(1)
+                .jsonPath("$.found[0].id").isEqualTo(1)
+                .jsonPath("$.found[0].email").isEqualTo(getUpdatedUserDto().getEmail())
+                .jsonPath("$.missingIds[0]").isEqualTo(UNKNOWN_ID)
+                .jsonPath("$.missingIds[1]").isEqualTo(OTHER_UNKNOWN_ID);
+    }
+
+    /**
+     * Tests a batch lookup above the size limit, expecting a bad request response.
+     */
+    @Test
+    @Order(8)
+    public void givenTooManyIds_ThenReturnBadRequest() {
+        webTestClient
+                .post()
+                .uri(BASE_URL + port + BATCH_GET_USER_ENDPOINT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(BatchGetRequest.builder()
+                        .ids(Collections.nCopies(BatchGetRequest.MAX_IDS + 1, 1L)).build()))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    /**
+     * Tests a bulk import, expecting per-row results where only the invalid and duplicate rows are rejected.
+     */
+    @Test
+    @Order(9)
+    public void givenBulkNdjson_ThenReturnPerRowResults() {
+        var body = String.join("\n",
+                "{\"firstName\":\"bulk\",\"lastName\":\"user\",\"email\":\"" + BULK_EMAIL + "\"}",
+                "{\"firstName\":\"bulk\",\"lastName\":\"user\",\"email\":\"updatedTest@mail.ru\"}",
+                "{\"firstName\":\"bulk\"}");
+        webTestClient
+                .post()
+                .uri(BASE_URL + port + BULK_USER_ENDPOINT)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(UserImportResult.class)
+                .value(results -> assertEquals(
+                        List.of(UserImportResult.Status.CREATED, UserImportResult.Status.FAILED,
+                                UserImportResult.Status.FAILED),
+                        results.stream().map(UserImportResult::getStatus).toList()));
+    }
+
+    /**
+     * Tests the keyset listing, expecting one user per page and the next page to start after the returned id.
+     */
+    @Test
+    @Order(10)
+    public void givenLimit_ThenReturnKeysetPage() {
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + LIST_USERS_ENDPOINT + "?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.users.length()").isEqualTo(1)
+                .jsonPath("$.users[0].id").isEqualTo(1)
+                .jsonPath("$.nextAfterId").isEqualTo(1);
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + LIST_USERS_ENDPOINT + "?afterId=1&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.users[0].email").isEqualTo(BULK_EMAIL);
+    }
+
+    /**
+     * Tests the streaming listing, expecting every user as one NDJSON line in id order.
+     */
+    @Test
+    @Order(11)
+    public void whenStreamUsers_ThenReturnAllUsersInIdOrder() {
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + LIST_USERS_ENDPOINT + "/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(UserDto.class)
+                .value(users -> assertEquals(List.of(getUpdatedUserDto().getEmail(), BULK_EMAIL),
+                        users.stream().map(UserDto::getEmail).toList()));
+    }
+
+    /**
+     * Tests the lookup by email, expecting the email to match regardless of case.
+     */
+    @Test
+    @Order(12)
+    public void givenEmailInOtherCase_ThenReturnIsOk() {
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + FIND_USER_BY_EMAIL_ENDPOINT, BULK_EMAIL.toUpperCase())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath(EMAIL).isEqualTo(BULK_EMAIL);
+    }
+
+    /**
+     * Tests the conditional GET, expecting an ETag and 304 when If-None-Match names it.
+     */
+    @Test
+    @Order(13)
+    public void givenCurrentETag_ThenReturnNotModified() {
+        String eTag = webTestClient
+                .get()
+                .uri(BASE_URL + port + FIND_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(UserDto.class)
+                .getResponseHeaders().getETag();
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + FIND_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                .expectBody().isEmpty();
+    }
+
+    /**
+     * Tests the conditional update, expecting a new ETag for the current one and 412 for a stale one.
+     */
+    @Test
+    @Order(14)
+    public void givenIfMatch_ThenUpdateOnlyCurrentVersion() {
+        String eTag = webTestClient
+                .get()
+                .uri(BASE_URL + port + FIND_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                .exchange()
+                .returnResult(UserDto.class)
+                .getResponseHeaders().getETag();
+        String newETag = webTestClient
+                .post()
+                .uri(BASE_URL + port + UPDATE_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .body(BodyInserters.fromValue(getUpdatedUserDto()))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(UserDto.class)
+                .getResponseHeaders().getETag();
+        assertNotEquals(eTag, newETag);
+        webTestClient
+                .post()
+                .uri(BASE_URL + port + UPDATE_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                .header(HttpHeaders.IF_MATCH, STALE_ETAG)
+                .body(BodyInserters.fromValue(getValidUserDto()))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + FIND_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                .exchange()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, newETag)
+                .expectBody().jsonPath(EMAIL).isEqualTo(getUpdatedUserDto().getEmail());
+    }
+
+    /**
+     * Tests the merge patch, expecting only the supplied field to change and unknown fields to be rejected.
+     */
+    @Test
+    @Order(15)
+    public void givenMergePatch_ThenUpdateOnlySuppliedFields() {
+        webTestClient
+                .patch()
+                .uri(BASE_URL + port + FIND_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                .contentType(MERGE_PATCH)
+                .body(BodyInserters.fromValue(Map.of("lastName", PATCHED_LAST_NAME)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody().jsonPath(LAST_NAME).isEqualTo(PATCHED_LAST_NAME)
+                .jsonPath(FIRST_NAME).isEqualTo(TEST_FIRST_NAME)
+                .jsonPath(EMAIL).isEqualTo(getUpdatedUserDto().getEmail());
+        webTestClient
+                .patch()
+                .uri(BASE_URL + port + FIND_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                .contentType(MERGE_PATCH)
+                .body(BodyInserters.fromValue(Map.of("id", UNKNOWN_ID)))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    /**
+     * Tests a subscription to the changes of a user, expecting the current user and then its changed state.
+     */
+    @Test
+    @Order(16)
+    public void givenSubscription_ThenPushCurrentAndChangedUser() {
+        var states = webTestClient
+                .get()
+                .uri(BASE_URL + port + CHANGES_ENDPOINT, VERSIONED_ID)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(STATE_EVENT_TYPE)
+                .getResponseBody()
+                .filter(event -> event.event() != null);
+
+        StepVerifier.create(states)
+                .assertNext(event -> {
+                    assertEquals(USER_EVENT, event.event());
+                    assertTrue(event.data().contains(PATCHED_LAST_NAME));
+                })
+                .then(() -> webTestClient
+                        .patch()
+                        .uri(BASE_URL + port + FIND_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                        .contentType(MERGE_PATCH)
+                        .body(BodyInserters.fromValue(Map.of("firstName", SUBSCRIBED_FIRST_NAME)))
+                        .exchange()
+                        .expectStatus().isOk())
+                .assertNext(event -> {
+                    assertEquals(USER_EVENT, event.event());
+                    assertTrue(event.data().contains(SUBSCRIBED_FIRST_NAME));
+                })
+                .thenCancel()
+                .verify(SUBSCRIPTION_TIMEOUT);
+    }
+
+    /**
+     * Tests the conditional GET after a change the cache has not seen, expecting the current version and not 304.
+     */
+    @Test
+    @Order(18)
+    public void givenChangeBypassingCache_ThenConditionalGetReturnsCurrentVersion() {
+        String eTag = webTestClient
+                .get()
+                .uri(BASE_URL + port + FIND_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                .exchange()
+                .returnResult(UserDto.class)
+                .getResponseHeaders().getETag();
+        jdbcTemplate.update(BUMP_VERSION_SQL, VERSIONED_ID);
+
+        String currentETag = webTestClient
+                .get()
+                .uri(BASE_URL + port + FIND_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(UserDto.class)
+                .getResponseHeaders().getETag();
+        assertNotEquals(eTag, currentETag);
+    }
+
+    /**
+     * Tests the empty merge patch after a change the cache has not seen, expecting the version read from the
+     * database to be checked and returned.
+     */
+    @Test
+    @Order(19)
+    public void givenChangeBypassingCache_ThenEmptyPatchChecksCurrentVersion() {
+        String cachedETag = webTestClient
+                .get()
+                .uri(BASE_URL + port + FIND_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                .exchange()
+                .returnResult(UserDto.class)
+                .getResponseHeaders().getETag();
+        jdbcTemplate.update(BUMP_VERSION_SQL, VERSIONED_ID);
+        String currentETag = VersionETags.of(VersionETags.expectedVersion(cachedETag) + 1);
+
+        webTestClient
+                .patch()
+                .uri(BASE_URL + port + FIND_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                .contentType(MERGE_PATCH)
+                .header(HttpHeaders.IF_MATCH, cachedETag)
+                .body(BodyInserters.fromValue(Collections.emptyMap()))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        webTestClient
+                .patch()
+                .uri(BASE_URL + port + FIND_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                .contentType(MERGE_PATCH)
+                .header(HttpHeaders.IF_MATCH, currentETag)
+                .body(BodyInserters.fromValue(Collections.emptyMap()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, currentETag);
+    }
+
+    /**
+     * Tests the lookup by email after the email moved to another address, expecting the user to be found only by
+     * the new one.
+     */
+    @Test
+    @Order(20)
+    public void givenChangedEmail_ThenFindOnlyByNewEmail() {
+        String oldEmail = getUpdatedUserDto().getEmail();
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + FIND_USER_BY_EMAIL_ENDPOINT, oldEmail)
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient
+                .patch()
+                .uri(BASE_URL + port + FIND_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                .contentType(MERGE_PATCH)
+                .body(BodyInserters.fromValue(Map.of("email", MOVED_EMAIL)))
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + FIND_USER_BY_EMAIL_ENDPOINT, oldEmail)
+                .exchange()
+                .expectStatus().is5xxServerError();
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + FIND_USER_BY_EMAIL_ENDPOINT, MOVED_EMAIL)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.id").isEqualTo(VERSIONED_ID);
+    }
+
+    /**
+     * Tests a subscription after a change the cache has not seen, expecting the current user read from the database.
+     */
+    @Test
+    @Order(21)
+    public void givenChangeBypassingCache_ThenSubscriptionPushesCurrentUser() {
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + FIND_USER_ENDPOINT + ID_ENDPOINT, VERSIONED_ID)
+                .exchange()
+                .expectStatus().isOk();
+        jdbcTemplate.update(RENAME_SQL, BYPASSED_LAST_NAME, VERSIONED_ID);
+
+        var states = webTestClient
+                .get()
+                .uri(BASE_URL + port + CHANGES_ENDPOINT, VERSIONED_ID)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(STATE_EVENT_TYPE)
+                .getResponseBody()
+                .filter(event -> USER_EVENT.equals(event.event()));
+
+        StepVerifier.create(states)
+                .assertNext(event -> assertTrue(event.data().contains(BYPASSED_LAST_NAME)))
+                .thenCancel()
+                .verify(SUBSCRIPTION_TIMEOUT);
+    }
 }
@@ -0,0 +1,152 @@
+package com.iprody.userprofile.userprofileservice.controller;
+
+import com.iprody.userprofile.userprofileservice.AbstractIntegrationTest;
+import com.iprody.userprofile.userprofileservice.dto.UserContactDto;
+import com.iprody.userprofile.userprofileservice.dto.UserDto;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+
+/**
+ * This class contains integration tests for the profile endpoint served from the user_profile read model.
+ */
+class UserProfileControllerTest extends AbstractIntegrationTest {
+
+    private static final String TEST_FIRST_NAME = "profileFirstName";
+    private static final String TEST_LAST_NAME = "profileLastName";
+    private static final String TEST_EMAIL = "profile@mail.ru";
+    private static final String UPDATED_EMAIL = "updatedProfile@mail.ru";
+    private static final String TEST_TELEGRAM_ID = "@profileuser";
+    private static final String TEST_MOBILE_PHONE = "+79537654321";
+    private static final String BASE_URL = "http://localhost:";
+    private static final String ID_ENDPOINT = "?id={id}";
+    private static final String ADD_USER_ENDPOINT = "/api/user/add";
+    private static final String UPDATE_USER_ENDPOINT = "/api/user/update";
+    private static final String ADD_USER_CONTACT_ENDPOINT = "/api/user-contact/add";
+    private static final String PROFILE_ENDPOINT = "/api/profile/{userId}";
+    private static final String USER_ID = "$.userId";
+    private static final String EMAIL = "$.email";
+    private static final String USER_VERSION = "$.userVersion";
+    private static final String CONTACT_ID = "$.contactId";
+    private static final String TELEGRAM_ID = "$.telegramId";
+    private static final String MOBILE_PHONE = "$.mobilePhone";
+    private static final String CONTACT_VERSION = "$.contactVersion";
+
+    /**
+     * Local server port provided by Spring Boot for testing.
+     */
+    @LocalServerPort
+    private int port;
+
+    /**
+     * WebTestClient instance provided by Spring Boot for testing web applications.
+     */
+    @Autowired
+    private WebTestClient webTestClient;
+
+    /**
+     * Retrieves a valid UserDto for testing.
+     *
+     * @param email The email of the user.
+     * @return A valid UserDto instance.
+     */
+    private UserDto getUserDto(String email) {
+        return UserDto.builder().email(email).firstName(TEST_FIRST_NAME).lastName(TEST_LAST_NAME).build();
+    }
+
+    /**
+     * Tests that a created user without contact has a profile with empty contact fields.
+     */
+    @Test
+    @Order(1)
+    public void givenUserWithoutContact_ThenReturnProfileWithoutContact() {
+        webTestClient
+                .post()
+                .uri(BASE_URL + port + ADD_USER_ENDPOINT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(getUserDto(TEST_EMAIL)))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + PROFILE_ENDPOINT, 1)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath(USER_ID).isEqualTo(1)
+                .jsonPath("$.firstName").isEqualTo(TEST_FIRST_NAME)
+                .jsonPath("$.lastName").isEqualTo(TEST_LAST_NAME)
+                .jsonPath(EMAIL).isEqualTo(TEST_EMAIL)
+                .jsonPath(USER_VERSION).isEqualTo(0)
+                .jsonPath(CONTACT_ID).isEmpty()
+                .jsonPath(TELEGRAM_ID).isEmpty();
+    }
+
+    /**
+     * Tests that the contact created for a user shows up in its profile.
+     */
+    @Test
+    @Order(2)
+    public void givenUserContact_ThenReturnProfileWithContact() {
+        webTestClient
+                .post()
+                .uri(BASE_URL + port + ADD_USER_CONTACT_ENDPOINT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(UserContactDto.builder().telegramId(TEST_TELEGRAM_ID)
+                        .mobilePhone(TEST_MOBILE_PHONE).userId(1L).build()))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + PROFILE_ENDPOINT, 1)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath(EMAIL).isEqualTo(TEST_EMAIL)
+                .jsonPath(CONTACT_ID).isNotEmpty()
+                .jsonPath(TELEGRAM_ID).isEqualTo(TEST_TELEGRAM_ID)
+                .jsonPath(MOBILE_PHONE).isEqualTo(TEST_MOBILE_PHONE)
+                .jsonPath(CONTACT_VERSION).isEqualTo(0);
+    }
+
+    /**
+     * Tests that an update of the user is reflected in its profile, keeping the contact fields.
+     */
+    @Test
+    @Order(3)
+    public void givenUpdatedUser_ThenReturnUpdatedProfile() {
+        webTestClient
+                .post()
+                .uri(BASE_URL + port + UPDATE_USER_ENDPOINT + ID_ENDPOINT, 1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(getUserDto(UPDATED_EMAIL)))
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + PROFILE_ENDPOINT, 1)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath(EMAIL).isEqualTo(UPDATED_EMAIL)
+                .jsonPath(USER_VERSION).isEqualTo(1)
+                .jsonPath(TELEGRAM_ID).isEqualTo(TEST_TELEGRAM_ID);
+    }
+
+    /**
+     * Tests the scenario where the user does not exist, expecting an error response.
+     */
+    @Test
+    @Order(4)
+    public void givenInvalidUserId_ThenReturnNotFound() {
+        webTestClient
+                .get()
+                .uri(BASE_URL + port + PROFILE_ENDPOINT, 2)
+                .exchange()
+                .expectStatus().is5xxServerError();
+    }
+}
@@ -0,0 +1,31 @@
+package com.iprody.userprofile.userprofileservice.controller;
+
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Runs the UserController integration tests on the WebFlux/Netty runtime.
+ */
+@ActiveProfiles("webflux")
+public class WebFluxUserControllerTest extends UserControllerTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    /**
+     * Tests that the controllers are served by WebFlux on Netty rather than by Spring MVC on Tomcat.
+     */
+    @Test
+    @Order(17)
+    public void givenWebFluxProfile_ThenServedByNetty() {
+        var webApplicationContext = assertInstanceOf(ReactiveWebServerApplicationContext.class, applicationContext);
+        assertInstanceOf(NettyWebServer.class, webApplicationContext.getWebServer());
+    }
+}
@@ -0,0 +1,98 @@
+package com.iprody.userprofile.userprofileservice.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class contains unit tests for VirtualThreadPinningMonitor, pinning a virtual thread for real.
+ */
+class VirtualThreadPinningMonitorTest {
+
+    private static final Duration THRESHOLD = Duration.ofMillis(10);
+    private static final long PINNED_MILLIS = 100;
+    private static final long SHORT_MILLIS = 1;
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final String PINNED_METRIC = "user.profile.virtual.threads.pinned";
+
+    private final Object lock = new Object();
+
+    private MeterRegistry meterRegistry;
+
+    private VirtualThreadPinningMonitor monitor;
+
+    /**
+     * Starts the monitor on a fresh registry.
+     */
+    @BeforeEach
+    void startMonitor() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new VirtualThreadPinningMonitor(THRESHOLD, meterRegistry);
+        monitor.afterPropertiesSet();
+    }
+
+    /**
+     * Stops the monitor.
+     */
+    @AfterEach
+    void stopMonitor() {
+        monitor.destroy();
+    }
+
+    /**
+     * Sleeps on a virtual thread while holding a monitor, which pins it to its carrier.
+     *
+     * @param millis How long to sleep.
+     * @throws InterruptedException If the test thread is interrupted.
+     */
+    private void pinVirtualThread(long millis) throws InterruptedException {
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+    }
+
+    /**
+     * Test method to verify that a pinning longer than the threshold is recorded with its duration.
+     *
+     * @throws InterruptedException If the test thread is interrupted.
+     */
+    @Test
+    public void testPinningAboveThresholdIsRecorded() throws InterruptedException {
+        pinVirtualThread(PINNED_MILLIS);
+
+        Timer pinned = meterRegistry.get(PINNED_METRIC).timer();
+        await().atMost(TIMEOUT).until(() -> pinned.count() == 1);
+        assertTrue(pinned.totalTime(TimeUnit.MILLISECONDS) >= PINNED_MILLIS);
+    }
+
+    /**
+     * Test method to verify that a pinning shorter than the threshold is not recorded.
+     *
+     * @throws InterruptedException If the test thread is interrupted.
+     */
+    @Test
+    public void testPinningBelowThresholdIsIgnored() throws InterruptedException {
+        pinVirtualThread(SHORT_MILLIS);
+        pinVirtualThread(PINNED_MILLIS);
+
+        Timer pinned = meterRegistry.get(PINNED_METRIC).timer();
+        await().atMost(TIMEOUT).until(() -> pinned.count() >= 1);
+        assertEquals(1, pinned.count());
+    }
+}
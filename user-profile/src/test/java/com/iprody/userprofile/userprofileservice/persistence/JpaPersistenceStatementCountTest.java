@@ -0,0 +1,153 @@
+package com.iprody.userprofile.userprofileservice.persistence;
+
+import com.iprody.userprofile.userprofileservice.AbstractIntegrationTest;
+import com.iprody.userprofile.userprofileservice.entity.User;
+import com.iprody.userprofile.userprofileservice.entity.UserContact;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class asserts the number of SQL statements of the JPA profile reads, so that N+1 regressions between
+ * User and UserContact are caught. The repository statements are counted by the layer observations.
+ */
+@TestPropertySource(properties = "user-profile.observability.layers.enabled=true")
+class JpaPersistenceStatementCountTest extends AbstractIntegrationTest {
+
+    private static final String TEST_EMAIL = "statements@mail.ru";
+    private static final String TEST_TELEGRAM_ID = "@statements";
+
+    @Autowired
+    private UserPersistence userPersistence;
+
+    @Autowired
+    private UserContactPersistence userContactPersistence;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Returns the Hibernate statistics, cleared.
+     *
+     * @return The statistics.
+     */
+    private Statistics clearedStatistics() {
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    /**
+     * Returns the summary of the statements run by UserRepository.findById.
+     *
+     * @return The summary, null before the first call.
+     */
+    private DistributionSummary findByIdStatements() {
+        return meterRegistry.find("user.profile.repository.statements")
+                .tags("class", "UserRepository", "method", "findById")
+                .summary();
+    }
+
+    /**
+     * Creates the user and the user contact read by the following tests.
+     */
+    @Test
+    @Order(1)
+    void givenUserWithContact_ThenBothAreSaved() {
+        var user = userPersistence.save(User.builder().firstName("first").lastName("last").email(TEST_EMAIL).build())
+                .block();
+        var userContact = userContactPersistence.save(UserContact.builder().telegramId(TEST_TELEGRAM_ID)
+                .user(user).build()).block();
+        assertEquals(user.getId(), userContact.getUser().getId());
+    }
+
+    /**
+     * Tests that a user is read with its user contact in one statement.
+     */
+    @Test
+    @Order(2)
+    void whenFindUserById_ThenOneStatement() {
+        var id = userPersistence.findByEmail(TEST_EMAIL).block().getId();
+        var statistics = clearedStatistics();
+
+        var user = userPersistence.findById(id).block();
+
+        assertEquals(TEST_TELEGRAM_ID, user.getUserContact().getTelegramId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that a user contact is read by user id with its user in one statement.
+     */
+    @Test
+    @Order(3)
+    void whenFindUserContactByUserId_ThenOneStatement() {
+        var userId = userPersistence.findByEmail(TEST_EMAIL).block().getId();
+        var statistics = clearedStatistics();
+
+        var userContact = userContactPersistence.findByUserId(userId).block();
+
+        assertEquals(TEST_EMAIL, userContact.getUser().getEmail());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that a user contact is read by id with its user in one statement.
+     */
+    @Test
+    @Order(4)
+    void whenFindUserContactById_ThenOneStatement() {
+        var userId = userPersistence.findByEmail(TEST_EMAIL).block().getId();
+        var id = userContactPersistence.findByUserId(userId).block().getId();
+        var statistics = clearedStatistics();
+
+        var userContact = userContactPersistence.findById(id).block();
+
+        assertEquals(TEST_EMAIL, userContact.getUser().getEmail());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that a batch of users is read with their user contacts in one statement.
+     */
+    @Test
+    @Order(5)
+    void whenFindAllUsersById_ThenOneStatement() {
+        var id = userPersistence.findByEmail(TEST_EMAIL).block().getId();
+        var statistics = clearedStatistics();
+
+        var users = userPersistence.findAllById(List.of(id)).collectList().block();
+
+        assertEquals(TEST_TELEGRAM_ID, users.get(0).getUserContact().getTelegramId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that the statements of a repository call are published per repository method.
+     */
+    @Test
+    @Order(6)
+    void whenFindUserById_ThenRepositoryStatementsArePublished() {
+        var id = userPersistence.findByEmail(TEST_EMAIL).block().getId();
+        var countBefore = findByIdStatements() == null ? 0 : findByIdStatements().count();
+
+        userPersistence.findById(id).block();
+
+        assertEquals(countBefore + 1, findByIdStatements().count());
+        assertTrue(findByIdStatements().max() >= 1);
+    }
+}
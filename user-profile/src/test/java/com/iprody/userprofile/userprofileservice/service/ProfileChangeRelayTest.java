@@ -0,0 +1,199 @@
+package com.iprody.userprofile.userprofileservice.service;
+
+import com.iprody.userprofile.userprofileservice.AbstractIntegrationTest;
+import com.iprody.userprofile.userprofileservice.entity.User;
+import com.iprody.userprofile.userprofileservice.event.ProfileChange;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangeOffset;
+import com.iprody.userprofile.userprofileservice.event.ProfileChangedEvent;
+import com.iprody.userprofile.userprofileservice.exception.SubscriptionLimitException;
+import com.iprody.userprofile.userprofileservice.persistence.ProfileOutboxPersistence;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class contains integration tests for the ProfileChangeRelay, with a single change feed subscription, a single
+ * follower and pruning of every change no longer served.
+ */
+@TestPropertySource(properties = {
+        "user-profile.change-feed.max-feed-subscriptions=1",
+        "user-profile.change-feed.max-user-subscriptions=1",
+        "user-profile.change-feed.retention=0s",
+        "user-profile.change-feed.prune-interval=0s"
+})
+class ProfileChangeRelayTest extends AbstractIntegrationTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration QUIET_PERIOD = Duration.ofMillis(200);
+    private static final int ALL_CHANGES = 100;
+    private static final String FIRST_NAME = "relayFirstName";
+    private static final String LAST_NAME = "relayLastName";
+    private static final String FOLLOWERS_METRIC = "user.profile.change-feed.followers";
+
+    @Autowired
+    private ProfileChangeRelay profileChangeRelay;
+
+    @Autowired
+    private ProfileOutboxPersistence profileOutboxPersistence;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Subscribes to the change feed without requesting anything, which keeps its cursor in place.
+     *
+     * @param after The offset to start after.
+     * @return The subscription.
+     */
+    private Disposable holdSubscription(ProfileChangeOffset after) {
+        return profileChangeRelay.changes(after).subscribeWith(new BaseSubscriber<ProfileChange>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // nothing is requested
+            }
+        });
+    }
+
+    /**
+     * Follows the changes of the users created from now on, once the shared reader is started.
+     *
+     * @param ready Counted down when the shared reader is started.
+     * @return The ids of the created users.
+     */
+    private Flux<Long> followCreatedUsers(CountDownLatch ready) {
+        return profileChangeRelay.follow(changes -> {
+            ready.countDown();
+            return changes.filter(change -> change.type() == ProfileChangedEvent.Type.USER
+                            && change.operation() == ProfileChange.Operation.CREATED)
+                    .map(ProfileChange::entityId);
+        });
+    }
+
+    /**
+     * Creates a user.
+     *
+     * @param email The email of the user.
+     * @return The id of the user.
+     */
+    private Long createUser(String email) {
+        return userService.createUser(User.builder().email(email).firstName(FIRST_NAME).lastName(LAST_NAME).build())
+                .block().getId();
+    }
+
+    /**
+     * Reads the changes left in the outbox.
+     *
+     * @return The changes in feed order.
+     */
+    private List<ProfileChange> outbox() {
+        return profileOutboxPersistence.findAfter(ProfileChangeOffset.START, ALL_CHANGES).collectList().block();
+    }
+
+    /**
+     * Test method to verify that a change feed subscription beyond the limit fails, and that the place of an ended
+     * subscription is free again.
+     */
+    @Test
+    @Order(1)
+    public void testFeedSubscriptionLimit() {
+        Disposable active = holdSubscription(ProfileChangeOffset.START);
+
+        StepVerifier.create(profileChangeRelay.changes(ProfileChangeOffset.START))
+                .expectError(SubscriptionLimitException.class)
+                .verify(TIMEOUT);
+
+        active.dispose();
+        StepVerifier.create(profileChangeRelay.changes(ProfileChangeOffset.START))
+                .expectSubscription()
+                .expectNoEvent(QUIET_PERIOD)
+                .thenCancel()
+                .verify(TIMEOUT);
+    }
+
+    /**
+     * Test method to verify that the prune keeps the changes a subscriber has still to read, and deletes them once
+     * it is gone.
+     */
+    @Test
+    @Order(2)
+    public void testPruneKeepsChangesStillServed() {
+        User user = userService.createUser(User.builder().email("relay@mail.ru").firstName(FIRST_NAME)
+                .lastName(LAST_NAME).build()).block();
+        userService.updateUser(user.getId(), User.builder().email("relayed@mail.ru").firstName(FIRST_NAME)
+                .lastName("relayedLastName").build()).block();
+        List<ProfileChange> changes = outbox();
+        assertEquals(2, changes.size());
+
+        Disposable subscription = holdSubscription(changes.get(0).offset());
+        assertEquals(1L, profileChangeRelay.prune().block());
+        assertEquals(changes.get(1).offset(), outbox().get(0).offset());
+
+        subscription.dispose();
+        assertEquals(1L, profileChangeRelay.prune().block());
+        assertTrue(outbox().isEmpty());
+    }
+
+    /**
+     * Test method to verify that a follower is only counted while subscribed, so that a follower beyond the limit
+     * fails and an unsubscribed one takes no place.
+     */
+    @Test
+    @Order(3)
+    public void testFollowerLimit() {
+        profileChangeRelay.follow(changes -> changes);
+        Disposable active = profileChangeRelay.follow(changes -> changes).subscribe();
+
+        StepVerifier.create(profileChangeRelay.follow(changes -> changes))
+                .expectError(SubscriptionLimitException.class)
+                .verify(TIMEOUT);
+
+        active.dispose();
+        assertEquals(0, meterRegistry.get(FOLLOWERS_METRIC).gauge().value());
+        StepVerifier.create(profileChangeRelay.follow(changes -> changes))
+                .expectSubscription()
+                .expectNoEvent(QUIET_PERIOD)
+                .thenCancel()
+                .verify(TIMEOUT);
+    }
+
+    /**
+     * Test method to verify that the shared reader stopped after the last follower is started again for the next
+     * one, which gets the changes committed from then on.
+     *
+     * @throws InterruptedException If the test thread is interrupted.
+     */
+    @Test
+    @Order(4)
+    public void testSharedReaderRestartsForNextFollower() throws InterruptedException {
+        for (String email : List.of("first.follower@mail.ru", "next.follower@mail.ru")) {
+            CountDownLatch ready = new CountDownLatch(1);
+            CompletableFuture<Long> followed = followCreatedUsers(ready).next().toFuture();
+            assertTrue(ready.await(TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+
+            Long userId = createUser(email);
+
+            assertEquals(userId, followed.join());
+            await().atMost(TIMEOUT).until(() -> meterRegistry.get(FOLLOWERS_METRIC).gauge().value() == 0);
+        }
+    }
+}
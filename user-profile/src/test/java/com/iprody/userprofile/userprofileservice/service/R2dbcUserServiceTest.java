@@ -0,0 +1,45 @@
+package com.iprody.userprofile.userprofileservice.service;
+
+import com.iprody.userprofile.userprofileservice.persistence.JdbcExecutor;
+import com.iprody.userprofile.userprofileservice.persistence.R2dbcUserContactPersistence;
+import com.iprody.userprofile.userprofileservice.persistence.R2dbcUserPersistence;
+import com.iprody.userprofile.userprofileservice.persistence.UserContactPersistence;
+import com.iprody.userprofile.userprofileservice.persistence.UserPersistence;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the UserService tests against the R2DBC persistence mode.
+ */
+@ActiveProfiles("r2dbc")
+class R2dbcUserServiceTest extends UserServiceTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private UserPersistence userPersistence;
+
+    @Autowired
+    private UserContactPersistence userContactPersistence;
+
+    /**
+     * Test method to verify that the services run on the R2DBC persistence, without any JDBC bean.
+     */
+    @Test
+    @Order(8)
+    public void testPersistenceIsR2dbc() {
+        assertEquals(R2dbcUserPersistence.class, AopUtils.getTargetClass(userPersistence));
+        assertEquals(R2dbcUserContactPersistence.class, AopUtils.getTargetClass(userContactPersistence));
+        assertEquals(0, applicationContext.getBeanNamesForType(DataSource.class).length);
+        assertEquals(0, applicationContext.getBeanNamesForType(JdbcExecutor.class).length);
+    }
+}
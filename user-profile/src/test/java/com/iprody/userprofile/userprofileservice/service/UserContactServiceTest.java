@@ -6,7 +6,6 @@ import com.iprody.userprofile.userprofileservice.entity.UserContact;
 import jakarta.validation.ConstraintViolationException;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
-import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +14,8 @@ import reactor.test.StepVerifier;
 
 import java.util.NoSuchElementException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 @ExtendWith(SoftAssertionsExtension.class)
 class UserContactServiceTest extends AbstractIntegrationTest {
 
@@ -120,10 +121,8 @@ class UserContactServiceTest extends AbstractIntegrationTest {
     @Test
     @Order(3)
     public void testCreateUserContact_ButTelegramIsInvalid() {
-        UserContact userContact = getInvalidTelegramUserContact();
-        Assertions.assertThrows(ConstraintViolationException.class, () -> {
-            userContactService.createUserContact(userContact);
-        });
+        StepVerifier.create(userContactService.createUserContact(getInvalidTelegramUserContact()))
+                .expectError(ConstraintViolationException.class).verify();
     }
 
     /**
@@ -132,10 +131,8 @@ class UserContactServiceTest extends AbstractIntegrationTest {
     @Test
     @Order(4)
     public void testCreateUserContact_ButMobileIsInvalid() {
-        UserContact userContact = getInvalidMobileUserContact();
-        Assertions.assertThrows(ConstraintViolationException.class, () -> {
-            userContactService.createUserContact(userContact);
-        });
+        StepVerifier.create(userContactService.createUserContact(getInvalidMobileUserContact()))
+                .expectError(ConstraintViolationException.class).verify();
     }
 
     /**
@@ -243,4 +240,20 @@ class UserContactServiceTest extends AbstractIntegrationTest {
                 .expectError(NoSuchElementException.class).verify();
     }
 
+    /**
+     * Test method to verify that a cached user contact is invalidated by an update.
+     */
+    @Test
+    @Order(12)
+    public void testFindUserContactById_AfterUpdate() {
+        userContactService.findById(1L).block();
+        StepVerifier.create(userContactService.update(1L, UserContact.builder().mobilePhone(TEST_MOBILE_PHONE)
+                        .telegramId(TEST_TELEGRAM_ID).build()))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        StepVerifier.create(userContactService.findById(1L))
+                .assertNext(userContact -> assertEquals(TEST_TELEGRAM_ID, userContact.getTelegramId()))
+                .verifyComplete();
+    }
 }
@@ -0,0 +1,279 @@
+package com.iprody.userprofile.userprofileservice.service;
+
+import com.iprody.userprofile.userprofileservice.config.ContactWriteBehindProperties;
+import com.iprody.userprofile.userprofileservice.entity.UserContact;
+import com.iprody.userprofile.userprofileservice.persistence.UserContactPersistence;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * This class contains unit tests for UserContactWriteBehind, writing through a persistence that fails on demand.
+ */
+class UserContactWriteBehindTest {
+
+    private static final Long CONTACT_ID = 1L;
+    private static final String TELEGRAM_ID = "@writebehind";
+    private static final String REJECTED_TELEGRAM_ID = "@rejected";
+    private static final String MOBILE_PHONE = "+79531234567";
+    private static final Duration SHORT_WINDOW = Duration.ofMillis(10);
+    private static final Duration LONG_WINDOW = Duration.ofHours(1);
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final Duration MAX_LAG = Duration.ofSeconds(5);
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final int COMBINED_AND_SEPARATE_WRITES = 3;
+
+    private final FlakyPersistence persistence = new FlakyPersistence();
+
+    private UserContactWriteBehind writeBehind;
+
+    /**
+     * Stops the write-behind if a test left it running.
+     */
+    @AfterEach
+    void stopWriteBehind() {
+        if (writeBehind != null && writeBehind.isRunning()) {
+            writeBehind.stop();
+        }
+    }
+
+    /**
+     * Starts a write-behind over the fake persistence.
+     *
+     * @param window          The flush window.
+     * @param flushOnShutdown Whether the pending updates are written on shutdown.
+     */
+    private void start(Duration window, boolean flushOnShutdown) {
+        writeBehind = new UserContactWriteBehind(persistence, event -> { },
+                new ContactWriteBehindProperties(true, window, MAX_BATCH_SIZE, MAX_LAG, flushOnShutdown),
+                Validation.buildDefaultValidatorFactory().getValidator(), new SimpleMeterRegistry());
+        writeBehind.start();
+    }
+
+    /**
+     * Queues an update of the test contact.
+     *
+     * @param changes The changes of the update.
+     * @return The future answer of the update.
+     */
+    private CompletableFuture<UserContact> update(Consumer<UserContact> changes) {
+        return writeBehind.update(CONTACT_ID, changes).toFuture();
+    }
+
+    /**
+     * Waits for the error of an update.
+     *
+     * @param result The future answer of the update.
+     * @return The error.
+     */
+    private Throwable errorOf(CompletableFuture<UserContact> result) {
+        return assertThrows(ExecutionException.class, () -> result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).getCause();
+    }
+
+    /**
+     * Test method to verify that an update with invalid values is rejected without being queued.
+     */
+    @Test
+    public void testInvalidUpdateIsRejectedBeforeQueueing() {
+        start(SHORT_WINDOW, true);
+
+        Throwable error = errorOf(update(contact -> contact.setTelegramId("invalid")));
+
+        assertInstanceOf(ConstraintViolationException.class, error);
+        assertEquals(0, persistence.writes.get());
+    }
+
+    /**
+     * Test method to verify that a write failing with a transient error is retried by the next flush.
+     *
+     * @throws Exception If the update fails.
+     */
+    @Test
+    public void testTransientFailureIsRetried() throws Exception {
+        start(SHORT_WINDOW, true);
+        persistence.failures.add(new CannotAcquireLockException("Lock not available"));
+
+        UserContact written = update(contact -> contact.setTelegramId(TELEGRAM_ID))
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(TELEGRAM_ID, written.getTelegramId());
+        assertEquals(2, persistence.writes.get());
+    }
+
+    /**
+     * Test method to verify that a write failing with a permanent error fails its caller without a retry.
+     */
+    @Test
+    public void testPermanentFailureIsNotRetried() {
+        start(SHORT_WINDOW, true);
+        persistence.failures.add(new DataIntegrityViolationException("Constraint violated"));
+
+        Throwable error = errorOf(update(contact -> contact.setTelegramId(TELEGRAM_ID)));
+
+        assertInstanceOf(DataIntegrityViolationException.class, error);
+        assertEquals(1, persistence.writes.get());
+    }
+
+    /**
+     * Test method to verify that when coalesced updates fail for good, only the caller whose update fails gets the
+     * error, and the other update is written without it.
+     *
+     * @throws Exception If the accepted update fails.
+     */
+    @Test
+    public void testPermanentFailureFailsOnlyOffendingCaller() throws Exception {
+        start(LONG_WINDOW, true);
+        CompletableFuture<UserContact> rejected = update(contact -> contact.setTelegramId(REJECTED_TELEGRAM_ID));
+        CompletableFuture<UserContact> accepted = update(contact -> contact.setMobilePhone(MOBILE_PHONE));
+
+        writeBehind.stop();
+
+        assertInstanceOf(DataIntegrityViolationException.class, errorOf(rejected));
+        UserContact written = accepted.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals(MOBILE_PHONE, written.getMobilePhone());
+        assertNull(written.getTelegramId());
+        assertEquals(COMBINED_AND_SEPARATE_WRITES, persistence.writes.get());
+    }
+
+    /**
+     * Test method to verify that the pending updates are written when the write-behind stops.
+     *
+     * @throws Exception If the update fails.
+     */
+    @Test
+    public void testPendingUpdatesAreWrittenOnShutdown() throws Exception {
+        start(LONG_WINDOW, true);
+        CompletableFuture<UserContact> result = update(contact -> contact.setTelegramId(TELEGRAM_ID));
+        assertFalse(result.isDone());
+
+        writeBehind.stop();
+
+        assertEquals(TELEGRAM_ID, result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).getTelegramId());
+        assertEquals(1, persistence.writes.get());
+    }
+
+    /**
+     * Test method to verify that the pending updates fail when the write-behind stops without flushing.
+     */
+    @Test
+    public void testPendingUpdatesFailOnShutdownWithoutFlush() {
+        start(LONG_WINDOW, false);
+        CompletableFuture<UserContact> result = update(contact -> contact.setTelegramId(TELEGRAM_ID));
+
+        writeBehind.stop();
+
+        assertInstanceOf(IllegalStateException.class, errorOf(result));
+        assertEquals(0, persistence.writes.get());
+    }
+
+    /**
+     * Persistence writing to fresh contacts, failing the next writes with queued errors and any write setting the
+     * rejected telegram id with a permanent error.
+     */
+    private static final class FlakyPersistence implements UserContactPersistence {
+
+        private final Queue<RuntimeException> failures = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger writes = new AtomicInteger();
+
+        @Override
+        public Flux<UserContact> updateAll(Map<Long, Consumer<UserContact>> changes) {
+            return Flux.defer(() -> {
+                writes.incrementAndGet();
+                RuntimeException failure = failures.poll();
+                if (failure != null) {
+                    return Flux.error(failure);
+                }
+                return Flux.fromIterable(changes.entrySet()).map(entry -> {
+                    UserContact userContact = new StoredContact(entry.getKey());
+                    entry.getValue().accept(userContact);
+                    return userContact;
+                });
+            });
+        }
+
+        @Override
+        public Mono<UserContact> update(Long id, Consumer<UserContact> changes) {
+            return updateAll(Map.of(id, changes)).next();
+        }
+
+        @Override
+        public Mono<UserContact> save(UserContact userContact) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Mono<UserContact> findById(Long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Flux<UserContact> findAllById(Collection<Long> ids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Mono<UserContact> findByUserId(Long userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Mono<UserContact> updateIfVersion(Long id, long version, UserContact values) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Mono<UserContact> patch(Long id, Long expectedVersion, Map<String, String> changes) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * A stored contact, refusing the rejected telegram id as the database would refuse a value breaking one of its
+     * constraints.
+     */
+    private static final class StoredContact extends UserContact {
+
+        private final Long id;
+
+        StoredContact(final Long id) {
+            this.id = id;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public void setTelegramId(String telegramId) {
+            if (REJECTED_TELEGRAM_ID.equals(telegramId)) {
+                throw new DataIntegrityViolationException("Telegram id " + telegramId + " is taken");
+            }
+            super.setTelegramId(telegramId);
+        }
+    }
+}
@@ -4,7 +4,6 @@ import com.iprody.userprofile.userprofileservice.AbstractIntegrationTest;
 import com.iprody.userprofile.userprofileservice.entity.User;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
-import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,6 +13,8 @@ import reactor.test.StepVerifier;
 
 import java.util.NoSuchElementException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 /**
  * This class contains unit tests for the UserService class.
  */
@@ -71,8 +72,8 @@ class UserServiceTest extends AbstractIntegrationTest {
     @Test
     @Order(2)
     public void testCreateUser_ButEmailDoesNotUnique() {
-        User createdUser = getValidUser();
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> userService.createUser(createdUser));
+        StepVerifier.create(userService.createUser(getValidUser()))
+                .expectError(DataIntegrityViolationException.class).verify();
     }
 
     /**
@@ -130,4 +131,30 @@ class UserServiceTest extends AbstractIntegrationTest {
         StepVerifier.create(userService.updateUser(2L, updatedUser))
                 .expectError(NoSuchElementException.class).verify();
     }
+
+    /**
+     * Test method to verify that a cached user is invalidated by an update.
+     * @param assertion SoftAssertions instance for making multiple assertions in a single test.
+     */
+    @Test
+    @Order(7)
+    public void testFindUserById_AfterUpdate(SoftAssertions assertion) {
+        StepVerifier.create(userService.findUserById(1L))
+                .assertNext(foundUser -> assertion.assertThat(foundUser.getLastName())
+                        .isEqualTo(getUpdatedValidUser().getLastName()))
+                .verifyComplete();
+    }
+
+    /**
+     * Test method to verify that changing a found user leaves the cached user intact.
+     */
+    @Test
+    @Order(9)
+    public void testFindUserById_ReturnsCopy() {
+        userService.findUserById(1L).block().setLastName(TEST_LAST_NAME);
+
+        StepVerifier.create(userService.findUserById(1L))
+                .assertNext(foundUser -> assertEquals(UPDATED_TEST_LAST_NAME, foundUser.getLastName()))
+                .verifyComplete();
+    }
 }
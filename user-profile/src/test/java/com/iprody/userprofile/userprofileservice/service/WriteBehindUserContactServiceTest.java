@@ -0,0 +1,56 @@
+package com.iprody.userprofile.userprofileservice.service;
+
+import com.iprody.userprofile.userprofileservice.entity.UserContact;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the UserContactService tests with the write-behind of updates enabled.
+ */
+@TestPropertySource(properties = "user-profile.contact-write-behind.enabled=true")
+class WriteBehindUserContactServiceTest extends UserContactServiceTest {
+
+    private static final int UPDATES = 20;
+    private static final String TELEGRAM_ID_PREFIX = "@coalesced";
+    private static final String MOBILE_PHONE = "+79530000000";
+
+    @Autowired
+    private UserContactService userContactService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Test method to verify that concurrent updates of one user contact are coalesced into fewer writes, every
+     * caller being answered with a written state and the last update winning.
+     */
+    @Test
+    @Order(11)
+    public void testConcurrentUpdatesAreCoalesced() {
+        DistributionSummary coalesced = meterRegistry.get("user.profile.contact.write-behind.coalesced").summary();
+        long writesBefore = coalesced.count();
+        double updatesBefore = coalesced.totalAmount();
+
+        StepVerifier.create(Flux.range(0, UPDATES)
+                        .flatMap(update -> userContactService.update(1L, UserContact.builder()
+                                .telegramId(TELEGRAM_ID_PREFIX + update).mobilePhone(MOBILE_PHONE).build())))
+                .expectNextCount(UPDATES)
+                .verifyComplete();
+
+        assertEquals(UPDATES, coalesced.totalAmount() - updatesBefore);
+        assertTrue(coalesced.count() - writesBefore < UPDATES);
+        StepVerifier.create(userContactService.findById(1L))
+                .assertNext(userContact -> assertEquals(TELEGRAM_ID_PREFIX + (UPDATES - 1),
+                        userContact.getTelegramId()))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,319 @@
+package com.iprody.userprofile.userprofileservice.tracing;
+
+import com.iprody.userprofile.userprofileservice.config.TracingExportProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.IdGenerator;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class contains unit tests for TailSamplingSpanProcessor and SpanExportQueue, recording the exported spans.
+ */
+class TailSamplingSpanProcessorTest {
+
+    private static final String LOW_TRACE_ID = "0123456789abcdef0000000000000001";
+    private static final String HIGH_TRACE_ID = "0123456789abcdefffffffffffffffff";
+    private static final String ROOT = "root";
+    private static final String CHILD = "child";
+    private static final String DROPPED = "dropped";
+    private static final String UNSAMPLED = "unsampled";
+    private static final double HALF_RATE = 0.5;
+    private static final long START_MILLIS = 1_000;
+    private static final long FAST_MILLIS = START_MILLIS + 10;
+    private static final long SLOW_MILLIS = START_MILLIS + 600;
+    private static final Duration SLOW_THRESHOLD = Duration.ofMillis(500);
+    private static final Duration SHORT_TIMEOUT = Duration.ofMillis(50);
+    private static final Duration LONG_TIMEOUT = Duration.ofMinutes(1);
+    private static final Duration EXPORT_INTERVAL = Duration.ofMillis(10);
+    private static final Duration EXPORT_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final int CAPACITY = 100;
+    private static final int SMALL_CAPACITY = 2;
+    private static final int OVERFLOW = 4;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RecordingExporter exporter = new RecordingExporter();
+
+    private String traceId = LOW_TRACE_ID;
+
+    private SdkTracerProvider tracerProvider;
+
+    private Tracer tracer;
+
+    /**
+     * Shuts the tracer provider down, which stops the export queue.
+     */
+    @AfterEach
+    void shutdown() {
+        exporter.release();
+        if (tracerProvider != null) {
+            tracerProvider.shutdown().join(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Creates the sampling settings used by the tests.
+     *
+     * @param baseRate       The base rate.
+     * @param pendingTimeout The time after which held spans are dropped.
+     * @param queueCapacity  The capacity of the export queue.
+     * @param batchSize      The export batch size.
+     * @return The settings.
+     */
+    private static TracingExportProperties properties(double baseRate, Duration pendingTimeout, int queueCapacity,
+                                                      int batchSize) {
+        return new TracingExportProperties(baseRate, SLOW_THRESHOLD, CAPACITY, CAPACITY, pendingTimeout,
+                queueCapacity, batchSize, EXPORT_INTERVAL, EXPORT_TIMEOUT);
+    }
+
+    /**
+     * Starts a tracer whose spans go through a tail sampling processor with the given settings.
+     *
+     * @param baseRate       The base rate.
+     * @param pendingTimeout The time after which held spans are dropped.
+     */
+    private void startTracer(double baseRate, Duration pendingTimeout) {
+        TracingExportProperties properties = properties(baseRate, pendingTimeout, CAPACITY, CAPACITY);
+        tracerProvider = SdkTracerProvider.builder()
+                .setIdGenerator(new FixedTraceIdGenerator())
+                .addSpanProcessor(new TailSamplingSpanProcessor(new SpanExportQueue(exporter, properties,
+                        meterRegistry), properties, meterRegistry))
+                .build();
+        tracer = tracerProvider.get("test");
+    }
+
+    /**
+     * Starts a local root span of a new trace.
+     *
+     * @return The span.
+     */
+    private Span startRoot() {
+        return tracer.spanBuilder(ROOT).setNoParent().setStartTimestamp(START_MILLIS, TimeUnit.MILLISECONDS)
+                .startSpan();
+    }
+
+    /**
+     * Starts a child span.
+     *
+     * @param parent The parent span.
+     * @return The span.
+     */
+    private Span startChild(Span parent) {
+        return tracer.spanBuilder(CHILD).setParent(Context.root().with(parent))
+                .setStartTimestamp(START_MILLIS, TimeUnit.MILLISECONDS).startSpan();
+    }
+
+    /**
+     * Returns the number of spans with an outcome.
+     *
+     * @param outcome The outcome.
+     * @return The count.
+     */
+    private double spans(String outcome) {
+        return meterRegistry.get(SpanExportQueue.SPANS_METRIC).tag(SpanExportQueue.OUTCOME_TAG, outcome).counter()
+                .count();
+    }
+
+    /**
+     * Test method to verify that a trace with a failed child is exported whole, its root ending after the child.
+     */
+    @Test
+    public void testTraceWithErrorIsExported() {
+        startTracer(0, LONG_TIMEOUT);
+        Span root = startRoot();
+        startChild(root).setStatus(StatusCode.ERROR).end(FAST_MILLIS, TimeUnit.MILLISECONDS);
+        root.end(FAST_MILLIS, TimeUnit.MILLISECONDS);
+
+        await().atMost(TIMEOUT).until(() -> exporter.names().size() == 2);
+        assertTrue(exporter.names().containsAll(List.of(ROOT, CHILD)));
+    }
+
+    /**
+     * Test method to verify that a slow trace is exported and a fast one without error is not.
+     */
+    @Test
+    public void testSlowTraceIsExported() {
+        startTracer(0, LONG_TIMEOUT);
+        Span fastRoot = startRoot();
+        startChild(fastRoot).end(FAST_MILLIS, TimeUnit.MILLISECONDS);
+        fastRoot.end(FAST_MILLIS, TimeUnit.MILLISECONDS);
+        traceId = HIGH_TRACE_ID;
+        Span slowRoot = startRoot();
+        startChild(slowRoot).end(FAST_MILLIS, TimeUnit.MILLISECONDS);
+        slowRoot.end(SLOW_MILLIS, TimeUnit.MILLISECONDS);
+
+        await().atMost(TIMEOUT).until(() -> exporter.names().size() == 2);
+        assertEquals(2, spans(UNSAMPLED));
+    }
+
+    /**
+     * Test method to verify that the base rate only exports the traces whose random part of the id is below it.
+     */
+    @Test
+    public void testBaseRateBound() {
+        startTracer(HALF_RATE, LONG_TIMEOUT);
+        startRoot().end(FAST_MILLIS, TimeUnit.MILLISECONDS);
+        traceId = HIGH_TRACE_ID;
+        startRoot().end(FAST_MILLIS, TimeUnit.MILLISECONDS);
+
+        await().atMost(TIMEOUT).until(() -> exporter.spans.size() == 1);
+        assertEquals(LOW_TRACE_ID, exporter.spans.get(0).getTraceId());
+        assertEquals(1, spans(UNSAMPLED));
+    }
+
+    /**
+     * Test method to verify that spans ending after their root follow the decision of the trace, unless they failed.
+     */
+    @Test
+    public void testLateSpansFollowDecision() {
+        startTracer(0, LONG_TIMEOUT);
+        Span root = startRoot();
+        Span lateChild = startChild(root);
+        Span lateFailedChild = startChild(root);
+        root.end(FAST_MILLIS, TimeUnit.MILLISECONDS);
+        lateChild.end(FAST_MILLIS, TimeUnit.MILLISECONDS);
+        lateFailedChild.setStatus(StatusCode.ERROR).end(FAST_MILLIS, TimeUnit.MILLISECONDS);
+
+        await().atMost(TIMEOUT).until(() -> exporter.names().size() == 1);
+        assertEquals(2, spans(UNSAMPLED));
+        assertEquals(CHILD, exporter.names().get(0));
+    }
+
+    /**
+     * Test method to verify that the held spans of a trace whose root never ends are dropped once expired.
+     */
+    @Test
+    public void testPendingTraceExpires() {
+        startTracer(0, SHORT_TIMEOUT);
+        startChild(startRoot()).end(FAST_MILLIS, TimeUnit.MILLISECONDS);
+
+        await().atMost(TIMEOUT).until(() -> spans("evicted") == 1);
+        assertTrue(exporter.spans.isEmpty());
+    }
+
+    /**
+     * Test method to verify that spans offered while the export queue is full are dropped and counted.
+     */
+    @Test
+    public void testFullQueueDropsSpans() {
+        startTracer(0, LONG_TIMEOUT);
+        SpanData span = ((ReadableSpan) startRoot()).toSpanData();
+        exporter.block();
+        SpanExportQueue queue = new SpanExportQueue(exporter, properties(0, LONG_TIMEOUT, SMALL_CAPACITY, 1),
+                meterRegistry);
+
+        queue.offer(List.of(span));
+        exporter.awaitBlocked();
+        queue.offer(Collections.nCopies(OVERFLOW, span));
+        assertEquals(OVERFLOW - SMALL_CAPACITY, spans(DROPPED));
+
+        exporter.release();
+        queue.shutdown();
+        assertEquals(1 + SMALL_CAPACITY, exporter.spans.size());
+    }
+
+    /**
+     * Id generator handing out the trace id set by the test.
+     */
+    private final class FixedTraceIdGenerator implements IdGenerator {
+
+        @Override
+        public String generateSpanId() {
+            return IdGenerator.random().generateSpanId();
+        }
+
+        @Override
+        public String generateTraceId() {
+            return traceId;
+        }
+    }
+
+    /**
+     * Exporter recording the exported spans, which can be made to block.
+     */
+    private static final class RecordingExporter implements SpanExporter {
+
+        private final List<SpanData> spans = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        private volatile CountDownLatch blocked;
+
+        /**
+         * Makes the next exports block until released.
+         */
+        void block() {
+            blocked = new CountDownLatch(1);
+        }
+
+        /**
+         * Lets blocked exports return.
+         */
+        void release() {
+            released.countDown();
+        }
+
+        /**
+         * Waits for an export to block.
+         */
+        void awaitBlocked() {
+            await().atMost(TIMEOUT).until(() -> blocked.getCount() == 0);
+        }
+
+        /**
+         * Returns the names of the exported spans.
+         *
+         * @return The names.
+         */
+        List<String> names() {
+            return spans.stream().map(SpanData::getName).toList();
+        }
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> batch) {
+            spans.addAll(batch);
+            if (blocked != null) {
+                blocked.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}